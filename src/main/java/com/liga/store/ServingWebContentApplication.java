@@ -2,6 +2,7 @@ package com.liga.store;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Class for launch an application.
@@ -11,11 +12,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * other beans, and various property settings.
  * @ComponentScan: tells Spring to look for other components, configurations,
  * and services in the package, letting it find the controllers.
+ * @EnableScheduling: runs the methods marked with the @Scheduled annotation.
  *
  * @author Nazirov Ilhomjon (naziroffjr@gmail@gmail.com)
  * @version 1.0
  */
 @SpringBootApplication
+@EnableScheduling
 public class ServingWebContentApplication {
     /**
      * The main() method uses Spring Boot’s SpringApplication.run() method to launch an application.
@@ -2,6 +2,7 @@ package com.liga.store.aspect;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.liga.store.domain.User;
 import com.liga.store.repos.UserRepository;
 import com.liga.store.utils.Utils;
@@ -33,7 +34,8 @@ import java.util.UUID;
 @Component
 public class LoggingAdvice {
 
-    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
 
     private final UserRepository userRepository;
 
@@ -0,0 +1,111 @@
+package com.liga.store.cart;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background deletion of abandoned shopping carts.
+ * A cart is abandoned when it was not used for the configured number of days. Carts are deleted
+ * by the {@link CartStore} in small batches, each in its own short transaction, and only in the
+ * off-peak hours, a run stops after the configured number of batches and continues on the next run.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CartStore
+ */
+@Slf4j
+@Component
+public class CartExpirySweeper {
+    /**
+     * Store of shopping carts.
+     */
+    private final CartStore cartStore;
+
+    /**
+     * Number of days after which an unused cart is deleted.
+     */
+    @Value("${catalog.cart.expiry.ttl-days:30}")
+    private int ttlDays;
+
+    /**
+     * Maximum number of carts deleted in one transaction.
+     */
+    @Value("${catalog.cart.expiry.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Maximum number of batches of one run.
+     */
+    @Value("${catalog.cart.expiry.max-batches:20}")
+    private int maxBatches;
+
+    /**
+     * Hour the off-peak hours start.
+     */
+    @Value("${catalog.cart.expiry.from-hour:1}")
+    private int fromHour;
+
+    /**
+     * Hour the off-peak hours end, equal to the start hour if carts are deleted at any time.
+     */
+    @Value("${catalog.cart.expiry.to-hour:6}")
+    private int toHour;
+
+    /**
+     * Constructor for initializing the main variables of the sweeper.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param cartStore store of shopping carts.
+     */
+    @Autowired
+    public CartExpirySweeper(CartStore cartStore) {
+        this.cartStore = cartStore;
+    }
+
+    /**
+     * Deletes batches of abandoned carts, oldest first, until no abandoned cart is left
+     * or the batch limit is reached.
+     * The @Scheduled annotation runs the method periodically.
+     */
+    @Scheduled(fixedDelayString = "${catalog.cart.expiry.sweep-ms:60000}")
+    public void sweep() {
+        if (!isOffPeak(LocalTime.now().getHour())) {
+            return;
+        }
+
+        long usedBefore = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(ttlDays);
+        int deleted = 0;
+
+        for (int i = 0; i < maxBatches; i++) {
+            int batch = cartStore.expire(usedBefore, batchSize);
+            deleted += batch;
+
+            if (batch < batchSize) {
+                break;
+            }
+        }
+
+        if (deleted > 0) {
+            log.info("Abandoned carts deleted: {}", deleted);
+        }
+    }
+
+    private boolean isOffPeak(int hour) {
+        if (fromHour == toHour) {
+            return true;
+        }
+
+        if (fromHour < toHour) {
+            return hour >= fromHour && hour < toHour;
+        }
+
+        return hour >= fromHour || hour < toHour;
+    }
+}
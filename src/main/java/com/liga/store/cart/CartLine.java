@@ -0,0 +1,28 @@
+package com.liga.store.cart;
+
+import com.liga.store.domain.Good;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One line of a shopping cart: a {@link Good} and its quantity.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CartStore
+ */
+@Getter
+@AllArgsConstructor
+public class CartLine {
+    /**
+     * The unique code of the good.
+     */
+    private final Long goodId;
+
+    /**
+     * Quantity of the good in the cart.
+     */
+    private final int quantity;
+}
@@ -0,0 +1,486 @@
+package com.liga.store.cart;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Store of shopping carts.
+ * Carts in use are kept in memory, a cart is read from the cart_item table on the first access
+ * and removed from memory when it has not been used for a while and all its changes are written.
+ * Changes of a cart are made under one of a fixed number of locks chosen by the user,
+ * so carts of different users are changed in parallel. Every change marks only the changed line,
+ * changed lines are written behind the requests in one batch per flush, one row per line.
+ * The time the cart was last used is written to the indexed cart table with the lines,
+ * reads of a cart refresh it at most once per touch interval. Abandoned carts are deleted
+ * in small batches found by this index, carts in memory are removed when they are idle
+ * with a {@link TimingWheel}, so neither of them scans all carts.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CartLine
+ */
+@Slf4j
+@Component
+public class CartStore {
+    /**
+     * Number of locks, a power of two.
+     */
+    private static final int STRIPES = 64;
+
+    /**
+     * Length of one tick of the idle wheel in milliseconds.
+     */
+    private static final long IDLE_TICK_MILLIS = 1000;
+
+    private static final String LOAD_SQL = "select i.good_id, i.quantity, c.touched_at from cart_item i "
+            + "left join cart c on c.user_id = i.user_id where i.user_id = ?";
+
+    private static final String UPSERT_SQL = "insert into cart_item (user_id, good_id, quantity) values (?, ?, ?) "
+            + "on conflict (user_id, good_id) do update set quantity = excluded.quantity";
+
+    private static final String DELETE_SQL = "delete from cart_item where user_id = ? and good_id = ?";
+
+    private static final String TOUCH_SQL = "insert into cart (user_id, touched_at) values (?, ?) "
+            + "on conflict (user_id) do update set touched_at = greatest(cart.touched_at, excluded.touched_at)";
+
+    private static final String EXPIRE_SQL = "delete from cart where user_id in (select user_id from cart "
+            + "where touched_at < ? order by touched_at limit ? for update skip locked) returning user_id";
+
+    private static final String DELETE_LINES_SQL = "delete from cart_item where user_id = ?";
+
+    /**
+     * Template for batched JDBC statements.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Template committing every flush in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Locks of the carts, the lock of a cart is chosen by the unique code of the user.
+     */
+    private final Object[] stripes = new Object[STRIPES];
+
+    /**
+     * Number of deleted abandoned carts by lock, a cart read from the database while a cart
+     * of its lock was deleted is read again.
+     */
+    private final long[] expirations = new long[STRIPES];
+
+    /**
+     * Carts in memory by the unique code of the user.
+     */
+    private final Map<Long, Cart> carts = new ConcurrentHashMap<>();
+
+    /**
+     * Users whose carts have changes which are not written yet.
+     */
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Carts in memory by the time they may become idle, guarded by itself.
+     */
+    private final TimingWheel idleWheel = new TimingWheel(IDLE_TICK_MILLIS, System.currentTimeMillis());
+
+    /**
+     * Time in milliseconds after which an unused cart is removed from memory.
+     */
+    @Value("${catalog.cart.idle-ms:600000}")
+    private long idleMillis;
+
+    /**
+     * Minimum time in milliseconds between two writes of the time a cart was used by reads.
+     */
+    @Value("${catalog.cart.touch-ms:3600000}")
+    private long touchMillis;
+
+    /**
+     * Constructor for initializing the main variables of the cart store.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param jdbcTemplate        template for batched JDBC statements.
+     * @param transactionTemplate template committing every flush in its own transaction.
+     */
+    @Autowired
+    public CartStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Returns the lines of the cart.
+     *
+     * @param userId the unique code of the user.
+     * @return lines in the order the goods were added.
+     */
+    public List<CartLine> lines(Long userId) {
+        return withCart(userId, Cart::lines);
+    }
+
+    /**
+     * Changes the cart under its lock and marks the changed lines for writing.
+     * The change sees the current quantities, new quantities are applied only if the change
+     * does not throw an exception, so a failed change leaves the cart as it was.
+     *
+     * @param userId the unique code of the user.
+     * @param change change of the cart.
+     * @return lines after the change.
+     */
+    public List<CartLine> update(Long userId, Consumer<Quantities> change) {
+        return withCart(userId, cart -> {
+            Quantities quantities = new Quantities(cart);
+            change.accept(quantities);
+            quantities.apply();
+
+            if (!cart.dirty.isEmpty()) {
+                cart.touchedAt = cart.lastAccess;
+                cart.touched = true;
+                dirtyUsers.add(userId);
+            }
+
+            return cart.lines();
+        });
+    }
+
+    /**
+     * Deletes a batch of carts which were not used since the time, oldest first.
+     * Carts are found by the index of the time, rows locked by another transaction are skipped,
+     * so the batch holds locks of its rows only. A deleted cart which was used in memory
+     * after the time is kept and written again.
+     *
+     * @param usedBefore time in milliseconds.
+     * @param batchSize  maximum number of deleted carts.
+     * @return number of deleted carts.
+     */
+    public int expire(long usedBefore, int batchSize) {
+        List<Long> userIds = transactionTemplate.execute(status -> {
+            List<Long> expired = jdbcTemplate.queryForList(EXPIRE_SQL, Long.class, new Timestamp(usedBefore), batchSize);
+            List<Object[]> args = new ArrayList<>(expired.size());
+
+            for (Long userId : expired) {
+                args.add(new Object[]{userId});
+            }
+
+            jdbcTemplate.batchUpdate(DELETE_LINES_SQL, args);
+
+            return expired;
+        });
+
+        for (Long userId : userIds) {
+            synchronized (lock(userId)) {
+                expirations[stripe(userId)]++;
+                Cart cart = carts.get(userId);
+
+                if (cart == null) {
+                    continue;
+                }
+
+                if (cart.touchedAt < usedBefore) {
+                    cart.quantities.clear();
+                    cart.dirty.clear();
+                } else {
+                    cart.dirty.addAll(cart.quantities.keySet());
+                    cart.touched = true;
+                    dirtyUsers.add(userId);
+                }
+            }
+        }
+
+        return userIds.size();
+    }
+
+    /**
+     * Writes the changed lines of all carts with one batch and removes unused carts from memory.
+     * If the batch fails the lines are kept for the next flush.
+     * The @Scheduled annotation runs the method periodically.
+     */
+    @Scheduled(fixedDelayString = "${catalog.cart.flush-ms:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> touches = new ArrayList<>();
+        Map<Long, Set<Long>> written = new LinkedHashMap<>();
+
+        for (Long userId : dirtyUsers) {
+            dirtyUsers.remove(userId);
+            Cart cart = carts.get(userId);
+
+            if (cart == null) {
+                continue;
+            }
+
+            synchronized (lock(userId)) {
+                for (Long goodId : cart.dirty) {
+                    Integer quantity = cart.quantities.get(goodId);
+
+                    if (quantity == null) {
+                        deletes.add(new Object[]{userId, goodId});
+                    } else {
+                        upserts.add(new Object[]{userId, goodId, quantity});
+                    }
+                }
+
+                if (cart.touched) {
+                    touches.add(new Object[]{userId, new Timestamp(cart.touchedAt)});
+                    cart.touched = false;
+                }
+
+                written.put(userId, new HashSet<>(cart.dirty));
+                cart.dirty.clear();
+            }
+        }
+
+        if (!written.isEmpty()) {
+            try {
+                transactionTemplate.execute(status -> {
+                    jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+                    jdbcTemplate.batchUpdate(TOUCH_SQL, touches);
+                    return null;
+                });
+                log.debug("Carts flushed: {} rows", upserts.size() + deletes.size() + touches.size());
+            } catch (RuntimeException e) {
+                written.forEach(this::markDirty);
+                log.error("Cart flush of {} rows failed", upserts.size() + deletes.size() + touches.size(), e);
+            }
+        }
+
+        evictIdle();
+    }
+
+    /**
+     * Returns the lines of the changed goods and the time of use to the changed set after a failed flush.
+     */
+    private void markDirty(Long userId, Set<Long> goodIds) {
+        Cart cart = carts.get(userId);
+
+        synchronized (lock(userId)) {
+            cart.dirty.addAll(goodIds);
+            cart.touched = true;
+        }
+
+        dirtyUsers.add(userId);
+    }
+
+    /**
+     * Removes from memory the carts which are not used and have no unwritten changes.
+     * Only carts whose idle time has come are checked, a cart used since then is put back
+     * into the wheel at its new idle time.
+     * Runs in the flush only, so a cart is never removed while its changes are being written.
+     */
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<Long> expired;
+
+        synchronized (idleWheel) {
+            expired = idleWheel.advance(now);
+        }
+
+        for (Long userId : expired) {
+            synchronized (lock(userId)) {
+                Cart cart = carts.get(userId);
+
+                if (cart == null) {
+                    continue;
+                }
+
+                long idleAt = cart.lastAccess + idleMillis;
+
+                if (idleAt <= now && cart.dirty.isEmpty() && !cart.touched) {
+                    carts.remove(userId);
+                } else {
+                    scheduleIdle(userId, idleAt);
+                }
+            }
+        }
+    }
+
+    private void scheduleIdle(Long userId, long idleAt) {
+        synchronized (idleWheel) {
+            idleWheel.add(userId, idleAt);
+        }
+    }
+
+    /**
+     * Returns the cart from memory or reads it from the database.
+     * Returns {@code null} if an abandoned cart of its lock was deleted while the cart was read,
+     * the caller reads it again.
+     */
+    private Cart cart(Long userId) {
+        Cart cart = carts.get(userId);
+
+        if (cart != null) {
+            return cart;
+        }
+
+        long expiration;
+
+        synchronized (lock(userId)) {
+            expiration = expirations[stripe(userId)];
+        }
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        long[] touchedAt = new long[1];
+        jdbcTemplate.query(LOAD_SQL, row -> {
+            quantities.put(row.getLong(1), row.getInt(2));
+            Timestamp touched = row.getTimestamp(3);
+            touchedAt[0] = touched == null ? 0 : touched.getTime();
+        }, userId);
+
+        synchronized (lock(userId)) {
+            cart = carts.get(userId);
+
+            if (cart == null && expiration == expirations[stripe(userId)]) {
+                cart = new Cart(quantities, touchedAt[0]);
+                carts.put(userId, cart);
+                scheduleIdle(userId, cart.lastAccess + idleMillis);
+            }
+
+            return cart;
+        }
+    }
+
+    /**
+     * Runs the action under the lock of the cart, the cart is read again if it was removed from memory
+     * before the lock was taken.
+     */
+    private <T> T withCart(Long userId, Function<Cart, T> action) {
+        while (true) {
+            Cart cart = cart(userId);
+
+            synchronized (lock(userId)) {
+                if (cart != null && carts.get(userId) == cart) {
+                    cart.lastAccess = System.currentTimeMillis();
+
+                    if (cart.lastAccess - cart.touchedAt >= touchMillis) {
+                        cart.touchedAt = cart.lastAccess;
+                        cart.touched = true;
+                        dirtyUsers.add(userId);
+                    }
+
+                    return action.apply(cart);
+                }
+            }
+        }
+    }
+
+    private Object lock(Long userId) {
+        return stripes[stripe(userId)];
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (STRIPES - 1);
+    }
+
+    /**
+     * Quantities of the goods of one cart seen by a change.
+     * New quantities are applied to the cart only when the change completes.
+     */
+    public static final class Quantities {
+        private final Cart cart;
+        private final Map<Long, Integer> changed = new LinkedHashMap<>();
+
+        private Quantities(Cart cart) {
+            this.cart = cart;
+        }
+
+        /**
+         * Returns the quantity of the good in the cart.
+         *
+         * @param goodId the unique code of the good.
+         * @return quantity, zero if the good is not in the cart.
+         */
+        public int get(Long goodId) {
+            Integer quantity = changed.containsKey(goodId) ? changed.get(goodId) : cart.quantities.get(goodId);
+
+            return quantity == null ? 0 : quantity;
+        }
+
+        /**
+         * Sets the quantity of the good, zero removes the good from the cart.
+         *
+         * @param goodId   the unique code of the good.
+         * @param quantity new quantity.
+         */
+        public void set(Long goodId, int quantity) {
+            changed.put(goodId, quantity > 0 ? quantity : null);
+        }
+
+        /**
+         * Returns the unique codes of the goods in the cart.
+         *
+         * @return the unique codes of the goods.
+         */
+        public Set<Long> goodIds() {
+            Set<Long> goodIds = new HashSet<>(cart.quantities.keySet());
+            changed.forEach((goodId, quantity) -> {
+                if (quantity == null) {
+                    goodIds.remove(goodId);
+                } else {
+                    goodIds.add(goodId);
+                }
+            });
+
+            return goodIds;
+        }
+
+        private void apply() {
+            changed.forEach((goodId, quantity) -> {
+                Integer previous = quantity == null ? cart.quantities.remove(goodId) : cart.quantities.put(goodId, quantity);
+
+                if (!Objects.equals(previous, quantity)) {
+                    cart.dirty.add(goodId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Cart of one user, guarded by the lock of the user.
+     */
+    private static final class Cart {
+        private final Map<Long, Integer> quantities;
+        private final Set<Long> dirty = new HashSet<>();
+        private long lastAccess = System.currentTimeMillis();
+        private long touchedAt;
+        private boolean touched;
+
+        private Cart(Map<Long, Integer> quantities, long touchedAt) {
+            this.quantities = quantities;
+            this.touchedAt = touchedAt;
+        }
+
+        private List<CartLine> lines() {
+            List<CartLine> lines = new ArrayList<>(quantities.size());
+            quantities.forEach((goodId, quantity) -> lines.add(new CartLine(goodId, quantity)));
+
+            return lines;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.liga.store.cart;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel of keys with deadlines.
+ * Every level is a ring of 64 slots, a slot of the first level covers one tick and a slot
+ * of every next level covers all slots of the previous one, so four levels cover 64^4 ticks.
+ * A key is put into the level of its distance from the current tick and moved down the levels
+ * when the wheel reaches its slot, so adding a key and finding expired keys do not depend
+ * on the number of keys in the wheel.
+ * The class is not thread-safe, callers synchronize on the wheel.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CartStore
+ */
+class TimingWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * Maximum distance in ticks, later deadlines are moved to it and expire early.
+     */
+    private static final long MAX_TICKS = (1L << (BITS * LEVELS)) - 1;
+
+    /**
+     * Length of one tick in milliseconds.
+     */
+    private final long tickMillis;
+
+    /**
+     * Keys with the tick of their deadline by level and slot.
+     */
+    private final List<List<Entry>> slots = new ArrayList<>(LEVELS * SLOTS);
+
+    /**
+     * The last passed tick.
+     */
+    private long current;
+
+    /**
+     * Number of keys in the wheel.
+     */
+    private int size;
+
+    /**
+     * Creates the wheel starting at the time.
+     *
+     * @param tickMillis length of one tick in milliseconds.
+     * @param nowMillis  current time in milliseconds.
+     */
+    TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.current = nowMillis / tickMillis;
+
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Adds the key, a key added twice expires twice.
+     *
+     * @param key            key.
+     * @param deadlineMillis time in milliseconds when the key expires.
+     */
+    void add(long key, long deadlineMillis) {
+        long tick = Math.max(current + 1, (deadlineMillis + tickMillis - 1) / tickMillis);
+        place(new Entry(key, Math.min(tick, current + MAX_TICKS)));
+        size++;
+    }
+
+    /**
+     * Moves the wheel to the time and returns the keys whose deadline has passed.
+     *
+     * @param nowMillis current time in milliseconds.
+     * @return expired keys in the order of their deadlines.
+     */
+    List<Long> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<Long> expired = new ArrayList<>();
+
+        while (current < target && size > 0) {
+            current++;
+            cascade();
+
+            List<Entry> slot = slots.get((int) (current & MASK));
+
+            for (Entry entry : slot) {
+                expired.add(entry.key);
+            }
+
+            size -= slot.size();
+            slot.clear();
+        }
+
+        current = Math.max(current, target);
+
+        return expired;
+    }
+
+    /**
+     * Returns the number of keys in the wheel.
+     *
+     * @return number of keys.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Moves keys of the slots reached by the current tick to the lower levels,
+     * starting from the highest level so that no key skips a slot.
+     */
+    private void cascade() {
+        int level = 0;
+
+        while (level + 1 < LEVELS && (current & ((1L << (BITS * (level + 1))) - 1)) == 0) {
+            level++;
+        }
+
+        for (; level > 0; level--) {
+            List<Entry> slot = slots.get(index(level, current));
+            List<Entry> entries = new ArrayList<>(slot);
+            slot.clear();
+
+            for (Entry entry : entries) {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Entry entry) {
+        long distance = entry.tick - current;
+        int level = 0;
+
+        while (level + 1 < LEVELS && distance >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+
+        slots.get(index(level, entry.tick)).add(entry);
+    }
+
+    private static int index(int level, long tick) {
+        return level * SLOTS + (int) ((tick >>> (BITS * level)) & MASK);
+    }
+
+    private static final class Entry {
+        private final long key;
+        private final long tick;
+
+        private Entry(long key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.liga.store.catalog;
+
+import com.liga.store.domain.projection.GoodDeltaView;
+import com.liga.store.events.CatalogImportedEvent;
+import com.liga.store.events.GoodChangedEvent;
+import com.liga.store.exeptions.TooManyRequestsException;
+import com.liga.store.repos.GoodRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Feed of the price and quantity changes of goods pushed to the storefront with Server-Sent Events.
+ * Every change gets the next number of the feed. The id of the event is the start time of the feed
+ * and the number, so a client which reconnects with the Last-Event-ID header receives only the changes
+ * it missed, and a client of a restarted application is told to reload.
+ * The last changes are kept in a ring buffer, a client which missed more changes than the buffer holds,
+ * or a bulk import, gets the "reset" event and reloads the catalog.
+ * All changes and subscriptions are processed by one thread in order, it only puts the events into
+ * the bounded queues of the clients, and a small pool of threads sends them, so the committing thread
+ * and the other clients never wait for a slow client. A client whose queue overflows is disconnected
+ * and reconnects with the Last-Event-ID header. The number of clients is bounded.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see GoodDelta
+ * @see GoodChangedEvent
+ */
+@Slf4j
+@Component
+public class CatalogChangeFeed {
+    private static final String DELTA_EVENT = "delta";
+    private static final String RESET_EVENT = "reset";
+
+    /**
+     * Start time of the feed, numbers of the changes are valid only with it.
+     */
+    private final long epoch = System.currentTimeMillis();
+
+    /**
+     * Implementation of the {@link GoodRepository} interface
+     * for working with goods with a database.
+     */
+    private final GoodRepository goodRepository;
+
+    /**
+     * The last changes, the change with the number n is kept at n % length.
+     */
+    private final GoodDelta[] buffer;
+
+    /**
+     * Connected clients.
+     */
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of clients connected or waiting for the replay.
+     */
+    private final AtomicInteger connections = new AtomicInteger();
+
+    /**
+     * Maximum number of clients.
+     */
+    private final int maxSubscribers;
+
+    /**
+     * Maximum number of events waiting to be sent to one client.
+     */
+    private final int subscriberBuffer;
+
+    /**
+     * Thread publishing the changes and replaying them to new clients, with a bounded queue of tasks.
+     */
+    private final ExecutorService dispatcher;
+
+    /**
+     * Threads sending the queued events to the clients, at most one task per client.
+     */
+    private final ExecutorService senders;
+
+    /**
+     * True if a task of the dispatcher was rejected, the clients are told to reload by the next task.
+     */
+    private volatile boolean lost;
+
+    /**
+     * Time in milliseconds after which a client has to reconnect.
+     */
+    @Value("${catalog.feed.timeout-ms:1800000}")
+    private long timeout;
+
+    /**
+     * Number of the last change, changed only by the dispatcher thread.
+     */
+    private volatile long sequence;
+
+    /**
+     * Number of the last bulk reload, changes up to it cannot be replayed.
+     */
+    private volatile long resetAt;
+
+    /**
+     * Constructor for initializing the main variables of the change feed.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodRepository   implementation of the {@link GoodRepository} interface
+     *                         for working with goods with a database.
+     * @param bufferSize       number of the last changes which can be replayed.
+     * @param maxSubscribers   maximum number of clients.
+     * @param subscriberBuffer maximum number of events waiting to be sent to one client.
+     * @param senderThreads    number of threads sending the events.
+     * @param dispatchQueue    maximum number of tasks waiting for the dispatcher thread.
+     */
+    @Autowired
+    public CatalogChangeFeed(GoodRepository goodRepository,
+                             @Value("${catalog.feed.buffer-size:10000}") int bufferSize,
+                             @Value("${catalog.feed.max-subscribers:1000}") int maxSubscribers,
+                             @Value("${catalog.feed.subscriber-buffer:1000}") int subscriberBuffer,
+                             @Value("${catalog.feed.sender-threads:4}") int senderThreads,
+                             @Value("${catalog.feed.dispatch-queue:10000}") int dispatchQueue) {
+        this.goodRepository = goodRepository;
+        this.buffer = new GoodDelta[bufferSize];
+        this.maxSubscribers = maxSubscribers;
+        this.subscriberBuffer = subscriberBuffer;
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dispatchQueue), daemon("catalog-feed"));
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemon("catalog-feed-sender"));
+    }
+
+    /**
+     * Connects a client to the feed.
+     * Changes after the last seen one are sent first, then the new changes as they happen.
+     *
+     * @param lastEventId id of the last event seen by the client or {@code null} for a new client.
+     * @return The {@link SseEmitter} class object.
+     * @throws TooManyRequestsException if the number of clients is at the limit.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (connections.incrementAndGet() > maxSubscribers) {
+            connections.decrementAndGet();
+            throw new TooManyRequestsException("Слишком много подписчиков, попробуйте позже");
+        }
+
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeout));
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        boolean dispatched = dispatch(() -> {
+            Long lastSeen = parseSequence(lastEventId);
+
+            if (lastSeen == null ? reset(subscriber) : replay(subscriber, lastSeen)) {
+                subscribers.add(subscriber);
+            }
+        });
+
+        if (!dispatched) {
+            subscriber.close();
+            throw new TooManyRequestsException("Слишком много подписчиков, попробуйте позже");
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Publishes the changes of the goods after the transaction which changed them is committed.
+     *
+     * @param event event with the unique codes of the changed goods.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGoodChanged(GoodChangedEvent event) {
+        List<Long> ids = event.getIds();
+
+        if (!dispatch(() -> publish(ids))) {
+            lost = true;
+        }
+    }
+
+    /**
+     * Tells the clients to reload the catalog after a bulk import.
+     */
+    @EventListener(CatalogImportedEvent.class)
+    public void onCatalogImported() {
+        if (!dispatch(this::resetAll)) {
+            lost = true;
+        }
+    }
+
+    /**
+     * Sends a comment to idle clients, so proxies do not close the connections.
+     * The @Scheduled annotation runs the method periodically.
+     */
+    @Scheduled(fixedDelayString = "${catalog.feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        dispatch(() -> {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    /**
+     * Stops the dispatcher and the sender threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Runs the task on the dispatcher thread, a lost change is replaced by the "reset" event first.
+     *
+     * @return false if the queue of the dispatcher is full or the feed is stopped.
+     */
+    private boolean dispatch(Runnable task) {
+        try {
+            dispatcher.execute(() -> {
+                try {
+                    if (lost) {
+                        lost = false;
+                        resetAll();
+                    }
+
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Catalog feed task failed", e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Catalog feed task rejected, the queue is full or the feed is stopped");
+            return false;
+        }
+    }
+
+    /**
+     * Reads the changed goods and queues their new prices and quantities to all clients.
+     */
+    private void publish(List<Long> ids) {
+        Map<Long, GoodDeltaView> views = goodRepository.findDeltaViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(GoodDeltaView::getId, Function.identity()));
+
+        for (Long id : ids) {
+            GoodDeltaView view = views.get(id);
+            long seq = sequence + 1;
+            GoodDelta delta = view == null
+                    ? new GoodDelta(seq, id, null, null, null, true)
+                    : new GoodDelta(seq, id, view.getPrice(), view.getQuantity(), view.getVersion(), false);
+
+            buffer[(int) (seq % buffer.length)] = delta;
+            sequence = seq;
+
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event(DELTA_EVENT, seq, delta));
+            }
+        }
+    }
+
+    /**
+     * Tells all clients to reload the catalog, changes up to now cannot be replayed.
+     */
+    private void resetAll() {
+        resetAt = ++sequence;
+
+        for (Subscriber subscriber : subscribers) {
+            reset(subscriber);
+        }
+    }
+
+    /**
+     * Queues the changes after the last seen one or the "reset" event if they are not kept anymore
+     * or do not fit into the queue of the client.
+     *
+     * @return true if the client is still connected.
+     */
+    private boolean replay(Subscriber subscriber, long lastEventId) {
+        long oldest = Math.max(resetAt, sequence - buffer.length) + 1;
+
+        if (lastEventId + 1 < oldest || lastEventId > sequence || sequence - lastEventId > subscriberBuffer) {
+            return reset(subscriber);
+        }
+
+        for (long seq = lastEventId + 1; seq <= sequence; seq++) {
+            if (!subscriber.offer(event(DELTA_EVENT, seq, buffer[(int) (seq % buffer.length)]))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Tells the client to reload the catalog and to follow the changes after the current one.
+     *
+     * @return true if the client is still connected.
+     */
+    private boolean reset(Subscriber subscriber) {
+        return subscriber.offer(event(RESET_EVENT, sequence, Collections.singletonMap("seq", sequence)));
+    }
+
+    /**
+     * Returns the number of the change in the event id or {@code null} if the id is not of this feed.
+     */
+    private Long parseSequence(String eventId) {
+        if (eventId == null) {
+            return null;
+        }
+
+        String prefix = epoch + "-";
+
+        if (!eventId.startsWith(prefix)) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a new event, an event is built when it is sent, so every client gets its own.
+     */
+    private SseEmitter.SseEventBuilder event(String name, long seq, Object data) {
+        return SseEmitter.event()
+                .id(epoch + "-" + seq)
+                .name(name)
+                .data(data, MediaType.APPLICATION_JSON);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Connected client with the queue of the events waiting to be sent to it.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> events = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues the event and starts sending, a client whose queue is full is disconnected.
+         *
+         * @return true if the client is still connected.
+         */
+        private boolean offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return false;
+            }
+
+            if (!events.offer(event)) {
+                log.debug("Catalog feed client is too slow, {} events are not sent", events.size());
+                disconnect();
+                return false;
+            }
+
+            schedule();
+
+            return true;
+        }
+
+        /**
+         * Starts a sender task unless one is already running for the client.
+         */
+        private void schedule() {
+            if (!sending.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                sending.set(false);
+                disconnect();
+            }
+        }
+
+        /**
+         * Sends the queued events, then starts again if an event was queued after the queue was found empty.
+         */
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+
+                while (!closed.get() && (event = events.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                disconnect();
+            } finally {
+                sending.set(false);
+            }
+
+            if (!closed.get() && !events.isEmpty()) {
+                schedule();
+            }
+        }
+
+        /**
+         * Disconnects the client, it reconnects with the id of the last event it received.
+         */
+        private void disconnect() {
+            if (close()) {
+                emitter.completeWithError(new IOException("Client disconnected"));
+            }
+        }
+
+        /**
+         * Forgets the client once.
+         *
+         * @return true if the client was connected.
+         */
+        private boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+
+            subscribers.remove(this);
+            connections.decrementAndGet();
+            events.clear();
+
+            return true;
+        }
+    }
+}
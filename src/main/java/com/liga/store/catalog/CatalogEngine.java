@@ -0,0 +1,124 @@
+package com.liga.store.catalog;
+
+import com.liga.store.domain.Good;
+import com.liga.store.events.GoodChangedEvent;
+import com.liga.store.repos.GoodRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Optional in-memory catalog engine which holds the current {@link CatalogSnapshot}.
+ * The engine is enabled with the "catalog.snapshot.enabled" property. The snapshot is loaded when
+ * the application starts and after that only changed goods are reloaded from the database.
+ * Readers never take locks, writers publish a new snapshot atomically.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CatalogSnapshot
+ * @see CatalogLoader
+ * @see GoodChangedEvent
+ */
+@Slf4j
+@Component
+public class CatalogEngine extends CatalogLoader<Good, List<Good>> {
+    /**
+     * Implementation of the {@link GoodRepository} interface
+     * for working with goods with a database.
+     */
+    private final GoodRepository goodRepository;
+
+    /**
+     * Current version of the catalog or {@code null} while the catalog is not loaded.
+     */
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * Enables the in-memory catalog.
+     */
+    @Value("${catalog.snapshot.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Constructor for initializing the main variables of the catalog engine.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodRepository implementation of the {@link GoodRepository} interface
+     *                       for working with goods with a database.
+     */
+    @Autowired
+    public CatalogEngine(GoodRepository goodRepository) {
+        this.goodRepository = goodRepository;
+    }
+
+    /**
+     * Returns true if the catalog is loaded and can serve reads.
+     *
+     * @return true if the catalog is loaded.
+     */
+    public boolean isReady() {
+        return snapshot.get() != null;
+    }
+
+    /**
+     * Returns the current version of the catalog.
+     *
+     * @return The {@link CatalogSnapshot} class object or {@code null} while the catalog is not loaded.
+     */
+    public CatalogSnapshot current() {
+        return snapshot.get();
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    protected List<Good> startLoad() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    protected List<Good> findAfter(Long lastId, Pageable pageable) {
+        return goodRepository.findByIdGreaterThanOrderByIdAsc(lastId, pageable);
+    }
+
+    @Override
+    protected List<Good> findAll(List<Long> ids) {
+        return goodRepository.findAllById(ids);
+    }
+
+    @Override
+    protected Long idOf(Good good) {
+        return good.getId();
+    }
+
+    @Override
+    protected void add(List<Good> goods, Good good) {
+        goods.add(good);
+    }
+
+    @Override
+    protected void publish(List<Good> goods) {
+        snapshot.set(CatalogSnapshot.of(goods));
+        log.info("Catalog snapshot loaded: {} goods", goods.size());
+    }
+
+    @Override
+    protected void put(Good good) {
+        snapshot.updateAndGet(current -> current.withGood(good));
+    }
+
+    @Override
+    protected void remove(Long id) {
+        snapshot.updateAndGet(current -> current.withoutGood(id));
+    }
+}
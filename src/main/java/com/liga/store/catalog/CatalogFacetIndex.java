@@ -0,0 +1,118 @@
+package com.liga.store.catalog;
+
+import com.liga.store.domain.Good;
+import com.liga.store.events.GoodChangedEvent;
+import com.liga.store.repos.GoodRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory {@link FacetIndex} over the manufacturers, countries, types and years of all goods.
+ * The index is built from the database when the application starts, after that
+ * changed goods are reindexed in batches.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see FacetIndex
+ * @see CatalogLoader
+ * @see GoodChangedEvent
+ */
+@Slf4j
+@Component
+public class CatalogFacetIndex extends CatalogLoader<Good, FacetIndex> {
+    /**
+     * Implementation of the {@link GoodRepository} interface
+     * for working with goods with a database.
+     */
+    private final GoodRepository goodRepository;
+
+    /**
+     * The index or {@code null} while the index is not loaded.
+     */
+    private volatile FacetIndex index;
+
+    /**
+     * Constructor for initializing the main variables of the facet index.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodRepository implementation of the {@link GoodRepository} interface
+     *                       for working with goods with a database.
+     */
+    @Autowired
+    public CatalogFacetIndex(GoodRepository goodRepository) {
+        this.goodRepository = goodRepository;
+    }
+
+    /**
+     * Returns true if the index is loaded.
+     *
+     * @return true if the index is loaded.
+     */
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * Returns the page of goods matching the filter and the facet counts.
+     *
+     * @param selected    selected values by dimension.
+     * @param yearFrom    the minimum year of release or {@code null}.
+     * @param yearTo      the maximum year of release or {@code null}.
+     * @param after       the unique code of the last good of the previous page or {@code null}.
+     * @param size        maximum number of goods on the page.
+     * @param facetValues maximum number of values returned for every dimension.
+     * @return {@link FacetResult}.
+     */
+    public FacetResult query(Map<FacetDimension, Set<String>> selected, Integer yearFrom, Integer yearTo,
+                             Long after, int size, int facetValues) {
+        return index.query(selected, yearFrom, yearTo, after, size, facetValues);
+    }
+
+    @Override
+    protected FacetIndex startLoad() {
+        return new FacetIndex();
+    }
+
+    @Override
+    protected List<Good> findAfter(Long lastId, Pageable pageable) {
+        return goodRepository.findByIdGreaterThanOrderByIdAsc(lastId, pageable);
+    }
+
+    @Override
+    protected List<Good> findAll(List<Long> ids) {
+        return goodRepository.findAllById(ids);
+    }
+
+    @Override
+    protected Long idOf(Good good) {
+        return good.getId();
+    }
+
+    @Override
+    protected void add(FacetIndex loaded, Good good) {
+        loaded.put(good);
+    }
+
+    @Override
+    protected void publish(FacetIndex loaded) {
+        index = loaded;
+        log.info("Facet index loaded: {} goods", loaded.size());
+    }
+
+    @Override
+    protected void put(Good good) {
+        index.put(good);
+    }
+
+    @Override
+    protected void remove(Long id) {
+        index.remove(id);
+    }
+}
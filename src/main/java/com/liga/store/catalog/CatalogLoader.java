@@ -0,0 +1,236 @@
+package com.liga.store.catalog;
+
+import com.liga.store.datasource.PrimaryReads;
+import com.liga.store.events.CatalogImportedEvent;
+import com.liga.store.events.GoodChangedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base class of the in-memory structures built over all goods of the catalog.
+ * The whole catalog is read from the database in batches ordered by the unique code of the good
+ * when the application starts and after a bulk import, after that only changed goods are reloaded,
+ * all goods of one change with one query per batch.
+ * Goods changed while the catalog is loading are collected and reloaded after the load,
+ * so no change is lost and an older row never replaces a newer one.
+ * Rows are read from the primary database, a lagging replica would leave stale rows in the structure.
+ * Loads and reloads are serialized on the loader, subclasses only build and update their structure.
+ *
+ * @param <T> type of the rows read from the database.
+ * @param <B> type of the structure under construction while the catalog is loading.
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see GoodChangedEvent
+ * @see CatalogImportedEvent
+ */
+public abstract class CatalogLoader<T, B> {
+    /**
+     * Default number of rows loaded from the database in one query.
+     */
+    protected static final int LOAD_BATCH_SIZE = 1000;
+
+    /**
+     * Number of rows loaded from the database in one query.
+     */
+    private final int batchSize;
+
+    /**
+     * Goods changed while the catalog was loading.
+     */
+    private final Set<Long> changedWhileLoading = ConcurrentHashMap.newKeySet();
+
+    /**
+     * True while the first version is not published or the whole catalog is reloading,
+     * changes are collected and applied after the load.
+     */
+    private volatile boolean loading = true;
+
+    /**
+     * Constructor for initializing the loader with the default batch size.
+     */
+    protected CatalogLoader() {
+        this(LOAD_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor for initializing the loader.
+     *
+     * @param batchSize number of rows loaded from the database in one query.
+     */
+    protected CatalogLoader(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads the whole catalog from the database in batches when the application is started
+     * and after a bulk import, then publishes the built structure.
+     */
+    @EventListener({ApplicationReadyEvent.class, CatalogImportedEvent.class})
+    public synchronized void load() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        loading = true;
+
+        PrimaryReads.run(() -> {
+            B target = startLoad();
+            List<T> batch = findAfter(Long.MIN_VALUE, PageRequest.of(0, batchSize));
+
+            while (!batch.isEmpty()) {
+                for (T row : batch) {
+                    add(target, row);
+                }
+
+                Long lastId = idOf(batch.get(batch.size() - 1));
+                batch = findAfter(lastId, PageRequest.of(0, batchSize));
+            }
+
+            publish(target);
+        });
+
+        loading = false;
+        refreshChangedWhileLoading();
+    }
+
+    /**
+     * Reloads the changed goods after the transaction which changed them is committed.
+     *
+     * @param event event with the unique codes of the changed goods.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGoodChanged(GoodChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        if (loading) {
+            changedWhileLoading.addAll(event.getIds());
+
+            if (!loading) {
+                refreshChangedWhileLoading();
+            }
+            return;
+        }
+
+        refresh(event.getIds());
+    }
+
+    /**
+     * Returns true if the structure is maintained, the default is true.
+     *
+     * @return true if the structure is maintained.
+     */
+    protected boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Returns an empty structure before the catalog is loaded.
+     *
+     * @return the structure to fill.
+     */
+    protected abstract B startLoad();
+
+    /**
+     * Returns the rows of the next batch of goods.
+     *
+     * @param lastId   the unique code of the last good of the previous batch.
+     * @param pageable size of the batch.
+     * @return rows ordered by the unique code of the good.
+     */
+    protected abstract List<T> findAfter(Long lastId, Pageable pageable);
+
+    /**
+     * Returns the rows of the goods.
+     *
+     * @param ids the unique codes of the goods, at most the batch size.
+     * @return rows in any order, deleted goods are missing.
+     */
+    protected abstract List<T> findAll(List<Long> ids);
+
+    /**
+     * Returns the unique code of the good of the row.
+     *
+     * @param row row of a good.
+     * @return the unique code of the good.
+     */
+    protected abstract Long idOf(T row);
+
+    /**
+     * Adds the row to the structure under construction.
+     *
+     * @param target the structure to fill.
+     * @param row    row of a good.
+     */
+    protected abstract void add(B target, T row);
+
+    /**
+     * Publishes the filled structure for the readers.
+     *
+     * @param target the filled structure.
+     */
+    protected abstract void publish(B target);
+
+    /**
+     * Replaces the good in the published structure.
+     *
+     * @param row the new row of the good.
+     */
+    protected abstract void put(T row);
+
+    /**
+     * Removes the deleted good from the published structure.
+     *
+     * @param id the unique code of the good.
+     */
+    protected abstract void remove(Long id);
+
+    /**
+     * Reloads goods which were changed before the catalog was loaded.
+     */
+    private void refreshChangedWhileLoading() {
+        List<Long> ids = new ArrayList<>();
+
+        for (Long id : changedWhileLoading) {
+            if (changedWhileLoading.remove(id)) {
+                ids.add(id);
+            }
+        }
+
+        refresh(ids);
+    }
+
+    /**
+     * Reloads the goods from the database in batches and replaces them in the published structure.
+     * Writers are serialized, so an older row can never replace a newer one.
+     *
+     * @param ids the unique codes of the changed goods.
+     */
+    private synchronized void refresh(Collection<Long> ids) {
+        List<Long> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+
+        for (int from = 0; from < unique.size(); from += batchSize) {
+            List<Long> batch = unique.subList(from, Math.min(from + batchSize, unique.size()));
+            Set<Long> deleted = new HashSet<>(batch);
+
+            for (T row : PrimaryReads.call(() -> findAll(batch))) {
+                deleted.remove(idOf(row));
+                put(row);
+            }
+
+            deleted.forEach(this::remove);
+        }
+    }
+}
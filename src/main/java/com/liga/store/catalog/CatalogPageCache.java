@@ -0,0 +1,216 @@
+package com.liga.store.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liga.store.datasource.PrimaryReads;
+import com.liga.store.domain.Good;
+import com.liga.store.domain.GoodSort;
+import com.liga.store.domain.dto.GoodPage;
+import com.liga.store.events.CatalogImportedEvent;
+import com.liga.store.events.GoodChangedEvent;
+import com.liga.store.fields.FieldPlan;
+import com.liga.store.service.GoodService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache of serialized pages of the catalog listing.
+ * A page is kept as encoded and compressed bytes by its cursor, size, sort order and fieldset,
+ * so a repeated request neither reads the database nor runs the JSON serializer.
+ * A changed good may move between pages, so every change of goods clears the whole cache,
+ * except a change of the stock only, which never moves a good and evicts only the pages containing the goods.
+ * Pages are read from the primary database, so a page read from a lagging replica is never cached.
+ * The least recently requested pages are evicted when the cache is full.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see SerializedBody
+ * @see GoodChangedEvent
+ */
+@Component
+public class CatalogPageCache {
+    /**
+     * Service object for working with products.
+     */
+    private final GoodService goodService;
+
+    /**
+     * Object mapper serializing pages.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Cached pages in the order of access.
+     */
+    private final LinkedHashMap<List<Object>, CachedPage> pages;
+
+    /**
+     * Keys of the cached pages by the unique codes of the goods on them.
+     */
+    private final Map<Long, Set<List<Object>>> keysByGood = new HashMap<>();
+
+    /**
+     * Number of invalidations, a page loaded during an invalidation is not cached because it may be stale.
+     */
+    private long evictions;
+
+    /**
+     * Constructor for initializing the main variables of the page cache.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodService  service object for working with products.
+     * @param objectMapper object mapper serializing pages.
+     * @param maxSize      maximum number of cached pages.
+     */
+    @Autowired
+    public CatalogPageCache(GoodService goodService, ObjectMapper objectMapper,
+                            @Value("${catalog.page-cache.max-size:1000}") int maxSize) {
+        this.goodService = goodService;
+        this.objectMapper = objectMapper;
+        this.pages = new LinkedHashMap<List<Object>, CachedPage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, CachedPage> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+
+                unindex(eldest.getKey(), eldest.getValue());
+
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the serialized page of the catalog listing.
+     * Only a missing page is read from the database.
+     *
+     * @param cursor encoded cursor of the page or {@code null} for the first page.
+     * @param size   requested page size or {@code null} for the default size.
+     * @param sort   sort order of the listing.
+     * @param plan   compiled sparse fieldset.
+     * @return The {@link SerializedBody} class object.
+     */
+    public SerializedBody get(String cursor, Integer size, GoodSort sort, FieldPlan plan) {
+        List<Object> key = Arrays.asList(cursor, size, sort, plan.isAll() ? null : plan.getFields());
+        long loadedAt;
+
+        synchronized (this) {
+            CachedPage cached = pages.get(key);
+
+            if (cached != null) {
+                return cached.body;
+            }
+
+            loadedAt = evictions;
+        }
+
+        GoodPage page = PrimaryReads.call(() -> goodService.findPage(cursor, size, sort, plan));
+        SerializedBody body;
+
+        try {
+            body = SerializedBody.of(objectMapper.writer(plan.getFilters()).writeValueAsBytes(page));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        synchronized (this) {
+            if (evictions == loadedAt && !pages.containsKey(key)) {
+                List<Long> ids = new ArrayList<>(page.getContent().size());
+
+                for (Good good : page.getContent()) {
+                    ids.add(good.getId());
+                    keysByGood.computeIfAbsent(good.getId(), id -> new HashSet<>()).add(key);
+                }
+
+                pages.put(key, new CachedPage(body, ids));
+            }
+        }
+
+        return body;
+    }
+
+    /**
+     * Evicts the pages after the transaction which changed goods is committed.
+     * A change of the stock evicts the pages containing the goods, any other change clears the cache.
+     *
+     * @param event event with the unique codes of the changed goods.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGoodChanged(GoodChangedEvent event) {
+        if (!event.isStockOnly()) {
+            clear();
+            return;
+        }
+
+        synchronized (this) {
+            evictions++;
+
+            for (Long id : event.getIds()) {
+                Set<List<Object>> keys = keysByGood.get(id);
+
+                if (keys == null) {
+                    continue;
+                }
+
+                for (List<Object> key : new ArrayList<>(keys)) {
+                    CachedPage page = pages.remove(key);
+
+                    if (page != null) {
+                        unindex(key, page);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears the cache after a bulk import.
+     */
+    @EventListener(CatalogImportedEvent.class)
+    public synchronized void clear() {
+        evictions++;
+        pages.clear();
+        keysByGood.clear();
+    }
+
+    /**
+     * Removes the key of the page from the keys of its goods.
+     */
+    private void unindex(List<Object> key, CachedPage page) {
+        for (Long id : page.ids) {
+            Set<List<Object>> keys = keysByGood.get(id);
+
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByGood.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Serialized page with the unique codes of the goods on it.
+     */
+    private static final class CachedPage {
+        private final SerializedBody body;
+        private final List<Long> ids;
+
+        private CachedPage(SerializedBody body, List<Long> ids) {
+            this.body = body;
+            this.ids = ids;
+        }
+    }
+}
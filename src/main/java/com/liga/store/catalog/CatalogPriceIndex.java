@@ -0,0 +1,130 @@
+package com.liga.store.catalog;
+
+import com.liga.store.domain.projection.GoodPriceView;
+import com.liga.store.events.GoodChangedEvent;
+import com.liga.store.repos.GoodRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory {@link PriceIndex} over the prices of all goods.
+ * The index is built from the database when the application starts, after that
+ * changed goods are inserted, updated or deleted in batches.
+ * Readers never take locks, writers publish a new version of the index.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see PriceIndex
+ * @see CatalogLoader
+ * @see GoodChangedEvent
+ */
+@Slf4j
+@Component
+public class CatalogPriceIndex extends CatalogLoader<GoodPriceView, CatalogPriceIndex.Prices> {
+    /**
+     * Number of prices loaded from the database in one query.
+     */
+    private static final int PRICE_BATCH_SIZE = 5000;
+
+    /**
+     * Implementation of the {@link GoodRepository} interface
+     * for working with goods with a database.
+     */
+    private final GoodRepository goodRepository;
+
+    /**
+     * Current version of the index or {@code null} while the index is not loaded.
+     */
+    private volatile PriceIndex index;
+
+    /**
+     * Constructor for initializing the main variables of the price index.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodRepository implementation of the {@link GoodRepository} interface
+     *                       for working with goods with a database.
+     */
+    @Autowired
+    public CatalogPriceIndex(GoodRepository goodRepository) {
+        super(PRICE_BATCH_SIZE);
+        this.goodRepository = goodRepository;
+    }
+
+    /**
+     * Returns the current version of the index.
+     *
+     * @return The {@link PriceIndex} class object or {@code null} while the index is not loaded.
+     */
+    public PriceIndex current() {
+        return index;
+    }
+
+    @Override
+    protected Prices startLoad() {
+        return new Prices();
+    }
+
+    @Override
+    protected List<GoodPriceView> findAfter(Long lastId, Pageable pageable) {
+        return goodRepository.findPricesAfter(lastId, pageable);
+    }
+
+    @Override
+    protected List<GoodPriceView> findAll(List<Long> ids) {
+        return goodRepository.findPricesByIdIn(ids);
+    }
+
+    @Override
+    protected Long idOf(GoodPriceView row) {
+        return row.getId();
+    }
+
+    @Override
+    protected void add(Prices prices, GoodPriceView row) {
+        if (row.getPrice() != null) {
+            prices.add(row.getId(), row.getPrice());
+        }
+    }
+
+    @Override
+    protected void publish(Prices prices) {
+        index = PriceIndex.of(prices.ids, prices.prices, prices.size);
+        log.info("Price index loaded: {} goods", prices.size);
+    }
+
+    @Override
+    protected void put(GoodPriceView row) {
+        index = row.getPrice() != null ? index.with(row.getId(), row.getPrice()) : index.without(row.getId());
+    }
+
+    @Override
+    protected void remove(Long id) {
+        index = index.without(id);
+    }
+
+    /**
+     * Prices read from the database while the index is loading.
+     */
+    static final class Prices {
+        private long[] ids = new long[PRICE_BATCH_SIZE];
+        private int[] prices = new int[PRICE_BATCH_SIZE];
+        private int size;
+
+        private void add(long id, int price) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+                prices = Arrays.copyOf(prices, prices.length * 2);
+            }
+
+            ids[size] = id;
+            prices[size] = price;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.liga.store.catalog;
+
+import com.liga.store.domain.Good;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable version of the whole {@link Good} catalog.
+ * Readers access the snapshot without locks, every change of the catalog produces a new snapshot
+ * which shares all unchanged goods with the previous one.
+ * Goods of the snapshot are copies of the entities and must not be modified.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CatalogEngine
+ * @see Good
+ */
+public final class CatalogSnapshot {
+    /**
+     * Version of the snapshot, incremented by every change of the catalog.
+     */
+    private final long version;
+
+    /**
+     * The unique codes of the goods in ascending order.
+     */
+    private final long[] ids;
+
+    /**
+     * Goods in the same order as their unique codes.
+     */
+    private final Good[] goods;
+
+    /**
+     * Goods grouped by manufacturer.
+     */
+    private final Map<String, List<Good>> byProducer;
+
+    private CatalogSnapshot(long version, long[] ids, Good[] goods, Map<String, List<Good>> byProducer) {
+        this.version = version;
+        this.ids = ids;
+        this.goods = goods;
+        this.byProducer = byProducer;
+    }
+
+    /**
+     * Returns the first version of the snapshot built from the given goods.
+     *
+     * @param source goods loaded from the database.
+     * @return The {@link CatalogSnapshot} class object.
+     */
+    public static CatalogSnapshot of(Collection<Good> source) {
+        Good[] goods = source.stream()
+                .map(CatalogSnapshot::copyOf)
+                .sorted(Comparator.comparing(Good::getId))
+                .toArray(Good[]::new);
+        long[] ids = new long[goods.length];
+        Map<String, List<Good>> byProducer = new HashMap<>();
+
+        for (int i = 0; i < goods.length; i++) {
+            ids[i] = goods[i].getId();
+            byProducer.computeIfAbsent(goods[i].getProducer(), producer -> new ArrayList<>()).add(goods[i]);
+        }
+
+        byProducer.replaceAll((producer, list) -> Collections.unmodifiableList(list));
+
+        return new CatalogSnapshot(1, ids, goods, byProducer);
+    }
+
+    /**
+     * Returns the version of the snapshot.
+     *
+     * @return version of the snapshot.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns number of goods in the snapshot.
+     *
+     * @return number of goods.
+     */
+    public int size() {
+        return goods.length;
+    }
+
+    /**
+     * Returns all goods ordered by the unique code.
+     *
+     * @return list of {@link Good}.
+     */
+    public List<Good> all() {
+        return Collections.unmodifiableList(Arrays.asList(goods));
+    }
+
+    /**
+     * Returns the good with the given unique code.
+     *
+     * @param id the unique code of the good.
+     * @return The {@link Good} class object or {@code null} if the good does not exist.
+     */
+    public Good get(Long id) {
+        int index = Arrays.binarySearch(ids, id);
+
+        return index < 0 ? null : goods[index];
+    }
+
+    /**
+     * Returns goods which has the same manufacturer with the value of the input parameter.
+     *
+     * @param producer good manufacturer.
+     * @return list of {@link Good}.
+     */
+    public List<Good> findByProducer(String producer) {
+        return byProducer.getOrDefault(producer, Collections.emptyList());
+    }
+
+    /**
+     * Returns the next version of the snapshot in which the good is added or replaced.
+     *
+     * @param source good loaded from the database.
+     * @return The {@link CatalogSnapshot} class object.
+     */
+    public CatalogSnapshot withGood(Good source) {
+        Good good = copyOf(source);
+        int index = Arrays.binarySearch(ids, good.getId());
+        long[] nextIds;
+        Good[] nextGoods;
+        Good previous = null;
+
+        if (index >= 0) {
+            previous = goods[index];
+            nextIds = ids;
+            nextGoods = goods.clone();
+            nextGoods[index] = good;
+        } else {
+            int position = -index - 1;
+            nextIds = new long[ids.length + 1];
+            nextGoods = new Good[goods.length + 1];
+            System.arraycopy(ids, 0, nextIds, 0, position);
+            System.arraycopy(goods, 0, nextGoods, 0, position);
+            nextIds[position] = good.getId();
+            nextGoods[position] = good;
+            System.arraycopy(ids, position, nextIds, position + 1, ids.length - position);
+            System.arraycopy(goods, position, nextGoods, position + 1, goods.length - position);
+        }
+
+        Map<String, List<Good>> nextByProducer = new HashMap<>(byProducer);
+
+        if (previous != null) {
+            removeFromProducer(nextByProducer, previous);
+        }
+
+        addToProducer(nextByProducer, good);
+
+        return new CatalogSnapshot(version + 1, nextIds, nextGoods, nextByProducer);
+    }
+
+    /**
+     * Returns the next version of the snapshot without the good.
+     *
+     * @param id the unique code of the removed good.
+     * @return The {@link CatalogSnapshot} class object.
+     */
+    public CatalogSnapshot withoutGood(Long id) {
+        int index = Arrays.binarySearch(ids, id);
+
+        if (index < 0) {
+            return this;
+        }
+
+        long[] nextIds = new long[ids.length - 1];
+        Good[] nextGoods = new Good[goods.length - 1];
+        System.arraycopy(ids, 0, nextIds, 0, index);
+        System.arraycopy(goods, 0, nextGoods, 0, index);
+        System.arraycopy(ids, index + 1, nextIds, index, ids.length - index - 1);
+        System.arraycopy(goods, index + 1, nextGoods, index, goods.length - index - 1);
+
+        Map<String, List<Good>> nextByProducer = new HashMap<>(byProducer);
+        removeFromProducer(nextByProducer, goods[index]);
+
+        return new CatalogSnapshot(version + 1, nextIds, nextGoods, nextByProducer);
+    }
+
+    private static void addToProducer(Map<String, List<Good>> byProducer, Good good) {
+        List<Good> list = new ArrayList<>(byProducer.getOrDefault(good.getProducer(), Collections.emptyList()));
+        list.add(good);
+        list.sort(Comparator.comparing(Good::getId));
+        byProducer.put(good.getProducer(), Collections.unmodifiableList(list));
+    }
+
+    private static void removeFromProducer(Map<String, List<Good>> byProducer, Good good) {
+        List<Good> list = new ArrayList<>(byProducer.getOrDefault(good.getProducer(), Collections.emptyList()));
+        list.removeIf(item -> item.getId().equals(good.getId()));
+
+        if (list.isEmpty()) {
+            byProducer.remove(good.getProducer());
+        } else {
+            byProducer.put(good.getProducer(), Collections.unmodifiableList(list));
+        }
+    }
+
+    /**
+     * Returns a detached copy of the entity, so the snapshot never shares objects with the persistence context.
+     *
+     * @param good good loaded from the database.
+     * @return copy of the {@link Good}.
+     */
+    static Good copyOf(Good good) {
+        return new Good(good.getId(), good.getTitle(), good.getProducer(), good.getYear(), good.getCountry(),
+                good.getDescription(), good.getPrice(), good.getQuantity(), good.getType(),
+                good.getVersion(), good.getLastModified());
+    }
+}
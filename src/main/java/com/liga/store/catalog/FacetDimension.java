@@ -0,0 +1,68 @@
+package com.liga.store.catalog;
+
+import com.liga.store.domain.Good;
+
+import java.util.function.Function;
+
+/**
+ * Attributes of goods by which the catalog can be filtered.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see FacetIndex
+ */
+public enum FacetDimension {
+    /**
+     * Manufacturer of the good.
+     */
+    PRODUCER("producer", Good::getProducer),
+
+    /**
+     * Manufacturer country of the good.
+     */
+    COUNTRY("country", Good::getCountry),
+
+    /**
+     * Type of the good.
+     */
+    TYPE("type", Good::getType),
+
+    /**
+     * Year of release of the good.
+     */
+    YEAR("year", good -> good.getYear() == null ? null : String.valueOf(good.getYear()));
+
+    /**
+     * Name of the dimension in requests and responses.
+     */
+    private final String key;
+
+    /**
+     * Function which returns the value of the dimension of the good.
+     */
+    private final Function<Good, String> extractor;
+
+    FacetDimension(String key, Function<Good, String> extractor) {
+        this.key = key;
+        this.extractor = extractor;
+    }
+
+    /**
+     * Returns name of the dimension in requests and responses.
+     *
+     * @return name of the dimension.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns value of the dimension of the good.
+     *
+     * @param good good.
+     * @return value or {@code null} if the good has no value.
+     */
+    public String valueOf(Good good) {
+        return extractor.apply(good);
+    }
+}
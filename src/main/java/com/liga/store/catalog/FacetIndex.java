@@ -0,0 +1,364 @@
+package com.liga.store.catalog;
+
+import com.liga.store.domain.Good;
+import com.liga.store.exeptions.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index of goods by the values of the {@link FacetDimension}s.
+ * Every good gets a dense ordinal, for every value of every dimension the index keeps
+ * a {@link RoaringBitmap} of the ordinals of the goods with this value.
+ * Values of one dimension are combined with OR, dimensions are combined with AND.
+ * Ordinals are given in the order goods are added and are never reused, so pages of the result
+ * go in the order of the unique codes and a cursor stays valid after its good is deleted.
+ * Queries and updates are guarded by a read-write lock.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see RoaringBitmap
+ * @see CatalogFacetIndex
+ */
+public final class FacetIndex {
+    /**
+     * Facet counts are taken from the values of the matching goods instead of intersecting
+     * bitmaps while there are fewer matching goods than values multiplied by this factor.
+     */
+    private static final int DOC_SCAN_FACTOR = 4;
+
+    /**
+     * All dimensions.
+     */
+    private static final FacetDimension[] DIMENSIONS = FacetDimension.values();
+
+    /**
+     * Lock guarding the index.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Ordinals by the unique codes of goods.
+     */
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    /**
+     * Bitmaps of the values by dimension.
+     */
+    private final Map<FacetDimension, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(FacetDimension.class);
+
+    /**
+     * Ordinals of the goods present in the catalog.
+     */
+    private final RoaringBitmap all = new RoaringBitmap();
+
+    /**
+     * Unique codes of goods by ordinal.
+     */
+    private long[] ids = new long[1024];
+
+    /**
+     * Values of the dimensions of goods by ordinal.
+     */
+    private String[][] values = new String[1024][];
+
+    /**
+     * Number of given ordinals.
+     */
+    private int ordinalCount;
+
+    /**
+     * Creates the empty index.
+     */
+    public FacetIndex() {
+        for (FacetDimension dimension : DIMENSIONS) {
+            bitmaps.put(dimension, new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds the good to the index or replaces its values.
+     *
+     * @param good good to index.
+     */
+    public void put(Good good) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(good.getId());
+
+            if (ordinal == null) {
+                ordinal = nextOrdinal(good.getId());
+            } else {
+                clear(ordinal);
+            }
+
+            String[] goodValues = new String[DIMENSIONS.length];
+
+            for (FacetDimension dimension : DIMENSIONS) {
+                String value = dimension.valueOf(good);
+                goodValues[dimension.ordinal()] = value;
+
+                if (value != null) {
+                    bitmaps.get(dimension).computeIfAbsent(value, key -> new RoaringBitmap()).add(ordinal);
+                }
+            }
+
+            values[ordinal] = goodValues;
+            all.add(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the good from the index.
+     *
+     * @param id the unique code of the good.
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(id);
+
+            if (ordinal != null && values[ordinal] != null) {
+                clear(ordinal);
+                values[ordinal] = null;
+                all.remove(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns number of goods in the index.
+     *
+     * @return number of goods.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return all.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the page of goods matching the filter and the facet counts.
+     * The count of a value is the number of goods which would match if the value was selected
+     * in addition to the values already selected in its dimension, so the selected values
+     * of a dimension do not narrow its own counts.
+     *
+     * @param selected    selected values by dimension, a dimension without values is not filtered.
+     * @param yearFrom    the minimum year of release or {@code null}.
+     * @param yearTo      the maximum year of release or {@code null}.
+     * @param after       the unique code of the last good of the previous page or {@code null}.
+     * @param size        maximum number of goods on the page.
+     * @param facetValues maximum number of values returned for every dimension.
+     * @return {@link FacetResult}.
+     */
+    public FacetResult query(Map<FacetDimension, Set<String>> selected, Integer yearFrom, Integer yearTo,
+                             Long after, int size, int facetValues) {
+        lock.readLock().lock();
+        try {
+            Map<FacetDimension, RoaringBitmap> filters = new EnumMap<>(FacetDimension.class);
+
+            for (FacetDimension dimension : DIMENSIONS) {
+                RoaringBitmap filter = filter(dimension, selected.get(dimension));
+
+                if (dimension == FacetDimension.YEAR && (yearFrom != null || yearTo != null)) {
+                    RoaringBitmap range = yearRange(yearFrom, yearTo);
+                    filter = filter == null ? range : filter.and(range);
+                }
+
+                if (filter != null) {
+                    filters.put(dimension, filter);
+                }
+            }
+
+            RoaringBitmap matching = intersect(filters, null);
+            Map<FacetDimension, Map<String, Integer>> facets = new EnumMap<>(FacetDimension.class);
+
+            for (FacetDimension dimension : DIMENSIONS) {
+                RoaringBitmap base = filters.containsKey(dimension) ? intersect(filters, dimension) : matching;
+                facets.put(dimension, counts(dimension, base, facetValues));
+            }
+
+            List<Long> page = new ArrayList<>(size + 1);
+            matching.forEachFrom(startOrdinal(after), ordinal -> {
+                page.add(ids[ordinal]);
+                return page.size() <= size;
+            });
+
+            boolean hasNext = page.size() > size;
+
+            if (hasNext) {
+                page.remove(size);
+            }
+
+            return new FacetResult(page, matching.cardinality(), hasNext, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the union of the bitmaps of the selected values or {@code null} if nothing is selected.
+     */
+    private RoaringBitmap filter(FacetDimension dimension, Collection<String> selectedValues) {
+        if (selectedValues == null || selectedValues.isEmpty()) {
+            return null;
+        }
+
+        Map<String, RoaringBitmap> valueBitmaps = bitmaps.get(dimension);
+        RoaringBitmap filter = new RoaringBitmap();
+
+        for (String value : selectedValues) {
+            RoaringBitmap bitmap = valueBitmaps.get(value);
+
+            if (bitmap != null) {
+                filter = filter.or(bitmap);
+            }
+        }
+
+        return filter;
+    }
+
+    /**
+     * Returns the union of the bitmaps of the years within the range.
+     */
+    private RoaringBitmap yearRange(Integer yearFrom, Integer yearTo) {
+        RoaringBitmap range = new RoaringBitmap();
+
+        for (Map.Entry<String, RoaringBitmap> entry : bitmaps.get(FacetDimension.YEAR).entrySet()) {
+            int year = Integer.parseInt(entry.getKey());
+
+            if ((yearFrom == null || year >= yearFrom) && (yearTo == null || year <= yearTo)) {
+                range = range.or(entry.getValue());
+            }
+        }
+
+        return range;
+    }
+
+    /**
+     * Returns the intersection of all goods with the filters of all dimensions except the skipped one.
+     */
+    private RoaringBitmap intersect(Map<FacetDimension, RoaringBitmap> filters, FacetDimension skipped) {
+        RoaringBitmap result = all;
+
+        for (Map.Entry<FacetDimension, RoaringBitmap> entry : filters.entrySet()) {
+            if (entry.getKey() != skipped) {
+                result = result.and(entry.getValue());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the most frequent values of the dimension among the goods of the bitmap.
+     */
+    private Map<String, Integer> counts(FacetDimension dimension, RoaringBitmap base, int limit) {
+        Map<String, RoaringBitmap> valueBitmaps = bitmaps.get(dimension);
+        Map<String, Integer> counts = new HashMap<>();
+
+        if (base.cardinality() < valueBitmaps.size() * DOC_SCAN_FACTOR) {
+            base.forEachFrom(0, ordinal -> {
+                String value = values[ordinal][dimension.ordinal()];
+
+                if (value != null) {
+                    counts.merge(value, 1, Integer::sum);
+                }
+                return true;
+            });
+        } else {
+            for (Map.Entry<String, RoaringBitmap> entry : valueBitmaps.entrySet()) {
+                int count = base.andCardinality(entry.getValue());
+
+                if (count > 0) {
+                    counts.put(entry.getKey(), count);
+                }
+            }
+        }
+
+        Map<String, Integer> top = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+
+        return top;
+    }
+
+    /**
+     * Returns the first ordinal of the page which starts after the good.
+     */
+    private int startOrdinal(Long after) {
+        if (after == null) {
+            return 0;
+        }
+
+        Integer ordinal = ordinals.get(after);
+
+        if (ordinal == null) {
+            throw new BadRequestException("Некорректный курсор");
+        }
+
+        return ordinal + 1;
+    }
+
+    /**
+     * Removes the ordinal from the bitmaps of its values.
+     */
+    private void clear(int ordinal) {
+        String[] goodValues = values[ordinal];
+
+        if (goodValues == null) {
+            return;
+        }
+
+        for (FacetDimension dimension : DIMENSIONS) {
+            String value = goodValues[dimension.ordinal()];
+
+            if (value == null) {
+                continue;
+            }
+
+            Map<String, RoaringBitmap> valueBitmaps = bitmaps.get(dimension);
+            RoaringBitmap bitmap = valueBitmaps.get(value);
+            bitmap.remove(ordinal);
+
+            if (bitmap.isEmpty()) {
+                valueBitmaps.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Gives the next ordinal to the good.
+     */
+    private int nextOrdinal(Long id) {
+        if (ordinalCount == ids.length) {
+            ids = Arrays.copyOf(ids, ordinalCount * 2);
+            values = Arrays.copyOf(values, ordinalCount * 2);
+        }
+
+        ids[ordinalCount] = id;
+        ordinals.put(id, ordinalCount);
+
+        return ordinalCount++;
+    }
+}
@@ -0,0 +1,41 @@
+package com.liga.store.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of the faceted query: one page of matching goods, total number of matches
+ * and counts of goods per value of every dimension.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see FacetIndex
+ */
+@Getter
+@AllArgsConstructor
+public class FacetResult {
+    /**
+     * Unique codes of the goods of the page in ascending order.
+     */
+    private final List<Long> ids;
+
+    /**
+     * Number of goods matching the filter.
+     */
+    private final int total;
+
+    /**
+     * True if there are more matching goods after the page.
+     */
+    private final boolean hasNext;
+
+    /**
+     * Counts of goods per value, by dimension.
+     */
+    private final Map<FacetDimension, Map<String, Integer>> facets;
+}
@@ -0,0 +1,48 @@
+package com.liga.store.catalog;
+
+import com.liga.store.domain.Good;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Change of the price or the quantity of a {@link Good} sent to the storefront.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CatalogChangeFeed
+ */
+@Getter
+@AllArgsConstructor
+public class GoodDelta {
+    /**
+     * Number of the change in the feed, increases by one with every change.
+     */
+    private final long seq;
+
+    /**
+     * The unique code of the good.
+     */
+    private final Long id;
+
+    /**
+     * New price or {@code null} if the good was deleted.
+     */
+    private final Integer price;
+
+    /**
+     * New quantity or {@code null} if the good was deleted.
+     */
+    private final Integer quantity;
+
+    /**
+     * New version or {@code null} if the good was deleted.
+     */
+    private final Long version;
+
+    /**
+     * True if the good was deleted.
+     */
+    private final boolean deleted;
+}
@@ -0,0 +1,239 @@
+package com.liga.store.catalog;
+
+import com.liga.store.domain.Good;
+
+import java.util.Arrays;
+
+/**
+ * Immutable index of {@link Good} prices.
+ * Prices are kept in a sorted primitive array with the unique codes of the goods in a parallel array,
+ * entries are ordered by price and then by the unique code. Price ranges are answered by binary search,
+ * minimum and maximum prices are the first and the last entries.
+ * Every change produces a new index, so readers never take locks.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CatalogPriceIndex
+ */
+public final class PriceIndex {
+    /**
+     * Index without goods.
+     */
+    private static final PriceIndex EMPTY = new PriceIndex(new int[0], new long[0]);
+
+    /**
+     * Prices of goods in ascending order.
+     */
+    private final int[] prices;
+
+    /**
+     * The unique codes of goods in the same order as prices.
+     */
+    private final long[] ids;
+
+    private PriceIndex(int[] prices, long[] ids) {
+        this.prices = prices;
+        this.ids = ids;
+    }
+
+    /**
+     * Returns the index without goods.
+     *
+     * @return The {@link PriceIndex} class object.
+     */
+    public static PriceIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the index from the unique codes and prices of goods given in any order.
+     *
+     * @param ids    the unique codes of goods.
+     * @param prices prices of goods in the same order as the unique codes.
+     * @param size   number of goods in the arrays.
+     * @return The {@link PriceIndex} class object.
+     */
+    public static PriceIndex of(long[] ids, int[] prices, int size) {
+        Integer[] order = new Integer[size];
+
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, (left, right) -> prices[left] != prices[right]
+                ? Integer.compare(prices[left], prices[right])
+                : Long.compare(ids[left], ids[right]));
+
+        int[] sortedPrices = new int[size];
+        long[] sortedIds = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            sortedPrices[i] = prices[order[i]];
+            sortedIds[i] = ids[order[i]];
+        }
+
+        return new PriceIndex(sortedPrices, sortedIds);
+    }
+
+    /**
+     * Returns number of goods in the index.
+     *
+     * @return number of goods.
+     */
+    public int size() {
+        return prices.length;
+    }
+
+    /**
+     * Returns minimum price of good.
+     *
+     * @return minimum price or {@code null} if the index is empty.
+     */
+    public Integer getMinPrice() {
+        return prices.length == 0 ? null : prices[0];
+    }
+
+    /**
+     * Returns maximum price of good.
+     *
+     * @return maximum price or {@code null} if the index is empty.
+     */
+    public Integer getMaxPrice() {
+        return prices.length == 0 ? null : prices[prices.length - 1];
+    }
+
+    /**
+     * Returns the unique codes of goods in which the price is in the range between of starting price
+     * and ending price. The unique codes are ordered by price.
+     *
+     * @param startingPrice the starting price, inclusive.
+     * @param endingPrice   the ending price, inclusive.
+     * @return the unique codes of goods.
+     */
+    public long[] findIdsBetween(int startingPrice, int endingPrice) {
+        if (startingPrice > endingPrice) {
+            return new long[0];
+        }
+
+        int from = position(startingPrice, Long.MIN_VALUE);
+        int to = endingPrice == Integer.MAX_VALUE ? prices.length : position(endingPrice + 1, Long.MIN_VALUE);
+
+        return Arrays.copyOfRange(ids, from, to);
+    }
+
+    /**
+     * Returns number of goods in which the price is in the range between of starting price and ending price.
+     *
+     * @param startingPrice the starting price, inclusive.
+     * @param endingPrice   the ending price, inclusive.
+     * @return number of goods.
+     */
+    public int countBetween(int startingPrice, int endingPrice) {
+        if (startingPrice > endingPrice) {
+            return 0;
+        }
+
+        int to = endingPrice == Integer.MAX_VALUE ? prices.length : position(endingPrice + 1, Long.MIN_VALUE);
+
+        return to - position(startingPrice, Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns the price of the good.
+     * The lookup scans the whole index and is meant for writers only.
+     *
+     * @param id the unique code of the good.
+     * @return price of the good or {@code null} if the good is not indexed.
+     */
+    public Integer priceOf(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return prices[i];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the next version of the index in which the good has the given price.
+     * Works for both new and already indexed goods.
+     *
+     * @param id    the unique code of the good.
+     * @param price new price of the good.
+     * @return The {@link PriceIndex} class object.
+     */
+    public PriceIndex with(long id, int price) {
+        Integer previous = priceOf(id);
+
+        if (previous != null && previous == price) {
+            return this;
+        }
+
+        PriceIndex index = previous == null ? this : without(id, previous);
+        int position = index.position(price, id);
+        int[] nextPrices = new int[index.prices.length + 1];
+        long[] nextIds = new long[index.ids.length + 1];
+        System.arraycopy(index.prices, 0, nextPrices, 0, position);
+        System.arraycopy(index.ids, 0, nextIds, 0, position);
+        nextPrices[position] = price;
+        nextIds[position] = id;
+        System.arraycopy(index.prices, position, nextPrices, position + 1, index.prices.length - position);
+        System.arraycopy(index.ids, position, nextIds, position + 1, index.ids.length - position);
+
+        return new PriceIndex(nextPrices, nextIds);
+    }
+
+    /**
+     * Returns the next version of the index without the good.
+     *
+     * @param id the unique code of the good.
+     * @return The {@link PriceIndex} class object.
+     */
+    public PriceIndex without(long id) {
+        Integer previous = priceOf(id);
+
+        return previous == null ? this : without(id, previous);
+    }
+
+    private PriceIndex without(long id, int price) {
+        int position = position(price, id);
+
+        if (position == ids.length || ids[position] != id) {
+            return this;
+        }
+
+        int[] nextPrices = new int[prices.length - 1];
+        long[] nextIds = new long[ids.length - 1];
+        System.arraycopy(prices, 0, nextPrices, 0, position);
+        System.arraycopy(ids, 0, nextIds, 0, position);
+        System.arraycopy(prices, position + 1, nextPrices, position, prices.length - position - 1);
+        System.arraycopy(ids, position + 1, nextIds, position, ids.length - position - 1);
+
+        return new PriceIndex(nextPrices, nextIds);
+    }
+
+    /**
+     * Returns the position of the first entry which is not less than the given price and unique code.
+     *
+     * @param price price of the entry.
+     * @param id    the unique code of the entry.
+     * @return position in the arrays.
+     */
+    private int position(int price, long id) {
+        int low = 0;
+        int high = prices.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (prices[middle] < price || (prices[middle] == price && ids[middle] < id)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
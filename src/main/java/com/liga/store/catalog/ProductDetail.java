@@ -0,0 +1,47 @@
+package com.liga.store.catalog;
+
+import com.liga.store.domain.Good;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Serialized product page of one version of a {@link Good}.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see ProductDetailCache
+ */
+@Getter
+@AllArgsConstructor
+public class ProductDetail {
+    /**
+     * The unique code of the good.
+     */
+    private final Long id;
+
+    /**
+     * Version of the good.
+     */
+    private final Long version;
+
+    /**
+     * Time of the last change of the good in milliseconds since the epoch or -1 if unknown.
+     */
+    private final long lastModified;
+
+    /**
+     * The good in JSON, plain and compressed.
+     */
+    private final SerializedBody body;
+
+    /**
+     * Returns the strong entity tag of this version of the good.
+     *
+     * @return the entity tag in quotes.
+     */
+    public String getETag() {
+        return "\"" + id + "-" + version + "\"";
+    }
+}
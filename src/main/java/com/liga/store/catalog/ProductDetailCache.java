@@ -0,0 +1,146 @@
+package com.liga.store.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liga.store.datasource.PrimaryReads;
+import com.liga.store.domain.Good;
+import com.liga.store.events.CatalogImportedEvent;
+import com.liga.store.events.GoodChangedEvent;
+import com.liga.store.exeptions.NotFoundException;
+import com.liga.store.repos.GoodRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of serialized product pages by the unique code of the good.
+ * Pages are kept as encoded and compressed bytes which are written to the response as is.
+ * An entry holds the version of the good it was built from, so the entity tag of a cached good
+ * is known without the database. Entries are evicted when the good is changed, the least recently
+ * viewed entries are evicted when the cache is full.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see ProductDetail
+ * @see GoodChangedEvent
+ */
+@Component
+public class ProductDetailCache {
+    /**
+     * Implementation of the {@link GoodRepository} interface
+     * for working with goods with a database.
+     */
+    private final GoodRepository goodRepository;
+
+    /**
+     * Object mapper serializing goods.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Cached product pages in the order of access.
+     */
+    private final LinkedHashMap<Long, ProductDetail> entries;
+
+    /**
+     * Number of evictions, a page loaded during an eviction is not cached because it may be stale.
+     */
+    private long evictions;
+
+    /**
+     * Constructor for initializing the main variables of the product cache.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodRepository implementation of the {@link GoodRepository} interface
+     *                       for working with goods with a database.
+     * @param objectMapper   object mapper serializing goods.
+     * @param maxSize        maximum number of cached goods.
+     */
+    @Autowired
+    public ProductDetailCache(GoodRepository goodRepository, ObjectMapper objectMapper,
+                              @Value("${catalog.product-cache.max-size:10000}") int maxSize) {
+        this.goodRepository = goodRepository;
+        this.objectMapper = objectMapper;
+        this.entries = new LinkedHashMap<Long, ProductDetail>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ProductDetail> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the current product page of the good.
+     * Only a missing page is loaded from the database, from the primary so a stale row is never cached.
+     *
+     * @param id the unique code of the good.
+     * @return The {@link ProductDetail} class object.
+     * @throws NotFoundException if there is no good with the code.
+     */
+    public ProductDetail get(Long id) {
+        long loadedAt;
+
+        synchronized (this) {
+            ProductDetail cached = entries.get(id);
+
+            if (cached != null) {
+                return cached;
+            }
+
+            loadedAt = evictions;
+        }
+
+        Good good = PrimaryReads.call(() -> goodRepository.findById(id))
+                .orElseThrow(() -> new NotFoundException("Товар не найден"));
+        ProductDetail detail = serialize(good);
+
+        synchronized (this) {
+            if (evictions == loadedAt) {
+                entries.put(id, detail);
+            }
+        }
+
+        return detail;
+    }
+
+    /**
+     * Evicts the changed goods after the transaction which changed them is committed.
+     *
+     * @param event event with the unique codes of the changed goods.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onGoodChanged(GoodChangedEvent event) {
+        evictions++;
+        event.getIds().forEach(entries::remove);
+    }
+
+    /**
+     * Evicts all goods after a bulk import.
+     */
+    @EventListener(CatalogImportedEvent.class)
+    public synchronized void clear() {
+        evictions++;
+        entries.clear();
+    }
+
+    private ProductDetail serialize(Good good) {
+        long lastModified = good.getLastModified() == null
+                ? -1
+                : good.getLastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        try {
+            return new ProductDetail(good.getId(), good.getVersion(), lastModified,
+                    SerializedBody.of(objectMapper.writeValueAsBytes(good)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,627 @@
+package com.liga.store.catalog;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Compressed bitmap of non-negative integers in the Roaring format.
+ * Values are split by the high 16 bits into chunks, every chunk is stored in a container:
+ * a sorted array of the low 16 bits while the chunk has at most 4096 values, a plain bitmap of
+ * 65536 bits otherwise. Set operations work container by container, so sparse and dense sets
+ * are both compact and fast to intersect.
+ * The bitmap is not thread-safe.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CatalogFacetIndex
+ */
+public final class RoaringBitmap {
+    /**
+     * Maximum number of values of the array container.
+     */
+    private static final int ARRAY_MAX_SIZE = 4096;
+
+    /**
+     * High 16 bits of the chunks in ascending order.
+     */
+    private char[] keys;
+
+    /**
+     * Containers of the chunks in the same order as keys.
+     */
+    private Container[] containers;
+
+    /**
+     * Number of chunks.
+     */
+    private int size;
+
+    /**
+     * Creates the empty bitmap.
+     */
+    public RoaringBitmap() {
+        this(new char[4], new Container[4], 0);
+    }
+
+    private RoaringBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * Adds the value to the bitmap.
+     *
+     * @param value non-negative value.
+     */
+    public void add(int value) {
+        char key = (char) (value >>> 16);
+        int index = indexOf(key);
+
+        if (index >= 0) {
+            containers[index] = containers[index].add((char) value);
+            return;
+        }
+
+        insertAt(-index - 1, key, new ArrayContainer().add((char) value));
+    }
+
+    /**
+     * Removes the value from the bitmap.
+     *
+     * @param value non-negative value.
+     */
+    public void remove(int value) {
+        int index = indexOf((char) (value >>> 16));
+
+        if (index < 0) {
+            return;
+        }
+
+        Container container = containers[index].remove((char) value);
+
+        if (container.cardinality() == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            containers[--size] = null;
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    /**
+     * Returns true if the bitmap contains the value.
+     *
+     * @param value non-negative value.
+     * @return true if the value is present.
+     */
+    public boolean contains(int value) {
+        int index = indexOf((char) (value >>> 16));
+
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * Returns number of values in the bitmap.
+     *
+     * @return number of values.
+     */
+    public int cardinality() {
+        int cardinality = 0;
+
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+
+        return cardinality;
+    }
+
+    /**
+     * Returns true if the bitmap has no values.
+     *
+     * @return true if the bitmap is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the intersection of the bitmaps.
+     *
+     * @param other another bitmap.
+     * @return new {@link RoaringBitmap}.
+     */
+    public RoaringBitmap and(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap(new char[Math.min(size, other.size) + 1],
+                new Container[Math.min(size, other.size) + 1], 0);
+        int i = 0;
+        int j = 0;
+
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+
+                if (container.cardinality() > 0) {
+                    result.keys[result.size] = keys[i];
+                    result.containers[result.size++] = container;
+                }
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns number of values present in both bitmaps without building the intersection.
+     *
+     * @param other another bitmap.
+     * @return number of common values.
+     */
+    public int andCardinality(RoaringBitmap other) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                cardinality += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+
+        return cardinality;
+    }
+
+    /**
+     * Returns the union of the bitmaps.
+     *
+     * @param other another bitmap.
+     * @return new {@link RoaringBitmap}.
+     */
+    public RoaringBitmap or(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap(new char[size + other.size + 1],
+                new Container[size + other.size + 1], 0);
+        int i = 0;
+        int j = 0;
+
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.keys[result.size] = keys[i];
+                result.containers[result.size++] = containers[i++].copy();
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.keys[result.size] = other.keys[j];
+                result.containers[result.size++] = other.containers[j++].copy();
+            } else {
+                result.keys[result.size] = keys[i];
+                result.containers[result.size++] = containers[i++].or(other.containers[j++]);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the copy of the bitmap.
+     *
+     * @return new {@link RoaringBitmap}.
+     */
+    public RoaringBitmap copy() {
+        Container[] copies = new Container[Math.max(size, 4)];
+
+        for (int i = 0; i < size; i++) {
+            copies[i] = containers[i].copy();
+        }
+
+        return new RoaringBitmap(Arrays.copyOf(keys, copies.length), copies, size);
+    }
+
+    /**
+     * Passes values greater than or equal to the start to the consumer in ascending order
+     * until the consumer returns false.
+     *
+     * @param from     the smallest value to pass.
+     * @param consumer consumer of the values, returns false to stop.
+     */
+    public void forEachFrom(int from, IntPredicate consumer) {
+        int start = indexOf((char) (from >>> 16));
+        start = start >= 0 ? start : -start - 1;
+
+        for (int i = start; i < size; i++) {
+            int high = keys[i] << 16;
+            int low = high < from ? from & 0xFFFF : 0;
+
+            if (!containers[i].forEachFrom(low, high, consumer)) {
+                return;
+            }
+        }
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertAt(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    /**
+     * Set of the low 16 bits of the values of one chunk.
+     */
+    private abstract static class Container {
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container copy();
+
+        abstract boolean forEachFrom(int from, int high, IntPredicate consumer);
+    }
+
+    /**
+     * Container of a sparse chunk: sorted array of values.
+     */
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        private ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        private ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+
+            if (index >= 0) {
+                return this;
+            }
+
+            if (cardinality == ARRAY_MAX_SIZE) {
+                return toBitmap().add(value);
+            }
+
+            index = -index - 1;
+
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(values.length * 2, ARRAY_MAX_SIZE));
+            }
+
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        count++;
+                    }
+                }
+            }
+
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+
+            ArrayContainer array = (ArrayContainer) other;
+            char[] result = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    result[count++] = array.values[j++];
+                } else {
+                    result[count++] = values[i++];
+                    j++;
+                }
+            }
+
+            ArrayContainer union = new ArrayContainer(result, count);
+
+            return count > ARRAY_MAX_SIZE ? union.toBitmap() : union;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 4)), cardinality);
+        }
+
+        @Override
+        boolean forEachFrom(int from, int high, IntPredicate consumer) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) from);
+
+            for (int i = index >= 0 ? index : -index - 1; i < cardinality; i++) {
+                if (!consumer.test(high | values[i])) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+
+            return bitmap;
+        }
+    }
+
+    /**
+     * Container of a dense chunk: plain bitmap of 65536 bits.
+     */
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        private BitmapContainer() {
+            this(new long[1024], 0);
+        }
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality--;
+            }
+
+            return cardinality <= ARRAY_MAX_SIZE ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+
+            BitmapContainer bitmap = (BitmapContainer) other;
+            long[] result = new long[words.length];
+            int count = 0;
+
+            for (int i = 0; i < words.length; i++) {
+                result[i] = words[i] & bitmap.words[i];
+                count += Long.bitCount(result[i]);
+            }
+
+            BitmapContainer intersection = new BitmapContainer(result, count);
+
+            return count <= ARRAY_MAX_SIZE ? intersection.toArray() : intersection;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+
+            BitmapContainer bitmap = (BitmapContainer) other;
+            int count = 0;
+
+            for (int i = 0; i < words.length; i++) {
+                count += Long.bitCount(words[i] & bitmap.words[i]);
+            }
+
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            BitmapContainer result = new BitmapContainer(words.clone(), cardinality);
+
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+
+                for (int i = 0; i < array.cardinality; i++) {
+                    result.add(array.values[i]);
+                }
+
+                return result;
+            }
+
+            BitmapContainer bitmap = (BitmapContainer) other;
+            int count = 0;
+
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] |= bitmap.words[i];
+                count += Long.bitCount(result.words[i]);
+            }
+
+            result.cardinality = count;
+
+            return result;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        boolean forEachFrom(int from, int high, IntPredicate consumer) {
+            for (int i = from >>> 6; i < words.length; i++) {
+                long word = i == from >>> 6 ? words[i] & (-1L << from) : words[i];
+
+                while (word != 0) {
+                    int value = (i << 6) + Long.numberOfTrailingZeros(word);
+
+                    if (!consumer.test(high | value)) {
+                        return false;
+                    }
+                    word &= word - 1;
+                }
+            }
+
+            return true;
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(cardinality, 4)];
+            int count = 0;
+
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+
+                while (word != 0) {
+                    values[count++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+
+            return new ArrayContainer(values, count);
+        }
+    }
+}
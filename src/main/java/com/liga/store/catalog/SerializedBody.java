@@ -0,0 +1,136 @@
+package com.liga.store.catalog;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response body encoded once and written to many responses.
+ * Holds the JSON in UTF-8 and, for bodies large enough to benefit, the same JSON compressed with gzip.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see ProductDetailCache
+ * @see CatalogPageCache
+ */
+public final class SerializedBody {
+    /**
+     * Bodies shorter than this are not compressed, the gzip header would eat the gain.
+     */
+    private static final int MIN_GZIP_SIZE = 512;
+
+    /**
+     * The JSON in UTF-8.
+     */
+    private final byte[] json;
+
+    /**
+     * The JSON compressed with gzip or {@code null} if compression does not pay off.
+     */
+    private final byte[] gzip;
+
+    private SerializedBody(byte[] json, byte[] gzip) {
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Returns the body with the JSON and its compressed copy.
+     *
+     * @param json the JSON in UTF-8.
+     * @return The {@link SerializedBody} class object.
+     */
+    public static SerializedBody of(byte[] json) {
+        if (json.length < MIN_GZIP_SIZE) {
+            return new SerializedBody(json, null);
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] gzip = compressed.toByteArray();
+
+        return new SerializedBody(json, gzip.length < json.length ? gzip : null);
+    }
+
+    /**
+     * Returns the number of bytes kept by the body.
+     *
+     * @return the number of bytes.
+     */
+    public int size() {
+        return json.length + (gzip == null ? 0 : gzip.length);
+    }
+
+    /**
+     * Writes the body to the servlet output stream, compressed if the client accepts gzip.
+     *
+     * @param request  current request.
+     * @param response current response.
+     * @throws IOException if the body cannot be written.
+     */
+    public void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = json;
+
+        if (gzip != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+            if (acceptsGzip(request)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                body = gzip;
+            }
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Returns true if the Accept-Encoding header allows gzip.
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+
+        while (headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parts = coding.trim().toLowerCase(Locale.ROOT).split(";");
+
+                if (parts[0].trim().equals("gzip") && !isZeroQuality(parts)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isZeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+
+        return false;
+    }
+}
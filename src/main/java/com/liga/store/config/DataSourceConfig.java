@@ -0,0 +1,130 @@
+package com.liga.store.config;
+
+import com.liga.store.datasource.ReadWriteRoutingDataSource;
+import com.liga.store.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Database configuration class.
+ * Without a replica the application uses the primary pool only. When the datasource.replica.url property
+ * is set, read-only transactions are routed to the replica by the {@link ReadWriteRoutingDataSource}.
+ * The pools are not candidates for injection, everything uses the routing data source.
+ * Marked with @Configuration annotation - the class is the source of the bean definition.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see ReadWriteRoutingDataSource
+ * @see ReplicaLagMonitor
+ */
+@Configuration
+public class DataSourceConfig {
+    /**
+     * Time in milliseconds the reads of a session go to the primary after it wrote.
+     */
+    @Value("${datasource.replica.sticky-ms:5000}")
+    private long stickyMillis;
+
+    /**
+     * Maximum lag of a usable replica in milliseconds.
+     */
+    @Value("${datasource.replica.max-lag-ms:5000}")
+    private long maxLag;
+
+    /**
+     * Returns the pool of connections to the primary database configured by the spring.datasource properties.
+     *
+     * @param properties properties of the primary database.
+     * @return the pool of connections.
+     */
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Returns the pool of connections to the replica database configured by the datasource.replica properties.
+     * The user name and the password of the primary are used if they are not set.
+     *
+     * @param properties properties of the primary database.
+     * @param url        JDBC URL of the replica.
+     * @param username   login user of the replica.
+     * @param password   login password of the replica.
+     * @return the pool of connections.
+     */
+    @Bean(autowireCandidate = false)
+    @ConditionalOnProperty("datasource.replica.url")
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${datasource.replica.url}") String url,
+            @Value("${datasource.replica.username:}") String username,
+            @Value("${datasource.replica.password:}") String password
+    ) {
+        HikariDataSource dataSource = DataSourceBuilder.create(properties.getClassLoader())
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username.isEmpty() ? properties.determineUsername() : username)
+                .password(password.isEmpty() ? properties.determinePassword() : password)
+                .build();
+        dataSource.setReadOnly(true);
+
+        return dataSource;
+    }
+
+    /**
+     * Returns the monitor of the replica.
+     *
+     * @param properties properties of the primary database.
+     * @param url        JDBC URL of the replica.
+     * @param username   login user of the replica.
+     * @param password   login password of the replica.
+     * @return the monitor.
+     */
+    @Bean
+    @ConditionalOnProperty("datasource.replica.url")
+    public ReplicaLagMonitor replicaLagMonitor(
+            DataSourceProperties properties,
+            @Value("${datasource.replica.url}") String url,
+            @Value("${datasource.replica.username:}") String username,
+            @Value("${datasource.replica.password:}") String password
+    ) {
+        return new ReplicaLagMonitor(replicaDataSource(properties, url, username, password), maxLag);
+    }
+
+    /**
+     * Returns the data source of the application.
+     *
+     * @param properties properties of the primary database.
+     * @param replica    monitor of the replica if the replica is configured.
+     * @return the primary pool or the routing data source.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, ObjectProvider<ReplicaLagMonitor> replica) {
+        HikariDataSource primary = primaryDataSource(properties);
+        ReplicaLagMonitor monitor = replica.getIfAvailable();
+
+        if (monitor == null) {
+            return primary;
+        }
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, monitor, stickyMillis);
+        routing.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,29 @@
+package com.liga.store.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.liga.store.fields.FieldPlan;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class of the JSON object mapper.
+ * Marked with @Configuration annotation - the class is the source of the bean definition.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see FieldPlan
+ */
+@Configuration
+public class JacksonConfig {
+    /**
+     * Registers the default JSON filters: objects with a filter are written with all fields
+     * unless the response sets the filter of a sparse fieldset.
+     *
+     * @return customizer of the object mapper.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+}
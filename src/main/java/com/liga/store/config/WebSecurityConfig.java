@@ -54,8 +54,15 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
                 .authorizeRequests()
                     .antMatchers("/",
                             "/search",
+                            "/search/suggest",
+                            "/search/fuzzy",
+                            "/filter",
+                            "/catalog/changes",
+                            "/catalog/top-sellers",
+                            "/leaderboard",
                             "/registration",
-                            "/product/*").permitAll()
+                            "/product/*",
+                            "/product/*/related").permitAll()
                     .anyRequest().authenticated()
                 .and()
                     .formLogin()
@@ -1,15 +1,27 @@
 package com.liga.store.controller;
 
-import com.liga.store.domain.Good;
+import com.liga.store.cart.CartLine;
 import com.liga.store.domain.User;
-import com.liga.store.service.UserService;
+import com.liga.store.domain.dto.CartDto;
+import com.liga.store.domain.dto.CartOperation;
+import com.liga.store.exeptions.BadRequestException;
+import com.liga.store.flashsale.FlashSaleGate;
+import com.liga.store.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Customer shopping cart controller class.
@@ -20,24 +32,32 @@ import org.springframework.web.bind.annotation.RequestParam;
  * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
  * @version 1.0
  * @see User
- * @see UserService
+ * @see CartService
+ * @see FlashSaleGate
  */
 @Controller
 public class CartController {
     /**
      * Service object for working with customer shopping cart.
      */
-    private final UserService userService;
+    private final CartService cartService;
+
+    /**
+     * Admission queue for goods in flash-sale mode.
+     */
+    private final FlashSaleGate flashSaleGate;
 
     /**
      * Constructor for initializing the main variables of the cart controller.
      * The @Autowired annotation will allow Spring to automatically initialize objects.
      *
-     * @param userService service object for working with user shopping cart.
+     * @param cartService   service object for working with user shopping cart.
+     * @param flashSaleGate admission queue for goods in flash-sale mode.
      */
     @Autowired
-    public CartController(UserService userService) {
-        this.userService = userService;
+    public CartController(CartService cartService, FlashSaleGate flashSaleGate) {
+        this.cartService = cartService;
+        this.flashSaleGate = flashSaleGate;
     }
 
     /**
@@ -45,54 +65,116 @@ public class CartController {
      * URL request {"/cart"}, method GET.
      *
      * @param userSession requested Authenticated customer.
-     * @return cart.
+     * @return cart with the products and the totals.
      */
     @GetMapping("/cart")
-    public User getCart(@AuthenticationPrincipal User userSession) {
-        return userService.findByUsername(userSession.getUsername());
+    @ResponseBody
+    public CartDto getCart(@AuthenticationPrincipal User userSession) {
+        return cartService.getSummary(userSession.getId());
     }
 
     /**
-     * Adds a product to the customer shopping cart and redirects it to "/cart".
+     * Applies a list of changes to the customer shopping cart in one request.
+     * Either all changes are applied or none of them. Changes adding a product in flash-sale mode
+     * are applied by the admission queue, one such product per request.
+     * URL request {"/cart/batch"}, method POST.
+     *
+     * @param operations  changes of the cart in the order they are applied.
+     * @param userSession request Authenticated customer.
+     * @return cart after the changes with the products and the totals.
+     */
+    @PostMapping("/cart/batch")
+    @ResponseBody
+    public CompletableFuture<CartDto> applyToCart(
+            @RequestBody List<CartOperation> operations,
+            @AuthenticationPrincipal User userSession
+    ) {
+        Supplier<CartDto> applyToCart = () -> cartService.apply(userSession.getId(), operations);
+        Set<Long> added = new LinkedHashSet<>();
+
+        for (CartOperation operation : operations) {
+            if (operation != null && operation.getGoodId() != null && operation.getType() != CartOperation.Type.REMOVE) {
+                added.add(operation.getGoodId());
+            }
+        }
+
+        Long flashSaleGoodId = flashSaleGate.findActive(added);
+
+        if (flashSaleGoodId == null) {
+            return CompletableFuture.completedFuture(applyToCart.get());
+        }
+
+        added.remove(flashSaleGoodId);
+
+        if (flashSaleGate.findActive(added) != null) {
+            throw new BadRequestException("Товары распродажи добавляются в корзину по одному");
+        }
+
+        return flashSaleGate.submit(flashSaleGoodId, applyToCart);
+    }
+
+    /**
+     * Adds a product to the customer shopping cart.
+     * A product in flash-sale mode is added by the admission queue, the request is rejected
+     * at once if the queue is full or the product is sold out.
      * URL request {"/cart/add"}, method POST.
      *
-     * @param good     the product to add to the cart.
+     * @param goodId      the unique code of the product to add to the cart.
+     * @param quantity    added quantity.
      * @param userSession request Authenticated customer.
-     * @return user.
+     * @return lines of the cart.
      */
     @PostMapping("/cart/add")
-    public User addToCart(
-            @RequestParam("add") Good good,
+    @ResponseBody
+    public CompletableFuture<List<CartLine>> addToCart(
+            @RequestParam("add") Long goodId,
+            @RequestParam(defaultValue = "1") int quantity,
             @AuthenticationPrincipal User userSession
     ) {
-        User user = userService.findByUsername(userSession.getUsername());
-        user.getGoodList().add(good);
-        userService.save(user);
+        Supplier<List<CartLine>> addToCart = () -> cartService.add(userSession.getId(), goodId, quantity);
 
-        return user;
+        if (flashSaleGate.findActive(Collections.singletonList(goodId)) != null) {
+            return flashSaleGate.submit(goodId, addToCart);
+        }
+
+        return CompletableFuture.completedFuture(addToCart.get());
     }
 
     /**
-     * Remove product from customer shopping cart and redirects it to "/cart".
+     * Removes a product from customer shopping cart.
      * URL request {"/cart/remove"}, method POST.
      *
-     * @param good     the product to be removed from the customer shopping cart.
+     * @param goodId      the unique code of the product to be removed from the customer shopping cart.
+     * @param quantity    removed quantity.
      * @param userSession request Authenticated customer.
-     * @return гыук.
+     * @return lines of the cart.
      */
     @PostMapping("/cart/remove")
-    public User removeFromCart(
-            @RequestParam(value = "perfumeId") Good good,
+    @ResponseBody
+    public List<CartLine> removeFromCart(
+            @RequestParam(value = "perfumeId") Long goodId,
+            @RequestParam(defaultValue = "1") int quantity,
             @AuthenticationPrincipal User userSession
     ) {
-        User user = userService.findByUsername(userSession.getUsername());
-
-        if (good != null) {
-            user.getGoodList().remove(good);
-        }
-
-        userService.save(user);
+        return cartService.remove(userSession.getId(), goodId, quantity);
+    }
 
-        return user;
+    /**
+     * Sets the quantity of a product in the customer shopping cart, zero removes the product.
+     * URL request {"/cart/quantity"}, method POST.
+     *
+     * @param goodId      the unique code of the product.
+     * @param quantity    new quantity.
+     * @param userSession request Authenticated customer.
+     * @return lines of the cart.
+     */
+    @PostMapping("/cart/quantity")
+    @ResponseBody
+    public List<CartLine> setQuantity(
+            @RequestParam Long goodId,
+            @RequestParam int quantity,
+            @AuthenticationPrincipal User userSession
+    ) {
+        return cartService.setQuantity(userSession.getId(), goodId, quantity);
     }
-}
\ No newline at end of file
+}
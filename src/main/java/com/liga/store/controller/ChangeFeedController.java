@@ -0,0 +1,63 @@
+package com.liga.store.controller;
+
+import com.liga.store.catalog.CatalogChangeFeed;
+import com.liga.store.catalog.GoodDelta;
+import com.liga.store.exeptions.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Catalog change feed controller class.
+ * This controller can be accessed by all users, regardless of their roles.
+ * The @Controller annotation serves to inform Spring that this class is a bean and must be
+ * loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CatalogChangeFeed
+ * @see GoodDelta
+ */
+@Controller
+public class ChangeFeedController {
+    /**
+     * Feed of the price and quantity changes of goods.
+     */
+    private final CatalogChangeFeed changeFeed;
+
+    /**
+     * Constructor for initializing the main variables of the change feed controller.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param changeFeed feed of the price and quantity changes of goods.
+     */
+    @Autowired
+    public ChangeFeedController(CatalogChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Streams the price and quantity changes of goods as Server-Sent Events.
+     * Every change is the "delta" event with the unique code, the price, the quantity and the version of the good.
+     * The "reset" event tells the client to reload the catalog.
+     * URL request {"/catalog/changes"}, method GET.
+     *
+     * @param lastEventId      id of the last event sent by the browser on reconnect.
+     * @param lastEventIdParam id of the last event for clients which cannot set headers.
+     * @return stream of events.
+     * @throws TooManyRequestsException if the number of clients is at the limit.
+     */
+    @GetMapping(value = "/catalog/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter changes(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(name = "lastEventId", required = false) String lastEventIdParam
+    ) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+}
@@ -0,0 +1,127 @@
+package com.liga.store.controller;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.Order;
+import com.liga.store.exports.CatalogExporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Catalog and order export controller class.
+ * Exports are streamed to the client while they are read from the database,
+ * on an asynchronous request with its own timeout, other asynchronous requests keep the default one.
+ * This controller and related pages can be accessed only by administrators.
+ * The @Controller annotation serves to inform Spring that this class is a bean and must be
+ * loaded when the application starts.
+ * The @PreAuthorize annotation says the controller is accessible
+ * only to users with administrator rights.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see Order
+ * @see CatalogExporter
+ */
+@Controller
+@RequestMapping("/user/export")
+@PreAuthorize("hasAnyAuthority('ADMIN', 'OWNER')")
+public class ExportController {
+    /**
+     * Buffer size of the compressed stream.
+     */
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Streaming exporter of goods and orders.
+     */
+    private final CatalogExporter catalogExporter;
+
+    /**
+     * Time in milliseconds an export may take.
+     */
+    @Value("${export.timeout-ms:3600000}")
+    private long timeout;
+
+    /**
+     * Constructor for initializing the main variables of the export controller.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param catalogExporter streaming exporter of goods and orders.
+     */
+    @Autowired
+    public ExportController(CatalogExporter catalogExporter) {
+        this.catalogExporter = catalogExporter;
+    }
+
+    /**
+     * Returns all goods as a JSON array.
+     * URL request {"/user/export/goods"}, method GET.
+     *
+     * @param gzip     compress the response with gzip.
+     * @param response response the goods are written to.
+     * @return task streaming the goods.
+     */
+    @GetMapping("goods")
+    @ResponseBody
+    public WebAsyncTask<Void> exportGoods(@RequestParam(defaultValue = "false") boolean gzip,
+                                          HttpServletResponse response) {
+        return stream("goods", gzip, response, catalogExporter::exportGoods);
+    }
+
+    /**
+     * Returns all orders with the unique codes of their goods as a JSON array.
+     * URL request {"/user/export/orders"}, method GET.
+     *
+     * @param gzip     compress the response with gzip.
+     * @param response response the orders are written to.
+     * @return task streaming the orders.
+     */
+    @GetMapping("orders")
+    @ResponseBody
+    public WebAsyncTask<Void> exportOrders(@RequestParam(defaultValue = "false") boolean gzip,
+                                           HttpServletResponse response) {
+        return stream("orders", gzip, response, catalogExporter::exportOrders);
+    }
+
+    /**
+     * Returns the task writing the export to the response with the timeout of the exports.
+     */
+    private WebAsyncTask<Void> stream(String name, boolean gzip, HttpServletResponse response, StreamingResponseBody body) {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + ".json\"");
+
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return new WebAsyncTask<>(timeout, () -> {
+            OutputStream output = response.getOutputStream();
+
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, GZIP_BUFFER_SIZE, true);
+                body.writeTo(compressed);
+                compressed.finish();
+            } else {
+                body.writeTo(output);
+            }
+
+            output.flush();
+
+            return null;
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.liga.store.controller;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.dto.FacetPage;
+import com.liga.store.fields.FieldPlan;
+import com.liga.store.fields.FieldPlanners;
+import com.liga.store.service.FilterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * Catalog filter controller class.
+ * This controller and related pages can be accessed by all users, regardless of their roles.
+ * The @Controller annotation serves to inform Spring that this class is a bean and must be
+ * loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see FilterService
+ */
+@Controller
+public class FilterController {
+    /**
+     * Service object for filtering products.
+     */
+    private final FilterService filterService;
+
+    /**
+     * Constructor for initializing the main variables of the filter controller.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param filterService service object for filtering products.
+     */
+    @Autowired
+    public FilterController(FilterService filterService) {
+        this.filterService = filterService;
+    }
+
+    /**
+     * Returns one page of products matching the filter together with the number of products
+     * for every manufacturer, country, type and year.
+     * URL request {"/filter"}, method GET.
+     *
+     * @param producers good manufacturers, any of them.
+     * @param countries manufacturer countries, any of them.
+     * @param types     types of goods, any of them.
+     * @param yearFrom  the minimum year of release.
+     * @param yearTo    the maximum year of release.
+     * @param after     the unique code of the last good of the previous page.
+     * @param size      requested page size.
+     * @param fields    comma separated fields of the products to return, all fields by default.
+     * @return {@link FacetPage}.
+     */
+    @GetMapping("/filter")
+    @ResponseBody
+    public MappingJacksonValue filter(
+            @RequestParam(name = "producer", required = false) List<String> producers,
+            @RequestParam(name = "country", required = false) List<String> countries,
+            @RequestParam(name = "type", required = false) List<String> types,
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields
+    ) {
+        FieldPlan plan = FieldPlanners.GOOD.plan(fields);
+
+        return plan.apply(filterService.filter(producers, countries, types, yearFrom, yearTo, after, size));
+    }
+}
@@ -0,0 +1,107 @@
+package com.liga.store.controller;
+
+import com.liga.store.flashsale.FlashSale;
+import com.liga.store.flashsale.FlashSaleGate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * Flash sale controller class.
+ * This controller and related pages can be accessed only by administrators.
+ * The @Controller annotation serves to inform Spring that this class is a bean and must be
+ * loaded when the application starts.
+ * The @PreAuthorize annotation says the controller is accessible
+ * only to users with administrator rights.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see FlashSaleGate
+ */
+@Slf4j
+@Controller
+@RequestMapping("/user/flash-sale")
+@PreAuthorize("hasAnyAuthority('ADMIN', 'OWNER')")
+public class FlashSaleController {
+    /**
+     * Admission queue for goods in flash-sale mode.
+     */
+    private final FlashSaleGate flashSaleGate;
+
+    /**
+     * Constructor for initializing the main variables of the flash sale controller.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param flashSaleGate admission queue for goods in flash-sale mode.
+     */
+    @Autowired
+    public FlashSaleController(FlashSaleGate flashSaleGate) {
+        this.flashSaleGate = flashSaleGate;
+    }
+
+    /**
+     * Enables the flash-sale mode of the product.
+     * URL request {"/user/flash-sale/{id}"}, method PUT.
+     *
+     * @param id        the unique code of the product.
+     * @param queueSize maximum number of waiting requests.
+     * @return the flash sale.
+     */
+    @PutMapping("{id}")
+    @ResponseBody
+    public FlashSale enable(@PathVariable Long id, @RequestParam(required = false) Integer queueSize) {
+        log.debug("ADMIN enabled flash sale of good {}", id);
+
+        return flashSaleGate.enable(id, queueSize);
+    }
+
+    /**
+     * Disables the flash-sale mode of the product.
+     * URL request {"/user/flash-sale/{id}"}, method DELETE.
+     *
+     * @param id the unique code of the product.
+     * @return the disabled flash sale.
+     */
+    @DeleteMapping("{id}")
+    @ResponseBody
+    public FlashSale disable(@PathVariable Long id) {
+        log.debug("ADMIN disabled flash sale of good {}", id);
+
+        return flashSaleGate.disable(id);
+    }
+
+    /**
+     * Returns the counters of the flash sale of the product.
+     * URL request {"/user/flash-sale/{id}"}, method GET.
+     *
+     * @param id the unique code of the product.
+     * @return the flash sale.
+     */
+    @GetMapping("{id}")
+    @ResponseBody
+    public FlashSale status(@PathVariable Long id) {
+        return flashSaleGate.findById(id);
+    }
+
+    /**
+     * Returns all flash sales.
+     * URL request {"/user/flash-sale"}, method GET.
+     *
+     * @return list of {@link FlashSale}.
+     */
+    @GetMapping
+    @ResponseBody
+    public List<FlashSale> sales() {
+        return flashSaleGate.findAll();
+    }
+}
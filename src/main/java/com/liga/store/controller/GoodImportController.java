@@ -0,0 +1,101 @@
+package com.liga.store.controller;
+
+import com.liga.store.domain.Good;
+import com.liga.store.imports.GoodImportJob;
+import com.liga.store.service.GoodImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Bulk catalog import controller class.
+ * This controller and related pages can be accessed only by administrators.
+ * The @Controller annotation serves to inform Spring that this class is a bean and must be
+ * loaded when the application starts.
+ * The @PreAuthorize annotation says the controller is accessible
+ * only to users with administrator rights.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see GoodImportService
+ */
+@Slf4j
+@Controller
+@RequestMapping("/user/import")
+@PreAuthorize("hasAnyAuthority('ADMIN', 'OWNER')")
+public class GoodImportController {
+    /**
+     * Service object for importing products.
+     */
+    private final GoodImportService goodImportService;
+
+    /**
+     * Constructor for initializing the main variables of the import controller.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodImportService service object for importing products.
+     */
+    @Autowired
+    public GoodImportController(GoodImportService goodImportService) {
+        this.goodImportService = goodImportService;
+    }
+
+    /**
+     * Starts the import of the uploaded CSV or JSON catalog.
+     * Goods with the same manufacturer and title as existing goods update them.
+     * URL request {"/user/import"}, method POST.
+     *
+     * @param file   uploaded catalog file.
+     * @param format format of the file, csv or json, taken from the file name if absent.
+     * @return the started job with the status 202.
+     * @throws IOException if the file cannot be saved.
+     */
+    @PostMapping
+    public ResponseEntity<GoodImportJob> start(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format
+    ) throws IOException {
+        GoodImportJob job = goodImportService.start(file, format);
+        log.debug("ADMIN started import {} of {}", job.getId(), job.getSource());
+
+        return ResponseEntity.accepted().body(job);
+    }
+
+    /**
+     * Returns the progress of the import.
+     * URL request {"/user/import/{id}"}, method GET.
+     *
+     * @param id the unique code of the job.
+     * @return job.
+     */
+    @GetMapping("{id}")
+    @ResponseBody
+    public GoodImportJob progress(@PathVariable String id) {
+        return goodImportService.findById(id);
+    }
+
+    /**
+     * Returns the recent imports.
+     * URL request {"/user/import"}, method GET.
+     *
+     * @return jobs.
+     */
+    @GetMapping
+    @ResponseBody
+    public List<GoodImportJob> jobs() {
+        return goodImportService.findAll();
+    }
+}
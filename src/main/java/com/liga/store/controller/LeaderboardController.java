@@ -0,0 +1,94 @@
+package com.liga.store.controller;
+
+import com.liga.store.fields.FieldPlan;
+import com.liga.store.fields.FieldPlanners;
+import com.liga.store.leaderboard.LeaderboardEntry;
+import com.liga.store.leaderboard.LeaderboardPeriod;
+import com.liga.store.leaderboard.SalesLeaderboard;
+import com.liga.store.service.GoodService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sales leaderboard controller class.
+ * This controller can be accessed by all users, regardless of their roles.
+ * The @Controller annotation serves to inform Spring that this class is a bean and must be
+ * loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see SalesLeaderboard
+ */
+@Controller
+public class LeaderboardController {
+    /**
+     * In-memory leaderboard of the most sold goods.
+     */
+    private final SalesLeaderboard salesLeaderboard;
+
+    /**
+     * Service object for working with products.
+     */
+    private final GoodService goodService;
+
+    /**
+     * Constructor for initializing the main variables of the leaderboard controller.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param salesLeaderboard in-memory leaderboard of the most sold goods.
+     * @param goodService      service object for working with products.
+     */
+    @Autowired
+    public LeaderboardController(SalesLeaderboard salesLeaderboard, GoodService goodService) {
+        this.salesLeaderboard = salesLeaderboard;
+        this.goodService = goodService;
+    }
+
+    /**
+     * Returns the unique codes and the scores of the best goods of the period.
+     * URL request {"/leaderboard"}, method GET.
+     *
+     * @param period ranking: DAY, WEEK or TRENDING.
+     * @param limit  maximum number of goods.
+     * @return list of {@link LeaderboardEntry}, the best first.
+     */
+    @GetMapping("/leaderboard")
+    @ResponseBody
+    public List<LeaderboardEntry> leaderboard(
+            @RequestParam(defaultValue = "DAY") LeaderboardPeriod period,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return salesLeaderboard.top(period, limit);
+    }
+
+    /**
+     * Returns the best goods of the period from the catalog.
+     * URL request {"/catalog/top-sellers"}, method GET.
+     *
+     * @param period ranking: DAY, WEEK or TRENDING.
+     * @param limit  maximum number of goods.
+     * @param fields comma separated fields of the products to return, all fields by default.
+     * @return list of products, the best first.
+     */
+    @GetMapping("/catalog/top-sellers")
+    @ResponseBody
+    public MappingJacksonValue topSellers(
+            @RequestParam(defaultValue = "DAY") LeaderboardPeriod period,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String fields
+    ) {
+        FieldPlan plan = FieldPlanners.GOOD.plan(fields);
+        List<Long> ids = salesLeaderboard.top(period, limit).stream()
+                .map(LeaderboardEntry::getId)
+                .collect(Collectors.toList());
+
+        return plan.apply(goodService.findAllById(ids));
+    }
+}
@@ -1,13 +1,28 @@
 package com.liga.store.controller;
 
+import com.liga.store.catalog.CatalogPageCache;
+import com.liga.store.catalog.ProductDetail;
+import com.liga.store.catalog.ProductDetailCache;
 import com.liga.store.domain.Good;
+import com.liga.store.domain.GoodSort;
+import com.liga.store.fields.FieldPlan;
+import com.liga.store.fields.FieldPlanners;
+import com.liga.store.recommend.CatalogRelatedIndex;
 import com.liga.store.service.GoodService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 /**
  * Home page controller class.
@@ -18,10 +33,27 @@ import java.util.List;
  * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
  * @version 1.0
  * @see Good
- * @see GoodService
+ * @see CatalogPageCache
+ * @see ProductDetailCache
+ * @see CatalogRelatedIndex
  */
 @Controller
 public class MainController {
+    /**
+     * Cache of serialized pages of the catalog listing.
+     */
+    private final CatalogPageCache catalogPageCache;
+
+    /**
+     * Cache of serialized product pages.
+     */
+    private final ProductDetailCache productDetailCache;
+
+    /**
+     * Index of goods frequently bought together.
+     */
+    private final CatalogRelatedIndex catalogRelatedIndex;
+
     /**
      * Service object for working with products.
      */
@@ -31,35 +63,94 @@ public class MainController {
      * Constructor for initializing the main variables of the product controller.
      * The @Autowired annotation will allow Spring to automatically initialize objects.
      *
-     * @param goodService Service object for working with products.
+     * @param catalogPageCache    cache of serialized pages of the catalog listing.
+     * @param productDetailCache  cache of serialized product pages.
+     * @param catalogRelatedIndex index of goods frequently bought together.
+     * @param goodService         service object for working with products.
      */
     @Autowired
-    public MainController(GoodService goodService) {
+    public MainController(CatalogPageCache catalogPageCache, ProductDetailCache productDetailCache,
+                          CatalogRelatedIndex catalogRelatedIndex, GoodService goodService) {
+        this.catalogPageCache = catalogPageCache;
+        this.productDetailCache = productDetailCache;
+        this.catalogRelatedIndex = catalogRelatedIndex;
         this.goodService = goodService;
     }
 
     /**
-     * Returns all products to the main page.
+     * Returns one page of products to the main page.
+     * The page is written from the cache of serialized pages, compressed if the client accepts gzip.
      * URL request {"/"}, method GET.
      *
-     * @return good.
+     * @param cursor   cursor of the page returned with the previous page.
+     * @param size     page size.
+     * @param sort     sort order of the products.
+     * @param fields   comma separated fields of the products to return, all fields by default.
+     * @param request  current request.
+     * @param response current response.
+     * @throws IOException if the page cannot be written.
      */
     @GetMapping("/")
-    public List<Good> home() {
-        List<Good> goods = goodService.findAll();
+    public void home(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "ID_ASC") GoodSort sort,
+            @RequestParam(required = false) String fields,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        FieldPlan plan = FieldPlanners.GOOD.plan(fields);
 
-        return goods;
+        catalogPageCache.get(cursor, size, sort, plan).writeTo(request, response);
     }
 
     /**
-     * product that matches the input id parameter.
-     * method GET.
+     * Returns the product that matches the input id parameter.
+     * The response carries the strong entity tag and the time of the last change of the product.
+     * A request with the current entity tag in the If-None-Match header gets 304 Not Modified
+     * from the cache without reading the database, otherwise the cached bytes are written as is.
+     * URL request {"/product/{id}"}, method GET.
      *
-     * @param good product "id" to be returned to the page.
-     * @return product page with model attributes.
+     * @param id       the unique code of the product.
+     * @param request  current request.
+     * @param response current response.
+     * @throws IOException if the product cannot be written.
      */
     @GetMapping("/product/{id}")
-    public Good getProduct(@PathVariable("id") Good good) {
-        return good;
+    public void getProduct(
+            @PathVariable("id") Long id,
+            ServletWebRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        ProductDetail detail = productDetailCache.get(id);
+
+        if (request.checkNotModified(detail.getETag(), detail.getLastModified())) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        detail.getBody().writeTo(request.getRequest(), response);
+    }
+
+    /**
+     * Returns the products most often bought together with the product.
+     * The unique codes are read from the in-memory index, the products from the catalog.
+     * URL request {"/product/{id}/related"}, method GET.
+     *
+     * @param id     the unique code of the product.
+     * @param limit  maximum number of products.
+     * @param fields comma separated fields of the products to return, all fields by default.
+     * @return list of products, the most often bought together first.
+     */
+    @GetMapping("/product/{id}/related")
+    @ResponseBody
+    public MappingJacksonValue getRelated(
+            @PathVariable("id") Long id,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String fields
+    ) {
+        FieldPlan plan = FieldPlanners.GOOD.plan(fields);
+
+        return plan.apply(goodService.findAllById(catalogRelatedIndex.related(id, Math.max(limit, 0))));
     }
 }
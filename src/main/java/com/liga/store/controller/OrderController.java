@@ -1,21 +1,43 @@
 package com.liga.store.controller;
 
+import com.liga.store.cart.CartLine;
+import com.liga.store.domain.Good;
 import com.liga.store.domain.Order;
 import com.liga.store.domain.User;
+import com.liga.store.domain.dto.OrderDto;
+import com.liga.store.fields.FieldPlan;
+import com.liga.store.fields.FieldPlanners;
+import com.liga.store.exeptions.BadRequestException;
+import com.liga.store.exeptions.ConflictException;
+import com.liga.store.flashsale.FlashSaleGate;
+import com.liga.store.orders.IdempotencyCache;
+import com.liga.store.orders.OrderPipeline;
+import com.liga.store.orders.OrderTicket;
+import com.liga.store.service.CartService;
+import com.liga.store.service.GoodService;
 import com.liga.store.service.OrderService;
 import com.liga.store.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import javax.validation.Valid;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Customer order controller class.
@@ -29,6 +51,10 @@ import java.util.Map;
  * @see User
  * @see OrderService
  * @see UserService
+ * @see CartService
+ * @see FlashSaleGate
+ * @see OrderPipeline
+ * @see IdempotencyCache
  */
 @Controller
 @Slf4j
@@ -43,64 +69,123 @@ public class OrderController {
      */
     private final OrderService orderService;
 
+    /**
+     * Service object for working with customer shopping cart.
+     */
+    private final CartService cartService;
+
+    /**
+     * Service object for working with products.
+     */
+    private final GoodService goodService;
+
+    /**
+     * Admission queue for goods in flash-sale mode.
+     */
+    private final FlashSaleGate flashSaleGate;
+
+    /**
+     * Asynchronous placement of orders.
+     */
+    private final OrderPipeline orderPipeline;
+
+    /**
+     * Protection of order placement from repeated requests.
+     */
+    private final IdempotencyCache idempotencyCache;
+
     /**
      * Constructor for initializing the main variables of the cart controller.
      * The @Autowired annotation will allow Spring to automatically initialize objects.
      *
-     * @param userService  service object for working with customer.
-     * @param orderService service object for working orders.
+     * @param userService   service object for working with customer.
+     * @param orderService  service object for working orders.
+     * @param cartService   service object for working with customer shopping cart.
+     * @param goodService   service object for working with products.
+     * @param flashSaleGate admission queue for goods in flash-sale mode.
+     * @param orderPipeline    asynchronous placement of orders.
+     * @param idempotencyCache protection of order placement from repeated requests.
      */
     @Autowired
-    public OrderController(UserService userService, OrderService orderService) {
+    public OrderController(UserService userService, OrderService orderService, CartService cartService,
+                           GoodService goodService, FlashSaleGate flashSaleGate, OrderPipeline orderPipeline,
+                           IdempotencyCache idempotencyCache) {
         this.userService = userService;
         this.orderService = orderService;
+        this.cartService = cartService;
+        this.goodService = goodService;
+        this.flashSaleGate = flashSaleGate;
+        this.orderPipeline = orderPipeline;
+        this.idempotencyCache = idempotencyCache;
     }
 
 
 
     /**
-     * Saves the customers order.
+     * Accepts the customers order, the order is written asynchronously and its status can be polled.
+     * An order with a product in flash-sale mode is accepted by the admission queue, the request is rejected
+     * at once if the queue is full or the product is sold out.
+     * A repeated request with the same Idempotency-Key header returns the ticket of the first order
+     * without placing the order again, unless the first order failed. A key reused with other
+     * delivery details is rejected with 409.
      * URL request {"/order"}, method POST.
      *
-     * @param userSession   requested Authenticated customer.
-     * @param bindingResult errors in validating http request.
-     * @return order.
+     * @param userSession    requested Authenticated customer.
+     * @param bindingResult  errors in validating http request.
+     * @param idempotencyKey key of the request chosen by the client, optional.
+     * @return ticket with the unique code of the order.
      */
     @PostMapping("/order")
-    public Order postOrder(
+    @ResponseBody
+    public CompletableFuture<OrderTicket> postOrder(
             @AuthenticationPrincipal User userSession,
             @Valid Order validOrder,
-            BindingResult bindingResult
+            BindingResult bindingResult,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) {
+        String fingerprint = fingerprint(validOrder);
+        OrderTicket placed = idempotencyCache.find(userSession.getId(), idempotencyKey, fingerprint);
+
+        if (placed != null) {
+            return CompletableFuture.completedFuture(placed);
+        }
+
         User user = userService.findByUsername(userSession.getUsername());
-        Order order = new Order(user);
 
         if (bindingResult.hasErrors()) {
             Map<String, String> errorsMap = ControllerUtils.getErrors(bindingResult);
 
-            return null;
-        } else {
-            order.getGoodList().addAll(user.getGoodList());
-            order.setTotalPrice(validOrder.getTotalPrice());
-            order.setFirstName(validOrder.getFirstName());
-            order.setLastName(validOrder.getLastName());
-            order.setCity(validOrder.getCity());
-            order.setAddress(validOrder.getAddress());
-            order.setPostIndex(validOrder.getPostIndex());
-            order.setEmail(validOrder.getEmail());
-            order.setPhoneNumber(validOrder.getPhoneNumber());
-
-            user.getGoodList().clear();
-
-            orderService.save(order);
-
-            log.debug("User {} id={} made an order: FirstName={}, LastName={}, TotalPrice={}, City={}, " +
-                            "Address={}, PostIndex={}, Email={}, PhoneNumber={}",
-                    user.getUsername(), user.getId(), order.getFirstName(), order.getLastName(), order.getTotalPrice(),
-                    order.getCity(), order.getAddress(), order.getPostIndex(), order.getEmail(), order.getPhoneNumber());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<CartLine> lines = cartService.getCart(user.getId());
+
+        if (lines.isEmpty()) {
+            throw new BadRequestException("Корзина пуста");
         }
 
-        return order;
+        List<Long> goodIds = lines.stream().map(CartLine::getGoodId).collect(Collectors.toList());
+        Long flashSaleGoodId = flashSaleGate.findActive(goodIds);
+
+        if (flashSaleGoodId != null) {
+            return flashSaleGate.submit(flashSaleGoodId, () -> checkout(user, validOrder, idempotencyKey, fingerprint));
+        }
+
+        return CompletableFuture.completedFuture(checkout(user, validOrder, idempotencyKey, fingerprint));
+    }
+
+    /**
+     * Returns the status of the customers order.
+     * URL request {"/order/{id}/status"}, method GET.
+     *
+     * @param id          the unique code of the order.
+     * @param userSession requested Authenticated customer.
+     * @return ticket with the status of the order.
+     */
+    @GetMapping("/order/{id}/status")
+    @ResponseBody
+    public OrderTicket getOrderStatus(@PathVariable Long id, @AuthenticationPrincipal User userSession) {
+        return orderPipeline.findById(id, userSession.getId());
     }
 
     /**
@@ -110,11 +195,8 @@ public class OrderController {
      * * @return finalizeOrder.
      */
     @GetMapping("/finalizeOrder")
-    public Order finalizeOrder() {
-        List<Order> orderList = orderService.findAll();
-        Order orderIndex = orderList.get(orderList.size() - 1);
-
-        return orderIndex;
+    public OrderDto finalizeOrder() {
+        return orderService.findLatestDto();
     }
 
     /**
@@ -122,26 +204,104 @@ public class OrderController {
      * URL request {"/userOrders"}, method GET.
      *
      * @param userSession requested Authenticated customer.
+     * @param fields      comma separated fields of the orders to return, all fields by default.
      * @return orders.
      */
     @GetMapping("/userOrders")
-    public List<Order> getUserOrdersList(@AuthenticationPrincipal User userSession) {
-        User userFromDB = userService.findByUsername(userSession.getUsername());
-        List<Order> orders = orderService.findOrderByUser(userFromDB);
+    @ResponseBody
+    public MappingJacksonValue getUserOrdersList(
+            @AuthenticationPrincipal User userSession,
+            @RequestParam(required = false) String fields
+    ) {
+        FieldPlan plan = FieldPlanners.ORDER.plan(fields);
+        List<OrderDto> orders = orderService.findDtosByUserId(userSession.getId(), plan);
 
-        return orders;
+        return plan.apply(orders);
     }
 
     /**
      * Returns all orders of all customers.
      * URL request {"/orders"}, method GET.
      *
+     * @param fields comma separated fields of the orders to return, all fields by default.
      * @return orders.
      */
     @GetMapping("/orders")
-    public List<Order> getAllOrdersList() {
-        List<Order> orders = orderService.findAll();
+    @ResponseBody
+    public MappingJacksonValue getAllOrdersList(@RequestParam(required = false) String fields) {
+        FieldPlan plan = FieldPlanners.ORDER.plan(fields);
+        List<OrderDto> orders = orderService.findAllDtos(plan);
+
+        return plan.apply(orders);
+    }
+
+    /**
+     * Converts the cart of the user to an order under the lock of the user, so a repeated request
+     * waits for the first one and finds the cart empty or, with the same idempotency key, its ticket.
+     */
+    private OrderTicket checkout(User user, Order validOrder, String idempotencyKey, String fingerprint) {
+        return idempotencyCache.place(user.getId(), idempotencyKey, fingerprint, () -> {
+            List<CartLine> lines = cartService.getCart(user.getId());
+
+            if (lines.isEmpty()) {
+                throw new BadRequestException("Корзина пуста");
+            }
+
+            return placeOrder(user, lines, validOrder);
+        });
+    }
+
+    /**
+     * Returns the fingerprint of the delivery details of the order, the lines of the cart are not part of it,
+     * they are removed from the cart when the order is accepted, so a repeated request finds the cart changed.
+     */
+    private static String fingerprint(Order order) {
+        return Arrays.asList(order.getFirstName(), order.getLastName(), order.getCity(), order.getAddress(),
+                order.getPostIndex(), order.getEmail(), order.getPhoneNumber()).toString();
+    }
+
+    /**
+     * Puts the order of the lines of the cart into the pipeline, the ordered quantities are removed
+     * from the cart, goods added to the cart meanwhile stay there.
+     * The total price is computed from the current prices of the goods, the price sent by the client is ignored.
+     */
+    private OrderTicket placeOrder(User user, List<CartLine> lines, Order validOrder) {
+        List<Long> goodIds = lines.stream().map(CartLine::getGoodId).collect(Collectors.toList());
+        Map<Long, Good> goods = goodService.findAllById(goodIds).stream()
+                .collect(Collectors.toMap(Good::getId, Function.identity()));
+        Order order = new Order(user);
+        long totalPrice = 0;
+
+        for (CartLine line : lines) {
+            Good good = goods.get(line.getGoodId());
+
+            if (good == null) {
+                throw new ConflictException("Товар из корзины больше не продается: " + line.getGoodId());
+            }
+
+            for (int i = 0; i < line.getQuantity(); i++) {
+                order.getGoodList().add(good);
+            }
+
+            totalPrice += (long) (good.getPrice() == null ? 0 : good.getPrice()) * line.getQuantity();
+        }
+
+        order.setTotalPrice((double) totalPrice);
+        order.setFirstName(validOrder.getFirstName());
+        order.setLastName(validOrder.getLastName());
+        order.setCity(validOrder.getCity());
+        order.setAddress(validOrder.getAddress());
+        order.setPostIndex(validOrder.getPostIndex());
+        order.setEmail(validOrder.getEmail());
+        order.setPhoneNumber(validOrder.getPhoneNumber());
+
+        OrderTicket ticket = orderPipeline.submit(order, lines);
+
+        log.debug("User {} id={} made an order {}: FirstName={}, LastName={}, TotalPrice={}, City={}, " +
+                        "Address={}, PostIndex={}, Email={}, PhoneNumber={}",
+                user.getUsername(), user.getId(), ticket.getId(), order.getFirstName(), order.getLastName(), order.getTotalPrice(),
+                order.getCity(), order.getAddress(), order.getPostIndex(), order.getEmail(), order.getPhoneNumber());
 
-        return orders;
+        return ticket;
     }
 }
@@ -0,0 +1,103 @@
+package com.liga.store.controller;
+
+import com.liga.store.domain.Good;
+import com.liga.store.fields.FieldPlan;
+import com.liga.store.fields.FieldPlanners;
+import com.liga.store.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * Product search controller class.
+ * This controller and related pages can be accessed by all users, regardless of their roles.
+ * The @Controller annotation serves to inform Spring that this class is a bean and must be
+ * loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see SearchService
+ */
+@Controller
+public class SearchController {
+    /**
+     * Service object for searching products.
+     */
+    private final SearchService searchService;
+
+    /**
+     * Constructor for initializing the main variables of the search controller.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param searchService service object for searching products.
+     */
+    @Autowired
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Returns products which match the search query, the most relevant first.
+     * URL request {"/search"}, method GET.
+     *
+     * @param query  text entered by the user.
+     * @param limit  maximum number of products.
+     * @param fields comma separated fields of the products to return, all fields by default.
+     * @return goods.
+     */
+    @GetMapping("/search")
+    @ResponseBody
+    public MappingJacksonValue search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields
+    ) {
+        FieldPlan plan = FieldPlanners.GOOD.plan(fields);
+
+        return plan.apply(searchService.search(query, limit));
+    }
+
+    /**
+     * Returns products whose title or manufacturer matches the query with typos.
+     * URL request {"/search/fuzzy"}, method GET.
+     *
+     * @param query  text entered by the user.
+     * @param limit  maximum number of products.
+     * @param fields comma separated fields of the products to return, all fields by default.
+     * @return goods.
+     */
+    @GetMapping("/search/fuzzy")
+    @ResponseBody
+    public MappingJacksonValue fuzzySearch(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields
+    ) {
+        FieldPlan plan = FieldPlanners.GOOD.plan(fields);
+
+        return plan.apply(searchService.fuzzySearch(query, limit));
+    }
+
+    /**
+     * Returns the most popular titles and manufacturers which start with the entered text.
+     * URL request {"/search/suggest"}, method GET.
+     *
+     * @param prefix text entered by the user.
+     * @param limit  maximum number of suggestions.
+     * @return suggestions.
+     */
+    @GetMapping("/search/suggest")
+    @ResponseBody
+    public List<String> suggest(
+            @RequestParam("q") String prefix,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return searchService.suggest(prefix, limit);
+    }
+}
@@ -1,8 +1,13 @@
 package com.liga.store.controller;
 
 import com.liga.store.domain.Good;
+import com.liga.store.domain.GoodSort;
 import com.liga.store.domain.User;
+import com.liga.store.domain.dto.GoodPage;
+import com.liga.store.domain.dto.GoodUpdate;
+import com.liga.store.domain.dto.UserDto;
 import com.liga.store.exeptions.BadRequestException;
+import com.liga.store.exeptions.NotFoundException;
 import com.liga.store.service.GoodService;
 import com.liga.store.service.UserService;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +23,7 @@ import org.springframework.web.multipart.MultipartFile;
 import javax.validation.Valid;
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -74,11 +80,18 @@ public class UserController {
      * only to users with administrator rights.
      * URL request {"/productlist"}, method GET.
      *
+     * @param cursor cursor of the page returned with the previous page.
+     * @param size   page size.
+     * @param sort   sort order of the products.
      * @return productList.
      */
     @GetMapping("productlist")
-    public List<Good> getAllProducts() {
-        List<Good> page = goodService.findAll();
+    public GoodPage getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "ID_ASC") GoodSort sort
+    ) {
+        GoodPage page = goodService.findPage(cursor, size, sort);
 
         return page;
     }
@@ -100,26 +113,72 @@ public class UserController {
     }
 
     /**
-     * Save edited product to the database by an administrator.
+     * Updates the changed fields of a product by an administrator.
+     * Fields which are absent in the request are not changed.
      * The @PreAuthorize annotation says the controller is accessible
      * only to users with administrator rights.
-     * URL request {"/productlist"}, method POST.
+     * URL request {"/productlist/{id}"}, method PATCH.
      *
-     * @param good edited product.
+     * @param id            the unique code of the product.
+     * @param update        changed fields.
+     * @param bindingResult errors in validating http request.
+     * @return updated product.
      */
-    @PreAuthorize("hasAuthority('ADMIN', 'OWNER')")
-    @PostMapping("productlist")
-    public void saveEditedProduct(Good good) throws IOException {
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'OWNER')")
+    @PatchMapping("productlist/{id}")
+    @ResponseBody
+    public Good updateProduct(
+            @PathVariable Long id,
+            @Valid @RequestBody GoodUpdate update,
+            BindingResult bindingResult
+    ) {
+        if (bindingResult.hasErrors()) {
+            throw new BadRequestException("" + ControllerUtils.getErrors(bindingResult));
+        }
+
+        if (goodService.update(Collections.singletonList(id), update) == 0) {
+            throw new NotFoundException("Товар не найден");
+        }
 
-        goodService.saveProductInfoById(good.getTitle(), good.getProducer(), good.getYear(),
-                good.getCountry(), good.getDescription(), good.getPrice(),
-           good.getType(), good.getId());
+        log.debug("ADMIN updated product: id={}", id);
+
+        List<Good> updated = goodService.findAllById(Collections.singletonList(id));
+
+        if (updated.isEmpty()) {
+            throw new NotFoundException("Товар не найден");
+        }
 
-        log.debug("ADMIN save edited product to DB: id={}, perfumer={}, good={}",
-                good.getId(), good.getProducer(), good.getTitle());
+        return updated.get(0);
     }
 
+    /**
+     * Sets the same changed fields to many products by an administrator with one statement.
+     * The @PreAuthorize annotation says the controller is accessible
+     * only to users with administrator rights.
+     * URL request {"/productlist"}, method PATCH.
+     *
+     * @param ids           the unique codes of the products.
+     * @param update        changed fields.
+     * @param bindingResult errors in validating http request.
+     * @return number of updated products.
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'OWNER')")
+    @PatchMapping("productlist")
+    @ResponseBody
+    public Map<String, Integer> updateProducts(
+            @RequestParam List<Long> ids,
+            @Valid @RequestBody GoodUpdate update,
+            BindingResult bindingResult
+    ) {
+        if (bindingResult.hasErrors()) {
+            throw new BadRequestException("" + ControllerUtils.getErrors(bindingResult));
+        }
+
+        int updated = goodService.update(ids, update);
+        log.debug("ADMIN updated {} products", updated);
 
+        return Collections.singletonMap("updated", updated);
+    }
 
     /**
      * Save new product to the database by an administrator.
@@ -161,8 +220,8 @@ public class UserController {
      */
     @PreAuthorize("hasAuthority('ADMIN', 'OWNER')")
     @GetMapping
-    public List<User> userList() {
-        return userService.findAll();
+    public List<UserDto> userList() {
+        return userService.findAllDtos();
     }
 
     /**
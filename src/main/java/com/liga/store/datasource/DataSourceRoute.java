@@ -0,0 +1,20 @@
+package com.liga.store.datasource;
+
+/**
+ * Database a connection is routed to.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see ReadWriteRoutingDataSource
+ */
+public enum DataSourceRoute {
+    /**
+     * Primary database, all writes and the reads which must see them.
+     */
+    PRIMARY,
+
+    /**
+     * Replica of the primary database for read-only transactions.
+     */
+    REPLICA
+}
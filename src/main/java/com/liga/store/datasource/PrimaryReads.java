@@ -0,0 +1,75 @@
+package com.liga.store.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Reads which must see the latest committed data and therefore go to the primary database.
+ * The replica may lag behind, so in-memory caches and indexes read the rows they keep through
+ * this class: a stale row read from the replica would stay cached after the change was applied.
+ * Connections chosen by the {@link ReadWriteRoutingDataSource} inside the call go to the primary.
+ * A connection already held by an enclosing transaction is not changed, so the call must not be
+ * made inside a read-only transaction.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see ReadWriteRoutingDataSource
+ * @see DataSourceRoute
+ */
+public final class PrimaryReads {
+    /**
+     * Depth of the nested calls of the current thread.
+     */
+    private static final ThreadLocal<int[]> DEPTH = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    /**
+     * Runs the reads on the primary database.
+     *
+     * @param reads reads to run.
+     * @param <T>   type of the result.
+     * @return the result of the reads.
+     */
+    public static <T> T call(Supplier<T> reads) {
+        int[] depth = DEPTH.get();
+
+        if (depth == null) {
+            depth = new int[1];
+            DEPTH.set(depth);
+        }
+
+        depth[0]++;
+
+        try {
+            return reads.get();
+        } finally {
+            if (--depth[0] == 0) {
+                DEPTH.remove();
+            }
+        }
+    }
+
+    /**
+     * Runs the reads on the primary database.
+     *
+     * @param reads reads to run.
+     */
+    public static void run(Runnable reads) {
+        call(() -> {
+            reads.run();
+            return null;
+        });
+    }
+
+    /**
+     * Returns true if the current thread runs reads which must go to the primary.
+     *
+     * @return true inside {@link #call(Supplier)} or {@link #run(Runnable)}.
+     */
+    public static boolean isActive() {
+        int[] depth = DEPTH.get();
+
+        return depth != null && depth[0] > 0;
+    }
+}
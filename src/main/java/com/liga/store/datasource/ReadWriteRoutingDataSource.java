@@ -0,0 +1,239 @@
+package com.liga.store.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpSession;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Data source sending read-only transactions to the replica and everything else to the primary.
+ * A read-only transaction goes to the primary as well when the replica is down or lags behind,
+ * when it runs inside {@link PrimaryReads}, or when the HTTP session wrote to the primary recently,
+ * so users always read their own writes. A session counts as written when a transaction which ran
+ * an insert, update or delete on behalf of the session is committed: a read-write transaction which
+ * only reads does not keep the reads of the session on the primary.
+ * The connection is chosen when the first statement runs, so the data source must be wrapped
+ * into a lazy connection proxy for the read-only flag of the transaction to be known.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see ReplicaLagMonitor
+ * @see DataSourceRoute
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    /**
+     * Number of remembered sessions after which the expired ones are removed.
+     */
+    private static final int SWEEP_THRESHOLD = 10000;
+
+    /**
+     * Health and replication lag of the replica.
+     */
+    private final ReplicaLagMonitor replica;
+
+    /**
+     * Time in milliseconds the reads of a session go to the primary after it wrote.
+     */
+    private final long stickyMillis;
+
+    /**
+     * Time of the last write by the unique code of the HTTP session.
+     */
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Key of the transaction resource marking a transaction which already wrote.
+     */
+    private final Object writeKey = new Object();
+
+    /**
+     * Constructor for initializing the data source.
+     *
+     * @param primary      pool of connections to the primary.
+     * @param replica      health and replication lag of the replica.
+     * @param stickyMillis time in milliseconds the reads of a session go to the primary after it wrote.
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaLagMonitor replica, long stickyMillis) {
+        this.replica = replica;
+        this.stickyMillis = stickyMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRoute.PRIMARY, primary);
+        targets.put(DataSourceRoute.REPLICA, replica.getDataSource());
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return trackWrites(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return trackWrites(super.getConnection(username, password));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PrimaryReads.isActive() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return DataSourceRoute.PRIMARY;
+        }
+
+        String session = currentSession();
+
+        if (session != null) {
+            Long lastWrite = lastWrites.get(session);
+
+            if (lastWrite != null && lastWrite > System.currentTimeMillis() - stickyMillis) {
+                return DataSourceRoute.PRIMARY;
+            }
+        }
+
+        return replica.isUsable() ? DataSourceRoute.REPLICA : DataSourceRoute.PRIMARY;
+    }
+
+    /**
+     * Returns the connection which remembers the write of the session when a statement changes data,
+     * or the connection itself outside of a session or in a read-only transaction.
+     */
+    private Connection trackWrites(Connection connection) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return connection;
+        }
+
+        String session = currentSession();
+
+        if (session == null) {
+            return connection;
+        }
+
+        return proxy(Connection.class, new WriteTracker(connection, session));
+    }
+
+    /**
+     * Remembers the write of the session when the transaction is committed,
+     * or at once if the statement runs outside of a transaction.
+     */
+    private void written(String session) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rememberWrite(session, System.currentTimeMillis());
+            return;
+        }
+
+        if (TransactionSynchronizationManager.hasResource(writeKey)) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(writeKey, session);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                rememberWrite(session, System.currentTimeMillis());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeKey);
+            }
+        });
+    }
+
+    private void rememberWrite(String session, long now) {
+        lastWrites.put(session, now);
+
+        if (lastWrites.size() > SWEEP_THRESHOLD) {
+            lastWrites.values().removeIf(lastWrite -> lastWrite <= now - stickyMillis);
+        }
+    }
+
+    /**
+     * Returns true unless the statement is a query.
+     */
+    private static boolean isWrite(String sql) {
+        return !sql.trim().regionMatches(true, 0, "select", 0, "select".length());
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Returns the unique code of the HTTP session of the current request or {@code null}.
+     */
+    private static String currentSession() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+
+        HttpSession session = ((ServletRequestAttributes) attributes).getRequest().getSession(false);
+
+        return session == null ? null : session.getId();
+    }
+
+    /**
+     * Connection or statement of a session which tells the data source about statements changing data.
+     */
+    private final class WriteTracker implements InvocationHandler {
+        private final Object target;
+        private final String session;
+
+        private WriteTracker(Object target, String session) {
+            this.target = target;
+            this.session = session;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement":
+                case "prepareCall":
+                case "execute":
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "addBatch":
+                    if (args != null && args.length > 0 && args[0] instanceof String && isWrite((String) args[0])) {
+                        written(session);
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            Object result;
+
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+
+            if ("createStatement".equals(method.getName())) {
+                return proxy(Statement.class, new WriteTracker(result, session));
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.liga.store.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Health and replication lag of the replica database.
+ * The lag is read periodically, the replica is used only while it answers and its lag
+ * is below the maximum. A replica which has replayed everything it received has no lag,
+ * so an idle primary does not make the replica look stale. A database which is not
+ * in recovery, as a stand-in replica in development, has no lag either.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see ReadWriteRoutingDataSource
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    private static final String LAG_SQL = "select case when not pg_is_in_recovery() "
+            + "or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0) end";
+
+    /**
+     * Pool of connections to the replica.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * Template for the lag query.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Maximum lag of a usable replica in milliseconds.
+     */
+    private final long maxLag;
+
+    /**
+     * Lag read by the last probe in milliseconds or -1 if the replica did not answer.
+     */
+    private volatile long lag = -1;
+
+    /**
+     * Constructor for initializing the monitor.
+     *
+     * @param dataSource pool of connections to the replica.
+     * @param maxLag     maximum lag of a usable replica in milliseconds.
+     */
+    public ReplicaLagMonitor(DataSource dataSource, long maxLag) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.maxLag = maxLag;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public long getLag() {
+        return lag;
+    }
+
+    /**
+     * Returns true if the replica answered the last probe and is not too far behind.
+     *
+     * @return true if read-only transactions may use the replica.
+     */
+    public boolean isUsable() {
+        long current = lag;
+
+        return current >= 0 && current <= maxLag;
+    }
+
+    /**
+     * Reads the lag of the replica.
+     * The @Scheduled annotation runs the method periodically.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replica.probe-ms:1000}")
+    public void probe() {
+        boolean wasUsable = isUsable();
+
+        try {
+            lag = readLag();
+        } catch (RuntimeException e) {
+            lag = -1;
+
+            if (wasUsable) {
+                log.warn("Replica database does not answer, reads go to the primary", e);
+            }
+            return;
+        }
+
+        if (wasUsable != isUsable()) {
+            log.warn("Replica lag is {} ms, reads go to the {}", lag, isUsable() ? "replica" : "primary");
+        }
+    }
+
+    /**
+     * Reads the lag of the replica from the database.
+     *
+     * @return lag in milliseconds.
+     */
+    protected long readLag() {
+        Number current = jdbcTemplate.queryForObject(LAG_SQL, Number.class);
+
+        return current == null ? 0 : current.longValue();
+    }
+}
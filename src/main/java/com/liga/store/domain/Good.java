@@ -1,11 +1,14 @@
 package com.liga.store.domain;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.liga.store.fields.FieldPlanners;
 import lombok.*;
 import org.hibernate.validator.constraints.Length;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 
 /**
  * The class describes the "Good" entity.
@@ -15,6 +18,7 @@ import javax.validation.constraints.NotNull;
  * The @AllArgsConstructor annotation generates all args constructor.
  * The @EqualsAndHashCode annotation generates implementations for the {@code equals} and {@code hashCode} methods inherited
  * by all objects, based on relevant fields.
+ * The @JsonFilter annotation lets a response write only the fields requested with the "fields" parameter.
  *
  * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
  * @version 1.0
@@ -26,13 +30,17 @@ import javax.validation.constraints.NotNull;
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(of = {"id", "good", "goodTitle", "price"})
+@JsonFilter(FieldPlanners.GOOD_FILTER)
 public class Good {
     /**
      * The unique code of the object.
      * The @Id annotation says that the field is the key for the current object.
+     * Codes are taken from the good_id_seq sequence in blocks of 50, so inserts can be batched.
+     * The allocation size must match the increment of the sequence.
      */
     @Id
-    @GeneratedValue(strategy= GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "good_seq")
+    @SequenceGenerator(name = "good_seq", sequenceName = "good_id_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -91,4 +99,29 @@ public class Good {
      */
     @Length(max = 255)
     private String type;
-}
\ No newline at end of file
+
+    /**
+     * Version of the good, increased by every change.
+     * The @Version annotation enables optimistic locking: saving a stale copy of the good fails.
+     * Together with the unique code the version identifies the contents of the good,
+     * so it is used as the entity tag of the product page.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Time of the last change of the good.
+     */
+    private LocalDateTime lastModified;
+
+    /**
+     * Sets the time of the last change before the good is written to the database.
+     * The @PrePersist and @PreUpdate annotations say that the method is called
+     * before the good is inserted or updated.
+     */
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = LocalDateTime.now();
+    }
+}
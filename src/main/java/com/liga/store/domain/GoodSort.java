@@ -0,0 +1,32 @@
+package com.liga.store.domain;
+
+/**
+ * Enumeration of possible sort orders of the {@link Good} catalog listing.
+ * Every order ends with the unique code of the good, so the order of the goods is always stable
+ * and can be used as a key for keyset pagination.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ */
+public enum GoodSort {
+    /**
+     * From the oldest to the newest good.
+     */
+    ID_ASC,
+
+    /**
+     * From the newest to the oldest good.
+     */
+    ID_DESC,
+
+    /**
+     * From the cheapest to the most expensive good.
+     */
+    PRICE_ASC,
+
+    /**
+     * From the most expensive to the cheapest good.
+     */
+    PRICE_DESC
+}
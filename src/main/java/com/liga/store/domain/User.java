@@ -10,7 +10,6 @@ import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import java.lang.invoke.VarHandle;
 import java.util.Collection;
-import java.util.List;
 import java.util.Set;
 
 /**
@@ -25,7 +24,6 @@ import java.util.Set;
  * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
  * @version 1.0
  * @see UserDetails
- * @see Good
  */
 
 @Entity
@@ -84,15 +82,6 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Set<Role> roles;
 
-    /**
-     * List of products in the shopping cart.
-     * Between the {@link User} and {@link Good} objects, there is a many-to-many relationship, that is,
-     * every record in one table is directly related to every record in another table.
-     * Sampling on first access to the current object.
-     */
-    @ManyToMany(fetch = FetchType.EAGER)
-    private List<Good> goodList;
-
 
     /**
      * Method for verifying a user with administrator rights.
@@ -0,0 +1,41 @@
+package com.liga.store.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object class with a shopping cart and its totals computed by the server.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CartLineDto
+ */
+@Getter
+@AllArgsConstructor
+public class CartDto {
+    private final List<CartLineDto> lines;
+    private final int totalQuantity;
+    private final long totalPrice;
+
+    /**
+     * Returns the cart with the totals of the lines.
+     *
+     * @param lines lines of the cart.
+     * @return The {@link CartDto} class object.
+     */
+    public static CartDto of(List<CartLineDto> lines) {
+        int totalQuantity = 0;
+        long totalPrice = 0;
+
+        for (CartLineDto line : lines) {
+            totalQuantity += line.getQuantity();
+            totalPrice += line.getAmount();
+        }
+
+        return new CartDto(lines, totalQuantity, totalPrice);
+    }
+}
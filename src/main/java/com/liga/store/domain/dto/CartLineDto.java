@@ -0,0 +1,40 @@
+package com.liga.store.domain.dto;
+
+import com.liga.store.cart.CartLine;
+import com.liga.store.domain.Good;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Data Transfer Object class with one line of a shopping cart and its cost.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CartDto
+ */
+@Getter
+@AllArgsConstructor
+public class CartLineDto {
+    private final Long id;
+    private final String title;
+    private final String producer;
+    private final Integer price;
+    private final int quantity;
+    private final long amount;
+
+    /**
+     * Returns the line of the cart with the good.
+     *
+     * @param line line of the cart.
+     * @param good good of the line.
+     * @return The {@link CartLineDto} class object.
+     */
+    public static CartLineDto of(CartLine line, Good good) {
+        long price = good.getPrice() == null ? 0 : good.getPrice();
+
+        return new CartLineDto(good.getId(), good.getTitle(), good.getProducer(), good.getPrice(),
+                line.getQuantity(), price * line.getQuantity());
+    }
+}
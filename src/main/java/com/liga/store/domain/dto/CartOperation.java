@@ -0,0 +1,47 @@
+package com.liga.store.domain.dto;
+
+import com.liga.store.cart.CartLine;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object class with one change of a shopping cart.
+ * The @Getter and @Setter annotation generates getters and setters for all fields.
+ * The @NoArgsConstructor annotation generates no-args constructor.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CartLine
+ * @see CartDto
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartOperation {
+    /**
+     * Kind of the change.
+     */
+    public enum Type {
+        ADD, REMOVE, SET
+    }
+
+    /**
+     * Kind of the change.
+     */
+    private Type type;
+
+    /**
+     * The unique code of the good.
+     */
+    private Long goodId;
+
+    /**
+     * Added, removed or new quantity of the good.
+     * Added and removed quantity is 1 by default, new quantity is required.
+     */
+    private Integer quantity;
+}
@@ -0,0 +1,51 @@
+package com.liga.store.domain.dto;
+
+import com.liga.store.domain.Good;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object class with one page of the filtered catalog and the facet counts.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ */
+@Getter
+@AllArgsConstructor
+public class FacetPage {
+    /**
+     * Goods of the page.
+     */
+    private final List<Good> content;
+
+    /**
+     * Number of goods matching the filter.
+     */
+    private final int total;
+
+    /**
+     * The unique code of the last good of the page to request the next page
+     * or {@code null} if the page is the last one.
+     */
+    private final Long nextCursor;
+
+    /**
+     * Counts of goods per value, by dimension: producer, country, type and year.
+     */
+    private final Map<String, Map<String, Integer>> facets;
+
+    /**
+     * Returns true if there is a next page.
+     *
+     * @return true if there is a next page.
+     */
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,112 @@
+package com.liga.store.domain.dto;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.GoodSort;
+import com.liga.store.exeptions.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last returned {@link Good} in the keyset-paginated catalog listing.
+ * The cursor is passed to the client as an opaque URL-safe string and contains the sort order,
+ * the price and the unique code of the last good of the page.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see GoodPage
+ * @see GoodSort
+ */
+@Getter
+@AllArgsConstructor
+public class GoodCursor {
+    /**
+     * Separator of the cursor parts.
+     */
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Sort order the cursor was issued for.
+     */
+    private final GoodSort sort;
+
+    /**
+     * Price of the last good of the page.
+     */
+    private final Integer price;
+
+    /**
+     * The unique code of the last good of the page.
+     */
+    private final Long id;
+
+    /**
+     * Returns the cursor pointing before the first good of the listing.
+     *
+     * @param sort sort order of the listing.
+     * @return The {@link GoodCursor} class object.
+     */
+    public static GoodCursor first(GoodSort sort) {
+        switch (sort) {
+            case ID_DESC:
+            case PRICE_DESC:
+                return new GoodCursor(sort, Integer.MAX_VALUE, Long.MAX_VALUE);
+            default:
+                return new GoodCursor(sort, Integer.MIN_VALUE, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Returns the cursor pointing after the given good.
+     *
+     * @param sort sort order of the listing.
+     * @param good last good of the page.
+     * @return The {@link GoodCursor} class object.
+     */
+    public static GoodCursor after(GoodSort sort, Good good) {
+        return new GoodCursor(sort, good.getPrice(), good.getId());
+    }
+
+    /**
+     * Decodes the cursor received from the client.
+     *
+     * @param value encoded cursor.
+     * @param sort  sort order requested by the client.
+     * @return The {@link GoodCursor} class object.
+     * @throws BadRequestException if the cursor is malformed or was issued for another sort order.
+     */
+    public static GoodCursor decode(String value, GoodSort sort) {
+        String[] parts;
+
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(SEPARATOR);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Некорректный курсор");
+        }
+
+        if (parts.length != 3 || !sort.name().equals(parts[0])) {
+            throw new BadRequestException("Некорректный курсор");
+        }
+
+        try {
+            return new GoodCursor(sort, Integer.valueOf(parts[1]), Long.valueOf(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Некорректный курсор");
+        }
+    }
+
+    /**
+     * Encodes the cursor to pass it to the client.
+     *
+     * @return encoded cursor.
+     */
+    public String encode() {
+        String value = sort.name() + SEPARATOR + price + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
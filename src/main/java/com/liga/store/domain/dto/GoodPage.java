@@ -0,0 +1,46 @@
+package com.liga.store.domain.dto;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.GoodSort;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object class with one page of the keyset-paginated catalog listing.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see GoodCursor
+ */
+@Getter
+@AllArgsConstructor
+public class GoodPage {
+    /**
+     * Goods of the page.
+     */
+    private final List<Good> content;
+
+    /**
+     * Sort order of the page.
+     */
+    private final GoodSort sort;
+
+    /**
+     * Encoded cursor of the next page or {@code null} if the page is the last one.
+     */
+    private final String nextCursor;
+
+    /**
+     * Returns true if there is a next page.
+     *
+     * @return true if there is a next page.
+     */
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,85 @@
+package com.liga.store.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.liga.store.domain.Good;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.validator.constraints.Length;
+
+/**
+ * Data Transfer Object class with the changed fields of {@link Good} objects.
+ * A field with the {@code null} value is not changed.
+ * The @Getter and @Setter annotation generates getters and setters for all fields.
+ * The @NoArgsConstructor annotation generates no-args constructor.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoodUpdate {
+    /**
+     * New good title.
+     * Max length of good title field is 255 characters.
+     */
+    @Length(max = 255)
+    private String title;
+
+    /**
+     * New good manufacturer.
+     * Max length of good manufacturer field is 255 characters.
+     */
+    @Length(max = 255)
+    private String producer;
+
+    /**
+     * New year the good was released.
+     */
+    private Integer year;
+
+    /**
+     * New manufacturer country.
+     * Max length of manufacturer country field is 255 characters.
+     */
+    @Length(max = 255)
+    private String country;
+
+    /**
+     * New good description.
+     */
+    private String description;
+
+    /**
+     * New good price.
+     */
+    private Integer price;
+
+    /**
+     * New quantity of goods.
+     */
+    private Integer quantity;
+
+    /**
+     * New type of good.
+     * Max length of type field is 255 characters.
+     */
+    @Length(max = 255)
+    private String type;
+
+    /**
+     * Returns true if no field is changed.
+     *
+     * @return true if no field is changed.
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return title == null && producer == null && year == null && country == null && description == null
+                && price == null && quantity == null && type == null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.liga.store.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.liga.store.domain.Order;
+import com.liga.store.domain.projection.OrderView;
+import com.liga.store.fields.FieldPlanners;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data Transfer Object class with an {@link Order} and its goods.
+ * Built from projections, so no entity or Hibernate proxy is serialized.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ * The @JsonFilter annotation lets a response write only the fields requested with the "fields" parameter.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see OrderView
+ * @see OrderLineDto
+ */
+@Getter
+@AllArgsConstructor
+@JsonFilter(FieldPlanners.ORDER_FILTER)
+public class OrderDto {
+    private final Long id;
+    private final Double totalPrice;
+    private final LocalDate date;
+    private final String firstName;
+    private final String lastName;
+    private final String city;
+    private final String address;
+    private final String email;
+    private final String phoneNumber;
+    private final Integer postIndex;
+
+    /**
+     * Ordered goods in the order they were added.
+     */
+    private final List<OrderLineDto> goodList;
+
+    /**
+     * Returns the order of the projection.
+     *
+     * @param view     projection of the order.
+     * @param goodList ordered goods.
+     * @return The {@link OrderDto} class object.
+     */
+    public static OrderDto of(OrderView view, List<OrderLineDto> goodList) {
+        return new OrderDto(view.getId(), view.getTotalPrice(), view.getDate(), view.getFirstName(),
+                view.getLastName(), view.getCity(), view.getAddress(), view.getEmail(), view.getPhoneNumber(),
+                view.getPostIndex(), goodList);
+    }
+}
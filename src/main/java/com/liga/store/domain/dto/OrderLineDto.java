@@ -0,0 +1,33 @@
+package com.liga.store.domain.dto;
+
+import com.liga.store.domain.projection.OrderLineView;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Data Transfer Object class with one ordered good.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see OrderDto
+ */
+@Getter
+@AllArgsConstructor
+public class OrderLineDto {
+    private final Long id;
+    private final String title;
+    private final String producer;
+    private final Integer price;
+
+    /**
+     * Returns the ordered good of the projection.
+     *
+     * @param view projection of the ordered good.
+     * @return The {@link OrderLineDto} class object.
+     */
+    public static OrderLineDto of(OrderLineView view) {
+        return new OrderLineDto(view.getGoodId(), view.getTitle(), view.getProducer(), view.getPrice());
+    }
+}
@@ -0,0 +1,40 @@
+package com.liga.store.domain.dto;
+
+import com.liga.store.domain.Role;
+import com.liga.store.domain.User;
+import com.liga.store.domain.projection.UserView;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Data Transfer Object class with a {@link User} for the administrator.
+ * The password and the cart are not included.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see UserView
+ */
+@Getter
+@AllArgsConstructor
+public class UserDto {
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final boolean active;
+    private final Set<Role> roles;
+
+    /**
+     * Returns the user of the projection.
+     *
+     * @param view  projection of the user.
+     * @param roles roles of the user.
+     * @return The {@link UserDto} class object.
+     */
+    public static UserDto of(UserView view, Set<Role> roles) {
+        return new UserDto(view.getId(), view.getUsername(), view.getEmail(), view.isActive(), roles);
+    }
+}
@@ -0,0 +1,20 @@
+package com.liga.store.domain.projection;
+
+import com.liga.store.domain.Good;
+
+/**
+ * Projection of the {@link Good} entity with the fields pushed to the storefront on every change.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ */
+public interface GoodDeltaView {
+    Long getId();
+
+    Integer getPrice();
+
+    Integer getQuantity();
+
+    Long getVersion();
+}
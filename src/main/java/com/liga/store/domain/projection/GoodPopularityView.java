@@ -0,0 +1,28 @@
+package com.liga.store.domain.projection;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.Order;
+
+/**
+ * Projection with the unique code of the {@link Good} and the number of times it was ordered.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see Order
+ */
+public interface GoodPopularityView {
+    /**
+     * Returns the unique code of the good.
+     *
+     * @return the unique code of the good.
+     */
+    Long getId();
+
+    /**
+     * Returns the number of times the good was ordered.
+     *
+     * @return the number of times the good was ordered.
+     */
+    Long getOrders();
+}
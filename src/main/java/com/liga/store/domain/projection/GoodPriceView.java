@@ -0,0 +1,27 @@
+package com.liga.store.domain.projection;
+
+import com.liga.store.domain.Good;
+
+/**
+ * Projection of the {@link Good} entity with the unique code and the price only.
+ * Spring Data selects only these two columns from the database.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ */
+public interface GoodPriceView {
+    /**
+     * Returns the unique code of the good.
+     *
+     * @return the unique code of the good.
+     */
+    Long getId();
+
+    /**
+     * Returns the price of the good.
+     *
+     * @return the price of the good.
+     */
+    Integer getPrice();
+}
@@ -0,0 +1,37 @@
+package com.liga.store.domain.projection;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.Order;
+
+import java.time.LocalDate;
+
+/**
+ * Projection with the unique code of the {@link Good}, a date and the number of times the good was ordered that day.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see Order
+ */
+public interface GoodSalesView {
+    /**
+     * Returns the unique code of the good.
+     *
+     * @return the unique code of the good.
+     */
+    Long getGoodId();
+
+    /**
+     * Returns the date of the orders.
+     *
+     * @return the date of the orders.
+     */
+    LocalDate getDate();
+
+    /**
+     * Returns the number of times the good was ordered that day.
+     *
+     * @return the number of times the good was ordered.
+     */
+    Long getOrders();
+}
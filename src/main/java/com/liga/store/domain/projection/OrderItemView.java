@@ -0,0 +1,37 @@
+package com.liga.store.domain.projection;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.Order;
+
+import java.time.LocalDate;
+
+/**
+ * Projection with the unique codes of the {@link Order} and of one ordered {@link Good} and the date of the order.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Order
+ * @see Good
+ */
+public interface OrderItemView {
+    /**
+     * Returns the unique code of the order.
+     *
+     * @return the unique code of the order.
+     */
+    Long getOrderId();
+
+    /**
+     * Returns the date when the order was made.
+     *
+     * @return the date of the order.
+     */
+    LocalDate getDate();
+
+    /**
+     * Returns the unique code of the ordered good.
+     *
+     * @return the unique code of the good.
+     */
+    Long getGoodId();
+}
@@ -0,0 +1,34 @@
+package com.liga.store.domain.projection;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.Order;
+
+/**
+ * Projection of one ordered {@link Good} with the unique code of its {@link Order}.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Order
+ * @see OrderView
+ */
+public interface OrderLineView {
+    /**
+     * Returns the unique code of the order.
+     *
+     * @return the unique code of the order.
+     */
+    Long getOrderId();
+
+    /**
+     * Returns the unique code of the good.
+     *
+     * @return the unique code of the good.
+     */
+    Long getGoodId();
+
+    String getTitle();
+
+    String getProducer();
+
+    Integer getPrice();
+}
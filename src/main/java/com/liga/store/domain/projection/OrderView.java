@@ -0,0 +1,36 @@
+package com.liga.store.domain.projection;
+
+import com.liga.store.domain.Order;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the {@link Order} entity without the user and the ordered goods.
+ * Only these columns are selected from the database.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Order
+ * @see OrderLineView
+ */
+public interface OrderView {
+    Long getId();
+
+    Double getTotalPrice();
+
+    LocalDate getDate();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getCity();
+
+    String getAddress();
+
+    String getEmail();
+
+    String getPhoneNumber();
+
+    Integer getPostIndex();
+}
@@ -0,0 +1,23 @@
+package com.liga.store.domain.projection;
+
+import com.liga.store.domain.Role;
+import com.liga.store.domain.User;
+
+/**
+ * Projection of one role of a {@link User}.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see User
+ * @see UserView
+ */
+public interface UserRoleView {
+    /**
+     * Returns the unique code of the user.
+     *
+     * @return the unique code of the user.
+     */
+    Long getUserId();
+
+    Role getRole();
+}
@@ -0,0 +1,21 @@
+package com.liga.store.domain.projection;
+
+import com.liga.store.domain.User;
+
+/**
+ * Projection of the {@link User} entity without the password, the roles and the cart.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see User
+ * @see UserRoleView
+ */
+public interface UserView {
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    boolean isActive();
+}
@@ -0,0 +1,39 @@
+package com.liga.store.events;
+
+import com.liga.store.domain.Good;
+import lombok.Getter;
+
+/**
+ * Event published after a bulk import wrote {@link Good} objects to the database.
+ * Too many goods may be changed to refresh them one by one, so in-memory caches and indexes
+ * listen to the event and reload the whole catalog.
+ * The @Getter annotation generates getters for all fields.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see GoodChangedEvent
+ */
+@Getter
+public class CatalogImportedEvent {
+    /**
+     * The unique code of the import job.
+     */
+    private final String jobId;
+
+    /**
+     * Number of inserted or updated goods.
+     */
+    private final long imported;
+
+    /**
+     * Constructor for initializing the event.
+     *
+     * @param jobId    the unique code of the import job.
+     * @param imported number of inserted or updated goods.
+     */
+    public CatalogImportedEvent(String jobId, long imported) {
+        this.jobId = jobId;
+        this.imported = imported;
+    }
+}
@@ -0,0 +1,66 @@
+package com.liga.store.events;
+
+import com.liga.store.domain.Good;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Event published after one or more {@link Good} objects were saved to the database.
+ * In-memory caches and indexes listen to the event and refresh only the changed goods.
+ * An event about a change of the stock only lets the listeners keep what does not depend on the stock.
+ * The @Getter annotation generates getters for all fields.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ */
+@Getter
+public class GoodChangedEvent {
+    /**
+     * The unique codes of the changed goods.
+     */
+    private final List<Long> ids;
+
+    /**
+     * True if only the stock of the goods changed.
+     */
+    private final boolean stockOnly;
+
+    /**
+     * Constructor for initializing the event with the unique codes of the changed goods.
+     *
+     * @param ids the unique codes of the changed goods.
+     */
+    public GoodChangedEvent(Collection<Long> ids) {
+        this(ids, false);
+    }
+
+    private GoodChangedEvent(Collection<Long> ids, boolean stockOnly) {
+        this.ids = Collections.unmodifiableList(new ArrayList<>(ids));
+        this.stockOnly = stockOnly;
+    }
+
+    /**
+     * Returns the event about one changed good.
+     *
+     * @param id the unique code of the changed good.
+     * @return The {@link GoodChangedEvent} class object.
+     */
+    public static GoodChangedEvent of(Long id) {
+        return new GoodChangedEvent(Collections.singletonList(id));
+    }
+
+    /**
+     * Returns the event about a change of the stock of the goods.
+     *
+     * @param ids the unique codes of the goods whose stock changed.
+     * @return The {@link GoodChangedEvent} class object.
+     */
+    public static GoodChangedEvent ofStock(Collection<Long> ids) {
+        return new GoodChangedEvent(ids, true);
+    }
+}
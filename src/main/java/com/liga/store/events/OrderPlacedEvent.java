@@ -0,0 +1,60 @@
+package com.liga.store.events;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.Order;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Event published after an {@link Order} was saved to the database.
+ * Popularity rankings of goods listen to the event.
+ * The @Getter annotation generates getters for all fields.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Order
+ * @see Good
+ */
+@Getter
+public class OrderPlacedEvent {
+    /**
+     * The unique code of the order.
+     */
+    private final Long orderId;
+
+    /**
+     * The unique codes of the ordered goods, a good ordered several times is repeated.
+     */
+    private final List<Long> goodIds;
+
+    /**
+     * Constructor for initializing the event.
+     *
+     * @param orderId the unique code of the order.
+     * @param goodIds the unique codes of the ordered goods.
+     */
+    public OrderPlacedEvent(Long orderId, Collection<Long> goodIds) {
+        this.orderId = orderId;
+        this.goodIds = Collections.unmodifiableList(new ArrayList<>(goodIds));
+    }
+
+    /**
+     * Returns the event about the saved order.
+     *
+     * @param order saved order.
+     * @return The {@link OrderPlacedEvent} class object.
+     */
+    public static OrderPlacedEvent of(Order order) {
+        List<Long> goodIds = new ArrayList<>(order.getGoodList().size());
+
+        for (Good good : order.getGoodList()) {
+            goodIds.add(good.getId());
+        }
+
+        return new OrderPlacedEvent(order.getId(), goodIds);
+    }
+}
@@ -0,0 +1,250 @@
+package com.liga.store.exports;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liga.store.domain.Good;
+import com.liga.store.domain.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Streaming export of all {@link Good} and {@link Order} objects as JSON arrays.
+ * Rows are read from a database cursor in portions of the configured fetch size and written
+ * with the streaming JSON generator as soon as they are read, so memory does not depend
+ * on the number of rows and the first bytes are sent at once.
+ * PostgreSQL opens a cursor only inside a transaction, so every export runs in a read-only transaction.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see Order
+ */
+@Slf4j
+@Component
+public class CatalogExporter {
+    private static final String GOODS_SQL =
+            "select id, title, producer, year, country, description, price, quantity, type from good order by id";
+
+    private static final String ORDERS_SQL =
+            "select o.id, o.total_price, o.date, o.first_name, o.last_name, o.city, o.address, o.email, "
+                    + "o.phone_number, o.post_index, o.user_id, l.good_list_id "
+                    + "from orders o left join orders_good_list l on l.order_id = o.id "
+                    + "order by o.id, l.good_list_order";
+
+    /**
+     * Template for JDBC queries.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Template of the read-only transaction holding the cursor.
+     */
+    private final TransactionTemplate readOnlyTransaction;
+
+    /**
+     * Object mapper creating JSON generators.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Number of rows fetched from the cursor in one round trip.
+     */
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Constructor for initializing the main variables of the exporter.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param jdbcTemplate        template for JDBC queries.
+     * @param transactionTemplate template of transactions, a read-only copy of it is used.
+     * @param objectMapper        object mapper creating JSON generators.
+     */
+    @Autowired
+    public CatalogExporter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes all goods ordered by the unique code as a JSON array.
+     *
+     * @param output stream to write to, it is not closed.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void exportGoods(OutputStream output) throws IOException {
+        try (JsonGenerator generator = createGenerator(output)) {
+            generator.writeStartArray();
+            generator.flush();
+
+            long rows = query(GOODS_SQL, resultSet -> {
+                generator.writeStartObject();
+                generator.writeNumberField("id", resultSet.getLong("id"));
+                generator.writeStringField("title", resultSet.getString("title"));
+                generator.writeStringField("producer", resultSet.getString("producer"));
+                writeInteger(generator, "year", resultSet, "year");
+                generator.writeStringField("country", resultSet.getString("country"));
+                generator.writeStringField("description", resultSet.getString("description"));
+                writeInteger(generator, "price", resultSet, "price");
+                writeInteger(generator, "quantity", resultSet, "quantity");
+                generator.writeStringField("type", resultSet.getString("type"));
+                generator.writeEndObject();
+            });
+
+            generator.writeEndArray();
+            log.info("Exported {} goods", rows);
+        }
+    }
+
+    /**
+     * Writes all orders ordered by the unique code as a JSON array.
+     * Every order contains the unique codes of its goods in the order of the order list.
+     *
+     * @param output stream to write to, it is not closed.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void exportOrders(OutputStream output) throws IOException {
+        try (JsonGenerator generator = createGenerator(output)) {
+            generator.writeStartArray();
+            generator.flush();
+            long[] orders = {0};
+            Long[] currentId = {null};
+
+            query(ORDERS_SQL, resultSet -> {
+                long id = resultSet.getLong("id");
+
+                if (currentId[0] == null || currentId[0] != id) {
+                    if (currentId[0] != null) {
+                        generator.writeEndArray();
+                        generator.writeEndObject();
+                    }
+
+                    currentId[0] = id;
+                    orders[0]++;
+                    writeOrder(generator, resultSet);
+                    generator.writeArrayFieldStart("goodIds");
+                }
+
+                long goodId = resultSet.getLong("good_list_id");
+
+                if (!resultSet.wasNull()) {
+                    generator.writeNumber(goodId);
+                }
+            });
+
+            if (currentId[0] != null) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+
+            generator.writeEndArray();
+            log.info("Exported {} orders", orders[0]);
+        }
+    }
+
+    private void writeOrder(JsonGenerator generator, ResultSet resultSet) throws SQLException, IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", resultSet.getLong("id"));
+        double totalPrice = resultSet.getDouble("total_price");
+
+        if (resultSet.wasNull()) {
+            generator.writeNullField("totalPrice");
+        } else {
+            generator.writeNumberField("totalPrice", totalPrice);
+        }
+
+        Date date = resultSet.getDate("date");
+        generator.writeStringField("date", date == null ? null : date.toLocalDate().toString());
+        generator.writeStringField("firstName", resultSet.getString("first_name"));
+        generator.writeStringField("lastName", resultSet.getString("last_name"));
+        generator.writeStringField("city", resultSet.getString("city"));
+        generator.writeStringField("address", resultSet.getString("address"));
+        generator.writeStringField("email", resultSet.getString("email"));
+        generator.writeStringField("phoneNumber", resultSet.getString("phone_number"));
+        writeInteger(generator, "postIndex", resultSet, "post_index");
+        long userId = resultSet.getLong("user_id");
+
+        if (resultSet.wasNull()) {
+            generator.writeNullField("userId");
+        } else {
+            generator.writeNumberField("userId", userId);
+        }
+    }
+
+    private static void writeInteger(JsonGenerator generator, String field, ResultSet resultSet, String column)
+            throws SQLException, IOException {
+        int value = resultSet.getInt(column);
+
+        if (resultSet.wasNull()) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+
+    /**
+     * Creates the generator which leaves the stream open and does not close the arrays
+     * of a failed export, so a broken export is never a valid JSON document.
+     */
+    private JsonGenerator createGenerator(OutputStream output) throws IOException {
+        return objectMapper.getFactory()
+                .createGenerator(output, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    }
+
+    /**
+     * Streams the rows of the query through the writer inside a read-only transaction.
+     *
+     * @return number of rows.
+     */
+    private long query(String sql, RowWriter writer) throws IOException {
+        try {
+            Long rows = readOnlyTransaction.execute(status -> {
+                long[] count = {0};
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(sql,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                }, resultSet -> {
+                    try {
+                        writer.write(resultSet);
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                return count[0];
+            });
+
+            return rows == null ? 0 : rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writer of one row of the result set.
+     */
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet resultSet) throws SQLException, IOException;
+    }
+}
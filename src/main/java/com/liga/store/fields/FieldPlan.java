@@ -0,0 +1,101 @@
+package com.liga.store.fields;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compiled sparse fieldset of one resource: the requested fields, the columns which must be selected
+ * from the database to return them and the JSON filter which writes only them.
+ * Plans are immutable and shared between requests.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see FieldPlanner
+ */
+public final class FieldPlan {
+    /**
+     * Requested fields in the order of the request.
+     */
+    private final List<String> fields;
+
+    /**
+     * Columns selected from the database.
+     */
+    private final Set<String> columns;
+
+    /**
+     * True if all fields of the resource are requested.
+     */
+    private final boolean all;
+
+    /**
+     * JSON filter writing only the requested fields.
+     */
+    private final FilterProvider filters;
+
+    FieldPlan(String filterId, List<String> fields, Set<String> columns, boolean all) {
+        this.fields = Collections.unmodifiableList(fields);
+        this.columns = Collections.unmodifiableSet(new LinkedHashSet<>(columns));
+        this.all = all;
+        this.filters = new SimpleFilterProvider()
+                .addFilter(filterId, all
+                        ? SimpleBeanPropertyFilter.serializeAll()
+                        : SimpleBeanPropertyFilter.filterOutAllExcept(new LinkedHashSet<>(fields)));
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public Set<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the JSON filter which writes only the requested fields.
+     *
+     * @return The {@link FilterProvider} class object.
+     */
+    public FilterProvider getFilters() {
+        return filters;
+    }
+
+    /**
+     * Returns true if all fields of the resource are requested.
+     *
+     * @return true if all fields are requested.
+     */
+    public boolean isAll() {
+        return all;
+    }
+
+    /**
+     * Returns true if the field is requested.
+     *
+     * @param field name of the field.
+     * @return true if the field is requested.
+     */
+    public boolean includes(String field) {
+        return all || fields.contains(field);
+    }
+
+    /**
+     * Wraps the response body so that only the requested fields are written.
+     *
+     * @param body response body.
+     * @return The {@link MappingJacksonValue} class object.
+     */
+    public MappingJacksonValue apply(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(filters);
+
+        return value;
+    }
+}
@@ -0,0 +1,135 @@
+package com.liga.store.fields;
+
+import com.liga.store.exeptions.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validates the "fields" request parameter of one resource and compiles it to a {@link FieldPlan}.
+ * Compiled plans are cached by the parameter value, so a repeated field set is a map lookup.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see FieldPlan
+ * @see FieldPlanners
+ */
+public final class FieldPlanner {
+    /**
+     * Maximum number of cached plans, the rest are compiled on every request.
+     */
+    private static final int MAX_CACHED_PLANS = 256;
+
+    /**
+     * Id of the JSON filter of the resource.
+     */
+    private final String filterId;
+
+    /**
+     * Fields of the resource in the default order.
+     */
+    private final List<String> allowed;
+
+    /**
+     * Fields which are columns of the resource table.
+     */
+    private final Set<String> columns;
+
+    /**
+     * Columns which are always selected, for example the keys of the pagination.
+     */
+    private final Set<String> required;
+
+    /**
+     * Plan with all fields.
+     */
+    private final FieldPlan all;
+
+    /**
+     * Compiled plans by the value of the parameter.
+     */
+    private final Map<String, FieldPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for initializing the planner of the resource.
+     *
+     * @param filterId id of the JSON filter of the resource.
+     * @param allowed  fields of the resource in the default order.
+     * @param columns  fields which are columns of the resource table.
+     * @param required columns which are always selected.
+     */
+    FieldPlanner(String filterId, List<String> allowed, Set<String> columns, Set<String> required) {
+        this.filterId = filterId;
+        this.allowed = Collections.unmodifiableList(new ArrayList<>(allowed));
+        this.columns = columns;
+        this.required = required;
+        this.all = new FieldPlan(filterId, this.allowed, columns, true);
+    }
+
+    /**
+     * Returns the plan of the requested fields.
+     *
+     * @param fields comma separated names of the fields or {@code null} for all fields.
+     * @return The {@link FieldPlan} class object.
+     * @throws BadRequestException if a field is unknown.
+     */
+    public FieldPlan plan(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return all;
+        }
+
+        FieldPlan plan = plans.get(fields);
+
+        if (plan == null) {
+            plan = compile(fields);
+
+            if (plans.size() < MAX_CACHED_PLANS) {
+                plans.putIfAbsent(fields, plan);
+            }
+        }
+
+        return plan;
+    }
+
+    private FieldPlan compile(String fields) {
+        Set<String> requested = new LinkedHashSet<>();
+
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+
+            if (name.isEmpty()) {
+                continue;
+            }
+
+            if (!allowed.contains(name)) {
+                throw new BadRequestException("Неизвестное поле: " + name + ". Допустимые поля: " + allowed);
+            }
+
+            requested.add(name);
+        }
+
+        if (requested.isEmpty() || requested.containsAll(allowed)) {
+            return all;
+        }
+
+        Set<String> selected = new LinkedHashSet<>(required);
+
+        for (String name : requested) {
+            if (columns.contains(name)) {
+                selected.add(name);
+            }
+        }
+
+        return new FieldPlan(filterId, new ArrayList<>(requested), selected, false);
+    }
+
+    static Set<String> setOf(String... names) {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(names)));
+    }
+}
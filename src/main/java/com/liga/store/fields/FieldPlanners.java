@@ -0,0 +1,55 @@
+package com.liga.store.fields;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.dto.OrderDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Planners of the sparse fieldsets of the resources.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see FieldPlanner
+ */
+public final class FieldPlanners {
+    /**
+     * Id of the JSON filter of {@link Good}.
+     */
+    public static final String GOOD_FILTER = "good";
+
+    /**
+     * Id of the JSON filter of {@link OrderDto}.
+     */
+    public static final String ORDER_FILTER = "order";
+
+    private static final Set<String> GOOD_COLUMNS = FieldPlanner.setOf("id", "title", "producer", "year",
+            "country", "description", "price", "quantity", "type", "version", "lastModified");
+
+    private static final Set<String> ORDER_COLUMNS = FieldPlanner.setOf("id", "totalPrice", "date",
+            "firstName", "lastName", "city", "address", "email", "phoneNumber", "postIndex");
+
+    /**
+     * Fields of {@link Good}. The unique code and the price are always selected for the pagination.
+     */
+    public static final FieldPlanner GOOD = new FieldPlanner(GOOD_FILTER, new ArrayList<>(GOOD_COLUMNS),
+            GOOD_COLUMNS, FieldPlanner.setOf("id", "price"));
+
+    /**
+     * Fields of {@link OrderDto}. The goods of the orders are read with a separate query.
+     */
+    public static final FieldPlanner ORDER = new FieldPlanner(ORDER_FILTER, orderFields(),
+            ORDER_COLUMNS, FieldPlanner.setOf("id"));
+
+    private FieldPlanners() {
+    }
+
+    private static List<String> orderFields() {
+        List<String> fields = new ArrayList<>(ORDER_COLUMNS);
+        fields.add("goodList");
+
+        return fields;
+    }
+}
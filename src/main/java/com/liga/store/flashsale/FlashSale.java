@@ -0,0 +1,124 @@
+package com.liga.store.flashsale;
+
+import com.liga.store.domain.Good;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flash-sale mode of one {@link Good}.
+ * Counters are updated by the request threads and by the admission loop and read by the status requests.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see FlashSaleGate
+ */
+public class FlashSale {
+    /**
+     * The unique code of the good.
+     */
+    private final Long goodId;
+
+    /**
+     * Maximum number of waiting requests.
+     */
+    private final int queueSize;
+
+    /**
+     * Number of the last issued ticket.
+     */
+    private final AtomicLong tickets = new AtomicLong();
+
+    /**
+     * Number of waiting requests.
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Number of processed requests.
+     */
+    private final AtomicLong admitted = new AtomicLong();
+
+    /**
+     * Number of rejected requests.
+     */
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * True when the good was sold out at the last admission, refreshed from the available stock
+     * on every request.
+     */
+    private volatile boolean soldOut;
+
+    /**
+     * Constructor for initializing the flash sale.
+     *
+     * @param goodId    the unique code of the good.
+     * @param queueSize maximum number of waiting requests.
+     */
+    FlashSale(Long goodId, int queueSize) {
+        this.goodId = goodId;
+        this.queueSize = queueSize;
+    }
+
+    public Long getGoodId() {
+        return goodId;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public long getTickets() {
+        return tickets.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public long getAdmitted() {
+        return admitted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public boolean isSoldOut() {
+        return soldOut;
+    }
+
+    /**
+     * Issues the next ticket if there is a free place in the queue.
+     *
+     * @return number of the ticket or zero if the queue is full.
+     */
+    long enter() {
+        if (queued.incrementAndGet() > queueSize) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            return 0;
+        }
+
+        return tickets.incrementAndGet();
+    }
+
+    void leave(boolean admittedRequest) {
+        queued.decrementAndGet();
+
+        if (admittedRequest) {
+            admitted.incrementAndGet();
+        } else {
+            rejected.incrementAndGet();
+        }
+    }
+
+    void reject() {
+        rejected.incrementAndGet();
+    }
+
+    void setSoldOut(boolean soldOut) {
+        this.soldOut = soldOut;
+    }
+}
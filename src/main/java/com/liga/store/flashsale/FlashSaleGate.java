@@ -0,0 +1,313 @@
+package com.liga.store.flashsale;
+
+import com.liga.store.exeptions.BadRequestException;
+import com.liga.store.exeptions.ConflictException;
+import com.liga.store.exeptions.NotFoundException;
+import com.liga.store.exeptions.TooManyRequestsException;
+import com.liga.store.inventory.InventoryEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Admission queue for goods in flash-sale mode.
+ * Requests for such a good get a ticket in the order of arrival and wait in a bounded queue,
+ * a request which finds the queue full or the good sold out is rejected at once.
+ * Admitted requests are processed one by one by a single thread, so a flash sale takes one
+ * database connection however many users come, and the rest of the site keeps its connections.
+ * Waiting requests do not hold request threads, they are completed asynchronously.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see FlashSale
+ * @see InventoryEngine
+ */
+@Slf4j
+@Component
+public class FlashSaleGate {
+    /**
+     * In-memory stock of goods.
+     */
+    private final InventoryEngine inventoryEngine;
+
+    /**
+     * Flash sales by the unique code of the good.
+     */
+    private final Map<Long, FlashSale> sales = new ConcurrentHashMap<>();
+
+    /**
+     * Tickets waiting for the admission loop.
+     */
+    private final BlockingQueue<Ticket<?>> tickets = new LinkedBlockingQueue<>();
+
+    /**
+     * Single thread processing the admitted requests.
+     */
+    private final ExecutorService loop = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "flash-sale");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Default maximum number of waiting requests for one good.
+     */
+    @Value("${catalog.flash-sale.queue-size:1000}")
+    private int defaultQueueSize;
+
+    /**
+     * Maximum time in milliseconds a request waits in the queue.
+     */
+    @Value("${catalog.flash-sale.max-wait-ms:10000}")
+    private long maxWait;
+
+    /**
+     * Constructor for initializing the main variables of the admission queue.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param inventoryEngine in-memory stock of goods.
+     */
+    @Autowired
+    public FlashSaleGate(InventoryEngine inventoryEngine) {
+        this.inventoryEngine = inventoryEngine;
+    }
+
+    /**
+     * Starts the admission loop.
+     */
+    @PostConstruct
+    public void start() {
+        loop.execute(this::run);
+    }
+
+    /**
+     * Stops the admission loop and rejects the waiting requests.
+     */
+    @PreDestroy
+    public void shutdown() {
+        loop.shutdownNow();
+
+        Ticket<?> ticket = tickets.poll();
+
+        while (ticket != null) {
+            ticket.reject(new TooManyRequestsException("Распродажа остановлена"));
+            ticket = tickets.poll();
+        }
+    }
+
+    /**
+     * Enables the flash-sale mode of the good.
+     *
+     * @param goodId    the unique code of the good.
+     * @param queueSize maximum number of waiting requests, the default size if {@code null}.
+     * @return the flash sale.
+     */
+    public FlashSale enable(Long goodId, Integer queueSize) {
+        int size = queueSize == null ? defaultQueueSize : queueSize;
+
+        if (size <= 0) {
+            throw new BadRequestException("Размер очереди должен быть больше нуля");
+        }
+
+        inventoryEngine.available(goodId);
+        FlashSale sale = new FlashSale(goodId, size);
+        sales.put(goodId, sale);
+        log.info("Flash sale of good {} enabled, queue size {}", goodId, size);
+
+        return sale;
+    }
+
+    /**
+     * Disables the flash-sale mode of the good, requests already in the queue are still processed.
+     *
+     * @param goodId the unique code of the good.
+     * @return the disabled flash sale.
+     */
+    public FlashSale disable(Long goodId) {
+        FlashSale sale = sales.remove(goodId);
+
+        if (sale == null) {
+            throw new NotFoundException("Распродажа не найдена");
+        }
+
+        log.info("Flash sale of good {} disabled: admitted={}, rejected={}",
+                goodId, sale.getAdmitted(), sale.getRejected());
+
+        return sale;
+    }
+
+    /**
+     * Returns the flash sale of the good.
+     *
+     * @param goodId the unique code of the good.
+     * @return the flash sale.
+     */
+    public FlashSale findById(Long goodId) {
+        FlashSale sale = sales.get(goodId);
+
+        if (sale == null) {
+            throw new NotFoundException("Распродажа не найдена");
+        }
+
+        return sale;
+    }
+
+    /**
+     * Returns all flash sales.
+     *
+     * @return list of {@link FlashSale}.
+     */
+    public List<FlashSale> findAll() {
+        return new ArrayList<>(sales.values());
+    }
+
+    /**
+     * Returns the first good in flash-sale mode.
+     *
+     * @param goodIds the unique codes of the goods.
+     * @return the unique code of the good or {@code null} if no good is in flash-sale mode.
+     */
+    public Long findActive(Collection<Long> goodIds) {
+        if (sales.isEmpty()) {
+            return null;
+        }
+
+        for (Long goodId : goodIds) {
+            if (sales.containsKey(goodId)) {
+                return goodId;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Puts the request for the good in flash-sale mode into the queue.
+     *
+     * @param goodId the unique code of the good.
+     * @param task   work of the request, run by the admission loop.
+     * @param <T>    type of the result.
+     * @return result of the work, completed with {@link ConflictException} if the good is sold out
+     * and with {@link TooManyRequestsException} if the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(Long goodId, Supplier<T> task) {
+        FlashSale sale = sales.get(goodId);
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        if (sale == null) {
+            result.completeExceptionally(new NotFoundException("Распродажа не найдена"));
+            return result;
+        }
+
+        if (isSoldOut(sale)) {
+            sale.reject();
+            result.completeExceptionally(new ConflictException("Товар распродан"));
+            return result;
+        }
+
+        synchronized (sale) {
+            long number = sale.enter();
+
+            if (number == 0) {
+                result.completeExceptionally(new TooManyRequestsException("Очередь заполнена, попробуйте позже"));
+                return result;
+            }
+
+            tickets.add(new Ticket<>(sale, number, System.currentTimeMillis() + maxWait, task, result));
+        }
+
+        return result;
+    }
+
+    /**
+     * Processes the tickets one by one until the application stops.
+     */
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                process(tickets.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Flash sale ticket failed", e);
+            }
+        }
+    }
+
+    private <T> void process(Ticket<T> ticket) {
+        FlashSale sale = ticket.sale;
+
+        if (ticket.deadline < System.currentTimeMillis()) {
+            sale.leave(false);
+            ticket.reject(new TooManyRequestsException("Время ожидания в очереди истекло"));
+            return;
+        }
+
+        if (isSoldOut(sale)) {
+            sale.leave(false);
+            ticket.reject(new ConflictException("Товар распродан"));
+            return;
+        }
+
+        try {
+            T value = ticket.task.get();
+            sale.leave(true);
+            ticket.result.complete(value);
+        } catch (RuntimeException e) {
+            sale.leave(false);
+            ticket.reject(e);
+        }
+    }
+
+    /**
+     * Checks the available stock of the good and remembers it in the sale.
+     * Reserved stock comes back when orders fail and an admin may restock the good,
+     * so the stock is checked on every admission and a sold out sale opens again by itself.
+     */
+    private boolean isSoldOut(FlashSale sale) {
+        boolean soldOut = inventoryEngine.available(sale.getGoodId()) <= 0;
+        sale.setSoldOut(soldOut);
+
+        return soldOut;
+    }
+
+    /**
+     * Request waiting in the queue.
+     */
+    private static final class Ticket<T> {
+        private final FlashSale sale;
+        private final long number;
+        private final long deadline;
+        private final Supplier<T> task;
+        private final CompletableFuture<T> result;
+
+        private Ticket(FlashSale sale, long number, long deadline, Supplier<T> task, CompletableFuture<T> result) {
+            this.sale = sale;
+            this.number = number;
+            this.deadline = deadline;
+            this.task = task;
+            this.result = result;
+        }
+
+        private void reject(RuntimeException e) {
+            log.debug("Flash sale ticket {} of good {} rejected: {}", number, sale.getGoodId(), e.getMessage());
+            result.completeExceptionally(e);
+        }
+    }
+}
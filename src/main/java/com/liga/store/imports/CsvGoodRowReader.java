@@ -0,0 +1,183 @@
+package com.liga.store.imports;
+
+import com.liga.store.domain.Good;
+import com.liga.store.exeptions.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming reader of CSV catalog files.
+ * The first row names the columns: title, producer, year, country, description, price, quantity and type,
+ * the order of the columns is free, title and producer are required.
+ * Values may be quoted, a quoted value may contain commas, line breaks and doubled quotes.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see GoodRowReader
+ */
+class CsvGoodRowReader implements GoodRowReader {
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final int EOF = -1;
+
+    /**
+     * Reader of the file.
+     */
+    private final BufferedReader reader;
+
+    /**
+     * Indexes of the columns by name.
+     */
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    /**
+     * Number of the last read row.
+     */
+    private long number;
+
+    /**
+     * Creates the reader and reads the header row.
+     *
+     * @param input file contents in UTF-8.
+     * @throws IOException if the file cannot be read.
+     */
+    CsvGoodRowReader(InputStream input) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<String> header = readRecord();
+
+        if (header == null) {
+            throw new BadRequestException("Файл пуст");
+        }
+
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.put(name, i);
+        }
+
+        if (!columns.containsKey("title") || !columns.containsKey("producer")) {
+            throw new BadRequestException("В файле нет колонок title и producer");
+        }
+    }
+
+    @Override
+    public GoodRow next() throws IOException {
+        List<String> record = readRecord();
+
+        while (record != null && record.size() == 1 && record.get(0).trim().isEmpty()) {
+            record = readRecord();
+        }
+
+        if (record == null) {
+            return null;
+        }
+
+        number++;
+
+        try {
+            Good good = new Good();
+            good.setTitle(text(record, "title"));
+            good.setProducer(text(record, "producer"));
+            good.setYear(number(record, "year"));
+            good.setCountry(text(record, "country"));
+            good.setDescription(text(record, "description"));
+            good.setPrice(number(record, "price"));
+            good.setQuantity(number(record, "quantity"));
+            good.setType(text(record, "type"));
+
+            return new GoodRow(number, good, null);
+        } catch (NumberFormatException e) {
+            return new GoodRow(number, null, "Некорректное число: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String text(List<String> record, String column) {
+        Integer index = columns.get(column);
+
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+
+        String value = record.get(index).trim();
+
+        return value.isEmpty() ? null : value;
+    }
+
+    private Integer number(List<String> record, String column) {
+        String value = text(record, column);
+
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    /**
+     * Reads values of the next record.
+     *
+     * @return values or {@code null} at the end of the file.
+     */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+
+        if (c == EOF) {
+            return null;
+        }
+
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    throw new BadRequestException("Незакрытые кавычки в строке " + (number + 1));
+                }
+
+                if (c == QUOTE) {
+                    reader.mark(1);
+
+                    if (reader.read() == QUOTE) {
+                        value.append(QUOTE);
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    value.append((char) c);
+                }
+            } else if (c == QUOTE && value.length() == 0) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                if (c == '\r') {
+                    reader.mark(1);
+
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+
+                values.add(value.toString());
+
+                return values;
+            } else {
+                value.append((char) c);
+            }
+
+            c = reader.read();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.liga.store.imports;
+
+import com.liga.store.exeptions.BadRequestException;
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+
+/**
+ * Formats of the catalog files accepted by the bulk import.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see GoodImporter
+ */
+public enum GoodImportFormat {
+    /**
+     * Comma separated values with a header row naming the columns.
+     */
+    CSV,
+
+    /**
+     * JSON array of goods or one JSON object per line.
+     */
+    JSON;
+
+    /**
+     * Returns the format given explicitly or by the extension of the file name.
+     *
+     * @param format   name of the format or {@code null}.
+     * @param filename name of the file or {@code null}.
+     * @return format of the file.
+     */
+    public static GoodImportFormat of(String format, String filename) {
+        if (!StringUtils.isEmpty(format)) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Неизвестный формат файла: " + format);
+            }
+        }
+
+        String extension = filename == null ? "" : StringUtils.getFilenameExtension(filename);
+
+        if ("csv".equalsIgnoreCase(extension)) {
+            return CSV;
+        }
+
+        if ("json".equalsIgnoreCase(extension) || "ndjson".equalsIgnoreCase(extension)) {
+            return JSON;
+        }
+
+        throw new BadRequestException("Не удалось определить формат файла: " + filename);
+    }
+}
@@ -0,0 +1,177 @@
+package com.liga.store.imports;
+
+import com.liga.store.domain.Good;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State and progress of one bulk import of {@link Good} objects.
+ * Counters are updated by the import thread and read by the progress requests.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see GoodImporter
+ */
+public class GoodImportJob {
+    /**
+     * Status of the import.
+     */
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * The unique code of the job.
+     */
+    private final String id = UUID.randomUUID().toString();
+
+    /**
+     * Name of the imported file.
+     */
+    private final String source;
+
+    /**
+     * Maximum number of kept row errors.
+     */
+    private final int maxErrors;
+
+    /**
+     * Time the job was created.
+     */
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    /**
+     * Number of read rows.
+     */
+    private final AtomicLong read = new AtomicLong();
+
+    /**
+     * Number of inserted or updated goods.
+     */
+    private final AtomicLong imported = new AtomicLong();
+
+    /**
+     * Number of rejected rows.
+     */
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * The first row errors.
+     */
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * Status of the import.
+     */
+    private volatile Status status = Status.QUEUED;
+
+    /**
+     * Time the job was finished or {@code null}.
+     */
+    private volatile LocalDateTime finishedAt;
+
+    /**
+     * Reason of the failure or {@code null}.
+     */
+    private volatile String failure;
+
+    /**
+     * Constructor for initializing the job.
+     *
+     * @param source    name of the imported file.
+     * @param maxErrors maximum number of kept row errors.
+     */
+    public GoodImportJob(String source, int maxErrors) {
+        this.source = source;
+        this.maxErrors = maxErrors;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public long getRead() {
+        return read.get();
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Returns the first row errors.
+     *
+     * @return copy of the errors.
+     */
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    /**
+     * Marks the job as failed.
+     *
+     * @param reason reason of the failure.
+     */
+    public void fail(String reason) {
+        failure = reason;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    void addRead(long rows) {
+        read.addAndGet(rows);
+    }
+
+    void addImported(long goods) {
+        imported.addAndGet(goods);
+    }
+
+    void reject(long row, String error) {
+        rejected.incrementAndGet();
+
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add("Строка " + row + ": " + error);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.liga.store.imports;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Command line bulk import of goods.
+ * The import runs before the application starts serving requests when the application is started with
+ * {@code --import-goods=<file>} and optionally {@code --import-format=csv|json}.
+ * For a one-off import add {@code --spring.main.web-application-type=none}, the application
+ * stops when the import is finished. Rejected rows are logged, at most "catalog.import.max-errors" of them per file.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see GoodImporter
+ */
+@Slf4j
+@Component
+public class GoodImportRunner implements ApplicationRunner {
+    private static final String FILE_OPTION = "import-goods";
+    private static final String FORMAT_OPTION = "import-format";
+
+    /**
+     * Streaming importer of goods.
+     */
+    private final GoodImporter goodImporter;
+
+    /**
+     * Maximum number of row errors kept and reported for one file.
+     */
+    @Value("${catalog.import.max-errors:100}")
+    private int maxErrors;
+
+    /**
+     * Constructor for initializing the main variables of the import runner.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodImporter streaming importer of goods.
+     */
+    @Autowired
+    public GoodImportRunner(GoodImporter goodImporter) {
+        this.goodImporter = goodImporter;
+    }
+
+    /**
+     * Imports the files given in the command line.
+     *
+     * @param args arguments of the application.
+     * @throws Exception if a file cannot be opened.
+     */
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<String> files = args.getOptionValues(FILE_OPTION);
+
+        if (files == null) {
+            return;
+        }
+
+        List<String> formats = args.getOptionValues(FORMAT_OPTION);
+        String format = formats == null || formats.isEmpty() ? null : formats.get(0);
+
+        for (String file : files) {
+            Path path = Paths.get(file);
+            GoodImportJob job = new GoodImportJob(path.getFileName().toString(), maxErrors);
+
+            try (InputStream input = Files.newInputStream(path)) {
+                goodImporter.run(input, GoodImportFormat.of(format, file), job);
+            }
+
+            log.info("Import of {}: {}, read={}, imported={}, rejected={}", file, job.getStatus(),
+                    job.getRead(), job.getImported(), job.getRejected());
+
+            for (String error : job.getErrors()) {
+                log.warn("Import of {}: {}", file, error);
+            }
+
+            if (job.getRejected() > job.getErrors().size()) {
+                log.warn("Import of {}: {} more rejected rows are not shown", file,
+                        job.getRejected() - job.getErrors().size());
+            }
+
+            if (job.getFailure() != null) {
+                log.error("Import of {} failed: {}", file, job.getFailure());
+            }
+        }
+    }
+}
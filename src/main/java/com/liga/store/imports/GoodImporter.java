@@ -0,0 +1,248 @@
+package com.liga.store.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liga.store.domain.Good;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk import of {@link Good} objects.
+ * The file is read in chunks, rows of a chunk are validated against the constraints of {@link Good}
+ * in parallel and valid goods are written with one JDBC batch per chunk, so memory depends
+ * on the chunk size only. Goods are matched by manufacturer and title: an existing good is updated,
+ * a new one is inserted with a unique code allocated from the good_id_seq sequence in blocks.
+ * Every chunk is committed separately, a failed import keeps the chunks written before the failure.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see GoodImportJob
+ * @see GoodRowReader
+ */
+@Slf4j
+@Component
+public class GoodImporter {
+    /**
+     * Number of unique codes allocated by one call of the sequence.
+     * Must match the increment of good_id_seq and the allocation size of the id of {@link Good}.
+     */
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final String ALLOCATE_IDS_SQL =
+            "select nextval('good_id_seq') from generate_series(1, ?)";
+
+    private static final String UPSERT_SQL =
+            "insert into good (id, title, producer, year, country, description, price, quantity, type, "
+                    + "version, last_modified) "
+                    + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, now()) "
+                    + "on conflict (producer, title) do update set "
+                    + "year = excluded.year, country = excluded.country, description = excluded.description, "
+                    + "price = excluded.price, quantity = excluded.quantity, type = excluded.type, "
+                    + "version = good.version + 1, last_modified = excluded.last_modified";
+
+    /**
+     * Template for batched JDBC statements.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Template committing every chunk in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Validator of the constraints of goods.
+     */
+    private final Validator validator;
+
+    /**
+     * Object mapper for JSON files.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Number of rows validated and written together.
+     */
+    @Value("${catalog.import.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Constructor for initializing the main variables of the importer.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param jdbcTemplate        template for batched JDBC statements.
+     * @param transactionTemplate template committing every chunk in its own transaction.
+     * @param validator           validator of the constraints of goods.
+     * @param objectMapper        object mapper for JSON files.
+     */
+    @Autowired
+    public GoodImporter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                        Validator validator, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Imports goods from the file and records the progress in the job.
+     * Errors are recorded in the job, the method does not throw them.
+     *
+     * @param input  file contents.
+     * @param format format of the file.
+     * @param job    job recording the progress.
+     */
+    public void run(InputStream input, GoodImportFormat format, GoodImportJob job) {
+        job.start();
+        log.info("Import {} of {} started", job.getId(), job.getSource());
+
+        try (GoodRowReader reader = format == GoodImportFormat.CSV
+                ? new CsvGoodRowReader(input)
+                : new JsonGoodRowReader(input, objectMapper)) {
+            List<GoodRow> chunk = new ArrayList<>(batchSize);
+            GoodRow row = reader.next();
+
+            while (row != null) {
+                chunk.add(row);
+
+                if (chunk.size() == batchSize) {
+                    process(chunk, job);
+                    chunk.clear();
+                }
+
+                row = reader.next();
+            }
+
+            process(chunk, job);
+            job.complete();
+            log.info("Import {} completed: read={}, imported={}, rejected={}",
+                    job.getId(), job.getRead(), job.getImported(), job.getRejected());
+        } catch (IOException | RuntimeException e) {
+            job.fail(e.getMessage());
+            log.error("Import {} failed after {} rows", job.getId(), job.getRead(), e);
+        }
+    }
+
+    /**
+     * Validates the chunk in parallel and writes the valid goods.
+     */
+    private void process(List<GoodRow> chunk, GoodImportJob job) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<Good> valid = chunk.parallelStream()
+                .map(row -> validate(row, job))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        Map<List<String>, Good> unique = new LinkedHashMap<>();
+
+        for (Good good : valid) {
+            unique.put(Arrays.asList(good.getProducer(), good.getTitle()), good);
+        }
+
+        int written = write(new ArrayList<>(unique.values()));
+        job.addRead(chunk.size());
+        job.addImported(written);
+        log.debug("Import {}: {} rows read", job.getId(), job.getRead());
+    }
+
+    /**
+     * Returns the good of the row or {@code null} if the row is rejected.
+     */
+    private Good validate(GoodRow row, GoodImportJob job) {
+        if (row.getGood() == null) {
+            job.reject(row.getNumber(), row.getError());
+            return null;
+        }
+
+        Set<ConstraintViolation<Good>> violations = validator.validate(row.getGood());
+
+        if (!violations.isEmpty()) {
+            String error = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " - " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            job.reject(row.getNumber(), error);
+            return null;
+        }
+
+        return row.getGood();
+    }
+
+    /**
+     * Inserts or updates the goods with one batch in one transaction.
+     *
+     * @return number of rows written, a statement whose count is unknown to the driver counts as one row.
+     */
+    private int write(List<Good> goods) {
+        if (goods.isEmpty()) {
+            return 0;
+        }
+
+        Integer written = transactionTemplate.execute(status -> {
+            long[] ids = allocateIds(goods.size());
+            List<Object[]> args = new ArrayList<>(goods.size());
+
+            for (int i = 0; i < goods.size(); i++) {
+                Good good = goods.get(i);
+                args.add(new Object[]{ids[i], good.getTitle(), good.getProducer(), good.getYear(), good.getCountry(),
+                        good.getDescription() == null ? "" : good.getDescription(),
+                        good.getPrice(), good.getQuantity(), good.getType()});
+            }
+
+            int[] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, args, new int[]{Types.BIGINT, Types.VARCHAR,
+                    Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER,
+                    Types.VARCHAR});
+            int rows = 0;
+
+            for (int count : counts) {
+                rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+
+            return rows;
+        });
+
+        return written == null ? 0 : written;
+    }
+
+    /**
+     * Allocates unique codes for new goods from the pooled sequence.
+     * Every value of the sequence is the upper bound of a block of codes, as in the pooled
+     * optimizer of Hibernate, so the importer and Hibernate never give out the same code.
+     */
+    private long[] allocateIds(int count) {
+        int blocks = (count + ID_ALLOCATION_SIZE - 1) / ID_ALLOCATION_SIZE;
+        List<Long> upperBounds = jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, blocks);
+        long[] ids = new long[count];
+        int next = 0;
+
+        for (Long upperBound : upperBounds) {
+            for (long id = upperBound - ID_ALLOCATION_SIZE + 1; id <= upperBound && next < count; id++) {
+                ids[next++] = id;
+            }
+        }
+
+        return ids;
+    }
+}
@@ -0,0 +1,33 @@
+package com.liga.store.imports;
+
+import com.liga.store.domain.Good;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One row of the imported catalog file.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see GoodRowReader
+ */
+@Getter
+@AllArgsConstructor
+class GoodRow {
+    /**
+     * Number of the row in the file, starting with one.
+     */
+    private final long number;
+
+    /**
+     * Parsed good or {@code null} if the row could not be parsed.
+     */
+    private final Good good;
+
+    /**
+     * Parse error or {@code null} if the row was parsed.
+     */
+    private final String error;
+}
@@ -0,0 +1,23 @@
+package com.liga.store.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Streaming reader of the rows of a catalog file.
+ * Rows are read one by one, so memory does not depend on the size of the file.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CsvGoodRowReader
+ * @see JsonGoodRowReader
+ */
+interface GoodRowReader extends Closeable {
+    /**
+     * Reads the next row.
+     *
+     * @return the next {@link GoodRow} or {@code null} at the end of the file.
+     * @throws IOException if the file cannot be read.
+     */
+    GoodRow next() throws IOException;
+}
@@ -0,0 +1,99 @@
+package com.liga.store.imports;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liga.store.domain.Good;
+import com.liga.store.exeptions.BadRequestException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming reader of JSON catalog files.
+ * The file is either an array of goods or a sequence of goods, one object per line.
+ * Objects are read one by one with the streaming parser, the whole file is never kept in memory.
+ * Unique codes of goods in the file are ignored, goods are matched by manufacturer and title.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see GoodRowReader
+ */
+class JsonGoodRowReader implements GoodRowReader {
+    /**
+     * Object mapper converting parsed objects to goods.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Streaming parser of the file.
+     */
+    private final JsonParser parser;
+
+    /**
+     * True if the goods are elements of a top-level array.
+     */
+    private final boolean array;
+
+    /**
+     * Number of the last read row.
+     */
+    private long number;
+
+    /**
+     * Creates the reader and reads the start of the file.
+     *
+     * @param input        file contents.
+     * @param objectMapper object mapper converting parsed objects to goods.
+     * @throws IOException if the file cannot be read.
+     */
+    JsonGoodRowReader(InputStream input, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(input);
+        JsonToken first = parser.nextToken();
+
+        if (first == null) {
+            throw new BadRequestException("Файл пуст");
+        }
+
+        if (first != JsonToken.START_ARRAY && first != JsonToken.START_OBJECT) {
+            throw new BadRequestException("Ожидался массив или объекты JSON");
+        }
+
+        this.array = first == JsonToken.START_ARRAY;
+    }
+
+    @Override
+    public GoodRow next() throws IOException {
+        JsonToken token = array || number > 0 ? parser.nextToken() : parser.currentToken();
+
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+
+        number++;
+
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return new GoodRow(number, null, "Ожидался объект JSON");
+        }
+
+        JsonNode node = objectMapper.readTree(parser);
+
+        try {
+            Good good = objectMapper.treeToValue(node, Good.class);
+            good.setId(null);
+
+            return new GoodRow(number, good, null);
+        } catch (JsonProcessingException e) {
+            return new GoodRow(number, null, e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,383 @@
+package com.liga.store.inventory;
+
+import com.liga.store.datasource.PrimaryReads;
+import com.liga.store.domain.Good;
+import com.liga.store.domain.projection.GoodDeltaView;
+import com.liga.store.events.CatalogImportedEvent;
+import com.liga.store.events.GoodChangedEvent;
+import com.liga.store.exeptions.BadRequestException;
+import com.liga.store.exeptions.ConflictException;
+import com.liga.store.exeptions.NotFoundException;
+import com.liga.store.repos.GoodRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory stock of goods.
+ * Orders reserve quantities with compare-and-set on per-good counters, no database lock is taken,
+ * an order fails at once when the stock of a good is insufficient. A reservation is either committed
+ * when the order is placed, or released by the order or by expiry.
+ * Sold quantities are written to the database behind the orders, in one batch per flush,
+ * and the stock is reconciled with the database when goods are changed, after a bulk import
+ * and periodically, so changes of the quantity made by managers are added to the available stock.
+ * The stock of a good is read from the database on the first reservation of the good.
+ * Quantities are always read from the primary: a quantity read from a lagging replica after a flush
+ * would add the flushed quantity to the available stock again.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see InventoryReservation
+ * @see Good
+ */
+@Slf4j
+@Component
+public class InventoryEngine {
+    /**
+     * Maximum number of goods read or written by one query.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Time to live of a reservation which never expires, it is only committed or released.
+     */
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private static final String SELL_SQL = "update good set quantity = quantity - ?, version = version + 1, "
+            + "last_modified = now() where id = ?";
+
+    /**
+     * Implementation of the {@link GoodRepository} interface
+     * for working with goods with a database.
+     */
+    private final GoodRepository goodRepository;
+
+    /**
+     * Template for batched JDBC statements.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Template committing every flush in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Publisher of the {@link GoodChangedEvent} for flushed goods.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Stock by the unique code of the good.
+     */
+    private final Map<Long, StockLevel> levels = new ConcurrentHashMap<>();
+
+    /**
+     * Active reservations by the unique code of the reservation.
+     */
+    private final Map<String, InventoryReservation> reservations = new ConcurrentHashMap<>();
+
+    /**
+     * Time to live of a reservation in milliseconds.
+     */
+    @Value("${catalog.inventory.reservation-ttl-ms:600000}")
+    private long reservationTtl;
+
+    /**
+     * Constructor for initializing the main variables of the inventory.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodRepository      implementation of the {@link GoodRepository} interface
+     *                            for working with goods with a database.
+     * @param jdbcTemplate        template for batched JDBC statements.
+     * @param transactionTemplate template committing every flush in its own transaction.
+     * @param eventPublisher      publisher of the {@link GoodChangedEvent} for flushed goods.
+     */
+    @Autowired
+    public InventoryEngine(GoodRepository goodRepository, JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher) {
+        this.goodRepository = goodRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Reserves the quantities of goods for the default time to live.
+     *
+     * @param quantities quantities by the unique code of the good.
+     * @return the reservation.
+     * @throws ConflictException if the stock of a good is insufficient.
+     */
+    public InventoryReservation reserve(Map<Long, Integer> quantities) {
+        return reserve(quantities, reservationTtl);
+    }
+
+    /**
+     * Reserves the quantities of goods, either all of them or none.
+     *
+     * @param quantities quantities by the unique code of the good.
+     * @param ttl        time to live of the reservation in milliseconds or {@link #NO_EXPIRY}.
+     * @return the reservation.
+     * @throws ConflictException if the stock of a good is insufficient.
+     * @throws NotFoundException if a good does not exist.
+     */
+    public InventoryReservation reserve(Map<Long, Integer> quantities, long ttl) {
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+
+        for (Integer quantity : sorted.values()) {
+            if (quantity == null || quantity <= 0) {
+                throw new BadRequestException("Количество товара должно быть больше нуля");
+            }
+        }
+
+        loadMissing(sorted.keySet());
+
+        List<Map.Entry<Long, Integer>> taken = new ArrayList<>(sorted.size());
+
+        for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+            StockLevel level = levels.get(entry.getKey());
+
+            if (level == null || !level.tryReserve(entry.getValue())) {
+                for (Map.Entry<Long, Integer> reserved : taken) {
+                    release(reserved.getKey(), reserved.getValue());
+                }
+
+                if (level == null) {
+                    throw new NotFoundException("Товар не найден");
+                }
+
+                throw new ConflictException("Недостаточно товара на складе: " + entry.getKey());
+            }
+
+            taken.add(entry);
+        }
+
+        long now = System.currentTimeMillis();
+        long expiresAt = ttl > NO_EXPIRY - now ? NO_EXPIRY : now + ttl;
+        InventoryReservation reservation = new InventoryReservation(sorted, expiresAt);
+        reservations.put(reservation.getId(), reservation);
+
+        return reservation;
+    }
+
+    /**
+     * Sells the reserved quantities, they are written to the database by the next flush.
+     *
+     * @param reservationId the unique code of the reservation.
+     * @throws ConflictException if the reservation expired or was released.
+     */
+    public void commit(String reservationId) {
+        InventoryReservation reservation = reservations.remove(reservationId);
+
+        if (reservation == null) {
+            throw new ConflictException("Резерв товара истек");
+        }
+
+        for (Map.Entry<Long, Integer> entry : reservation.getQuantities().entrySet()) {
+            StockLevel level = levels.get(entry.getKey());
+
+            if (level != null) {
+                level.sell(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns the reserved quantities to the available stock.
+     *
+     * @param reservationId the unique code of the reservation.
+     * @return false if the reservation was already committed, released or expired.
+     */
+    public boolean release(String reservationId) {
+        InventoryReservation reservation = reservations.remove(reservationId);
+
+        if (reservation == null) {
+            return false;
+        }
+
+        reservation.getQuantities().forEach(this::release);
+
+        return true;
+    }
+
+    /**
+     * Returns the quantity of the good which can be reserved.
+     *
+     * @param id the unique code of the good.
+     * @return available quantity.
+     */
+    public long available(Long id) {
+        loadMissing(Collections.singletonList(id));
+        StockLevel level = levels.get(id);
+
+        return level == null ? 0 : level.getAvailable();
+    }
+
+    /**
+     * Releases the expired reservations.
+     * The @Scheduled annotation runs the method periodically.
+     */
+    @Scheduled(fixedDelayString = "${catalog.inventory.expire-ms:1000}")
+    public void expire() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+
+        for (InventoryReservation reservation : reservations.values()) {
+            if (reservation.getExpiresAt() <= now && release(reservation.getId())) {
+                expired++;
+            }
+        }
+
+        if (expired > 0) {
+            log.debug("{} inventory reservations expired", expired);
+        }
+    }
+
+    /**
+     * Writes the sold quantities to the database with one batch and publishes the changed goods.
+     * If the batch fails the quantities are kept for the next flush.
+     * The @Scheduled annotation runs the method periodically.
+     */
+    @Scheduled(fixedDelayString = "${catalog.inventory.flush-ms:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        List<Long> ids = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+
+        for (Map.Entry<Long, StockLevel> entry : levels.entrySet()) {
+            long sold = entry.getValue().takeUnflushed();
+
+            if (sold > 0) {
+                ids.add(entry.getKey());
+                args.add(new Object[]{sold, entry.getKey()});
+            }
+        }
+
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(SELL_SQL, args));
+        } catch (RuntimeException e) {
+            for (Object[] arg : args) {
+                levels.get((Long) arg[1]).restoreUnflushed((Long) arg[0]);
+            }
+
+            log.error("Inventory flush of {} goods failed", ids.size(), e);
+            return;
+        }
+
+        for (Object[] arg : args) {
+            levels.get((Long) arg[1]).flushed((Long) arg[0]);
+        }
+
+        log.debug("Inventory flushed: {} goods", ids.size());
+        eventPublisher.publishEvent(GoodChangedEvent.ofStock(ids));
+    }
+
+    /**
+     * Reconciles the stock of all loaded goods with the database.
+     * The @Scheduled annotation runs the method periodically.
+     */
+    @Scheduled(fixedDelayString = "${catalog.inventory.reconcile-ms:60000}")
+    @EventListener(CatalogImportedEvent.class)
+    public void reconcileAll() {
+        reconcile(new ArrayList<>(levels.keySet()));
+    }
+
+    /**
+     * Reconciles the stock of the changed goods after the transaction which changed them is committed.
+     *
+     * @param event event with the unique codes of the changed goods.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGoodChanged(GoodChangedEvent event) {
+        List<Long> loaded = new ArrayList<>();
+
+        for (Long id : event.getIds()) {
+            if (levels.containsKey(id)) {
+                loaded.add(id);
+            }
+        }
+
+        reconcile(loaded);
+    }
+
+    /**
+     * Applies the quantities in the database to the loaded goods, deleted goods are forgotten.
+     * Runs under the same monitor as the flush, so no flushed quantity is applied twice.
+     */
+    private synchronized void reconcile(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            Map<Long, Integer> quantities = new TreeMap<>();
+
+            for (GoodDeltaView view : PrimaryReads.call(() -> goodRepository.findDeltaViewsByIdIn(batch))) {
+                quantities.put(view.getId(), view.getQuantity());
+            }
+
+            for (Long id : batch) {
+                StockLevel level = levels.get(id);
+
+                if (level == null) {
+                    continue;
+                }
+
+                if (!quantities.containsKey(id)) {
+                    levels.remove(id);
+                } else {
+                    Integer quantity = quantities.get(id);
+                    level.reconcile(quantity == null ? 0 : quantity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the stock of the goods which are not loaded yet.
+     */
+    private void loadMissing(Collection<Long> ids) {
+        List<Long> missing = new ArrayList<>();
+
+        for (Long id : ids) {
+            if (!levels.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        for (GoodDeltaView view : PrimaryReads.call(() -> goodRepository.findDeltaViewsByIdIn(missing))) {
+            levels.putIfAbsent(view.getId(), new StockLevel(view.getQuantity() == null ? 0 : view.getQuantity()));
+        }
+    }
+
+    private void release(Long id, Integer quantity) {
+        StockLevel level = levels.get(id);
+
+        if (level != null) {
+            level.release(quantity);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.liga.store.inventory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Quantities of goods held for one order until the order is placed or the reservation expires.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see InventoryEngine
+ */
+public class InventoryReservation {
+    /**
+     * The unique code of the reservation.
+     */
+    private final String id = UUID.randomUUID().toString();
+
+    /**
+     * Reserved quantities by the unique code of the good.
+     */
+    private final Map<Long, Integer> quantities;
+
+    /**
+     * Time in milliseconds when the reservation expires.
+     */
+    private final long expiresAt;
+
+    InventoryReservation(Map<Long, Integer> quantities, long expiresAt) {
+        this.quantities = Collections.unmodifiableMap(new LinkedHashMap<>(quantities));
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Map<Long, Integer> getQuantities() {
+        return quantities;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,91 @@
+package com.liga.store.inventory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stock of one good.
+ * The available quantity is changed with compare-and-set only, so it never goes below zero
+ * because of reservations. Sold quantities are collected until they are written to the database.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see InventoryEngine
+ */
+final class StockLevel {
+    /**
+     * Quantity which is neither reserved nor sold.
+     */
+    private final AtomicLong available;
+
+    /**
+     * Quantity sold and not yet written to the database.
+     */
+    private final AtomicLong unflushed = new AtomicLong();
+
+    /**
+     * Quantity in the database as last written or read by the engine.
+     * Guarded by the monitor of the engine.
+     */
+    private long persisted;
+
+    StockLevel(long quantity) {
+        this.available = new AtomicLong(quantity);
+        this.persisted = quantity;
+    }
+
+    long getAvailable() {
+        return available.get();
+    }
+
+    /**
+     * Takes the quantity from the available stock.
+     *
+     * @return false if the available stock is less than the quantity.
+     */
+    boolean tryReserve(long quantity) {
+        while (true) {
+            long current = available.get();
+
+            if (current < quantity) {
+                return false;
+            }
+
+            if (available.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long quantity) {
+        available.addAndGet(quantity);
+    }
+
+    void sell(long quantity) {
+        unflushed.addAndGet(quantity);
+    }
+
+    long takeUnflushed() {
+        return unflushed.getAndSet(0);
+    }
+
+    void restoreUnflushed(long quantity) {
+        unflushed.addAndGet(quantity);
+    }
+
+    void flushed(long quantity) {
+        persisted -= quantity;
+    }
+
+    /**
+     * Applies the quantity read from the database, the difference with the known quantity
+     * was made outside of the engine and is added to the available stock.
+     */
+    void reconcile(long quantity) {
+        long difference = quantity - persisted;
+        persisted = quantity;
+
+        if (difference != 0) {
+            available.addAndGet(difference);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.liga.store.leaderboard;
+
+import com.liga.store.domain.Good;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Position of a {@link Good} in the sales leaderboard.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see SalesLeaderboard
+ */
+@Getter
+@AllArgsConstructor
+public class LeaderboardEntry {
+    /**
+     * The unique code of the good.
+     */
+    private final Long id;
+
+    /**
+     * Number of sales in the period or the growth of sales for {@link LeaderboardPeriod#TRENDING}.
+     */
+    private final double score;
+}
@@ -0,0 +1,25 @@
+package com.liga.store.leaderboard;
+
+/**
+ * Rankings of the sales leaderboard.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see SalesLeaderboard
+ */
+public enum LeaderboardPeriod {
+    /**
+     * Most sold goods of the last 24 hours.
+     */
+    DAY,
+
+    /**
+     * Most sold goods of the last 7 days.
+     */
+    WEEK,
+
+    /**
+     * Goods sold in the last 24 hours more than on an average day of the 6 days before.
+     */
+    TRENDING
+}
@@ -0,0 +1,41 @@
+package com.liga.store.leaderboard;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sales of goods in one hour.
+ * Counters are striped {@link LongAdder} objects, so orders placed at the same time do not contend.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see SalesLeaderboard
+ */
+final class SalesBucket {
+    /**
+     * Number of the hour since the epoch.
+     */
+    private final long hour;
+
+    /**
+     * Number of sales by the unique code of the good.
+     */
+    private final Map<Long, LongAdder> sales = new ConcurrentHashMap<>();
+
+    SalesBucket(long hour) {
+        this.hour = hour;
+    }
+
+    long getHour() {
+        return hour;
+    }
+
+    Map<Long, LongAdder> getSales() {
+        return sales;
+    }
+
+    void add(Long id, long count) {
+        sales.computeIfAbsent(id, key -> new LongAdder()).add(count);
+    }
+}
@@ -0,0 +1,248 @@
+package com.liga.store.leaderboard;
+
+import com.liga.store.domain.projection.GoodSalesView;
+import com.liga.store.events.OrderPlacedEvent;
+import com.liga.store.repos.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory leaderboard of the most sold goods.
+ * Sales are counted in a ring of hourly {@link SalesBucket} objects covering the last week,
+ * a bucket is reused when its hour falls out of the week. Placed orders only increment counters,
+ * the rankings are computed periodically with a bounded heap and read without locks.
+ * The ring is rebuilt from the orders of the last week when the application starts,
+ * the orders keep only their date, so they are counted in the first hour of the day.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see LeaderboardPeriod
+ * @see OrderPlacedEvent
+ */
+@Slf4j
+@Component
+public class SalesLeaderboard {
+    private static final int DAY_HOURS = 24;
+    private static final int WEEK_HOURS = 7 * DAY_HOURS;
+
+    private static final Comparator<LeaderboardEntry> RANKING = Comparator
+            .comparingDouble(LeaderboardEntry::getScore)
+            .thenComparing(LeaderboardEntry::getId, Comparator.reverseOrder());
+
+    /**
+     * Implementation of the {@link OrderRepository} interface
+     * for working with orders with a database.
+     */
+    private final OrderRepository orderRepository;
+
+    /**
+     * Hourly buckets of the last week by the number of the hour modulo the size of the ring.
+     */
+    private final AtomicReferenceArray<SalesBucket> buckets = new AtomicReferenceArray<>(WEEK_HOURS);
+
+    /**
+     * Maximum number of goods in one ranking.
+     */
+    @Value("${catalog.leaderboard.top-k:100}")
+    private int topSize;
+
+    /**
+     * Rankings computed by the last refresh.
+     */
+    private volatile Map<LeaderboardPeriod, List<LeaderboardEntry>> rankings = Collections.emptyMap();
+
+    /**
+     * Constructor for initializing the main variables of the leaderboard.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param orderRepository implementation of the {@link OrderRepository} interface
+     *                        for working with orders with a database.
+     */
+    @Autowired
+    public SalesLeaderboard(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * Counts the sales of the last week from the database when the application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        LocalDate today = LocalDate.now();
+        long rows = 0;
+
+        for (GoodSalesView view : orderRepository.countSalesByGoodAndDateSince(today.minusDays(7))) {
+            long hour = TimeUnit.MILLISECONDS.toHours(
+                    view.getDate().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            SalesBucket bucket = bucket(hour, currentHour());
+
+            if (bucket != null) {
+                bucket.add(view.getGoodId(), view.getOrders());
+                rows++;
+            }
+        }
+
+        refresh();
+        log.info("Sales leaderboard loaded: {} sales rows", rows);
+    }
+
+    /**
+     * Returns the ranking of the period.
+     *
+     * @param period ranking.
+     * @param limit  maximum number of goods.
+     * @return goods and their scores, the best first.
+     */
+    public List<LeaderboardEntry> top(LeaderboardPeriod period, int limit) {
+        List<LeaderboardEntry> ranking = rankings.getOrDefault(period, Collections.emptyList());
+
+        return ranking.subList(0, Math.max(0, Math.min(limit, ranking.size())));
+    }
+
+    /**
+     * Counts the ordered goods after the order is committed.
+     *
+     * @param event event with the unique codes of the ordered goods.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        long now = currentHour();
+        SalesBucket bucket = bucket(now, now);
+
+        if (bucket == null) {
+            return;
+        }
+
+        for (Long id : event.getGoodIds()) {
+            bucket.add(id, 1);
+        }
+    }
+
+    /**
+     * Sums the sales of the buckets in the periods and recomputes the rankings.
+     * The @Scheduled annotation runs the method periodically.
+     */
+    @Scheduled(fixedDelayString = "${catalog.leaderboard.refresh-ms:10000}")
+    public void refresh() {
+        long now = currentHour();
+        Map<Long, long[]> sales = new HashMap<>();
+
+        for (int i = 0; i < buckets.length(); i++) {
+            SalesBucket bucket = buckets.get(i);
+
+            if (bucket == null || bucket.getHour() <= now - WEEK_HOURS || bucket.getHour() > now) {
+                continue;
+            }
+
+            boolean today = bucket.getHour() > now - DAY_HOURS;
+
+            for (Map.Entry<Long, LongAdder> entry : bucket.getSales().entrySet()) {
+                long[] counts = sales.computeIfAbsent(entry.getKey(), key -> new long[2]);
+                long count = entry.getValue().sum();
+                counts[1] += count;
+
+                if (today) {
+                    counts[0] += count;
+                }
+            }
+        }
+
+        Map<LeaderboardPeriod, PriorityQueue<LeaderboardEntry>> heaps = new EnumMap<>(LeaderboardPeriod.class);
+
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            heaps.put(period, new PriorityQueue<>(RANKING));
+        }
+
+        for (Map.Entry<Long, long[]> entry : sales.entrySet()) {
+            long day = entry.getValue()[0];
+            long week = entry.getValue()[1];
+            offer(heaps.get(LeaderboardPeriod.DAY), entry.getKey(), day);
+            offer(heaps.get(LeaderboardPeriod.WEEK), entry.getKey(), week);
+            offer(heaps.get(LeaderboardPeriod.TRENDING), entry.getKey(), day - (week - day) / 6.0);
+        }
+
+        Map<LeaderboardPeriod, List<LeaderboardEntry>> refreshed = new EnumMap<>(LeaderboardPeriod.class);
+
+        for (Map.Entry<LeaderboardPeriod, PriorityQueue<LeaderboardEntry>> entry : heaps.entrySet()) {
+            List<LeaderboardEntry> ranking = new ArrayList<>(entry.getValue());
+            ranking.sort(RANKING.reversed());
+            refreshed.put(entry.getKey(), Collections.unmodifiableList(ranking));
+        }
+
+        rankings = refreshed;
+    }
+
+    /**
+     * Keeps the good in the heap if its score is among the best ones, goods with no sales are not ranked.
+     */
+    private void offer(PriorityQueue<LeaderboardEntry> heap, Long id, double score) {
+        if (score <= 0) {
+            return;
+        }
+
+        LeaderboardEntry entry = new LeaderboardEntry(id, score);
+
+        if (heap.size() < topSize) {
+            heap.add(entry);
+        } else if (RANKING.compare(entry, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+
+    /**
+     * Returns the bucket of the hour, a bucket of an hour which fell out of the week is replaced.
+     *
+     * @return the bucket or {@code null} if the hour is out of the last week.
+     */
+    private SalesBucket bucket(long hour, long now) {
+        if (hour <= now - WEEK_HOURS || hour > now) {
+            return null;
+        }
+
+        int index = (int) Math.floorMod(hour, (long) WEEK_HOURS);
+
+        while (true) {
+            SalesBucket bucket = buckets.get(index);
+
+            if (bucket != null && bucket.getHour() == hour) {
+                return bucket;
+            }
+
+            if (bucket != null && bucket.getHour() > hour) {
+                return null;
+            }
+
+            SalesBucket created = new SalesBucket(hour);
+
+            if (buckets.compareAndSet(index, bucket, created)) {
+                return created;
+            }
+        }
+    }
+
+    private static long currentHour() {
+        return TimeUnit.MILLISECONDS.toHours(System.currentTimeMillis());
+    }
+}
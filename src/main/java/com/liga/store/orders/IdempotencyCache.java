@@ -0,0 +1,184 @@
+package com.liga.store.orders;
+
+import com.liga.store.exeptions.BadRequestException;
+import com.liga.store.exeptions.ConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Protection of order placement from repeated requests.
+ * Placements of one user are made under one of a fixed number of locks chosen by the user,
+ * so a double submit waits for the first one and finds the cart already converted.
+ * A request may carry an idempotency key chosen by the client, the ticket of the order placed
+ * with the key is kept for a limited time and returned to the repeated requests of the user
+ * with the same key without placing the order again.
+ * The key is stored with the fingerprint of the request, a request which reuses the key with
+ * another fingerprint is rejected. A key whose order failed is forgotten, so the order can be
+ * placed again with the same key.
+ * Keys are kept in the order they were stored, the number of keys is bounded, the oldest keys
+ * are removed first.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see OrderPipeline
+ * @see OrderTicket
+ */
+@Component
+public class IdempotencyCache {
+    /**
+     * Number of locks, a power of two.
+     */
+    private static final int STRIPES = 64;
+
+    /**
+     * Maximum length of a key.
+     */
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * Locks of the placements, the lock of a placement is chosen by the unique code of the user.
+     */
+    private final Object[] stripes = new Object[STRIPES];
+
+    /**
+     * Stored tickets by the user and the key, in the order they were stored, guarded by itself.
+     */
+    private final LinkedHashMap<String, StoredTicket> tickets = new LinkedHashMap<>();
+
+    /**
+     * Maximum number of stored keys.
+     */
+    @Value("${catalog.order-idempotency.max-keys:100000}")
+    private int maxKeys;
+
+    /**
+     * Time in milliseconds a key is stored.
+     */
+    @Value("${catalog.order-idempotency.ttl-ms:86400000}")
+    private long ttl;
+
+    /**
+     * Constructor for initializing the locks.
+     */
+    public IdempotencyCache() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Returns the ticket stored for the key of the user.
+     *
+     * @param userId      the unique code of the user.
+     * @param key         idempotency key or {@code null}.
+     * @param fingerprint fingerprint of the request.
+     * @return the ticket or {@code null} if the key is not stored, its order failed or the key is {@code null}.
+     * @throws BadRequestException if the key is too long.
+     * @throws ConflictException   if the key was used with another fingerprint.
+     */
+    public OrderTicket find(Long userId, String key, String fingerprint) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Ключ идемпотентности не может быть длиннее " + MAX_KEY_LENGTH + " символов");
+        }
+
+        synchronized (tickets) {
+            evictExpired(System.currentTimeMillis());
+            String id = id(userId, key);
+            StoredTicket stored = tickets.get(id);
+
+            if (stored == null) {
+                return null;
+            }
+
+            if (stored.ticket.getStatus() == OrderTicket.Status.FAILED) {
+                tickets.remove(id);
+                return null;
+            }
+
+            if (!stored.fingerprint.equals(fingerprint)) {
+                throw new ConflictException("Ключ идемпотентности уже использован для другого заказа");
+            }
+
+            return stored.ticket;
+        }
+    }
+
+    /**
+     * Places the order under the lock of the user, unless a ticket is already stored for the key.
+     * The ticket of the placed order is stored for the key with the fingerprint of the request,
+     * a placement which throws stores nothing, so the request can be repeated.
+     *
+     * @param userId      the unique code of the user.
+     * @param key         idempotency key or {@code null}.
+     * @param fingerprint fingerprint of the request.
+     * @param placement   placement of the order.
+     * @return the stored ticket or the ticket of the placed order.
+     * @throws ConflictException if the key was used with another fingerprint.
+     */
+    public OrderTicket place(Long userId, String key, String fingerprint, Supplier<OrderTicket> placement) {
+        synchronized (stripes[Long.hashCode(userId) & (STRIPES - 1)]) {
+            OrderTicket ticket = find(userId, key, fingerprint);
+
+            if (ticket != null) {
+                return ticket;
+            }
+
+            ticket = placement.get();
+
+            if (key != null && !key.isEmpty()) {
+                synchronized (tickets) {
+                    tickets.put(id(userId, key), new StoredTicket(ticket, fingerprint, System.currentTimeMillis()));
+
+                    Iterator<StoredTicket> oldest = tickets.values().iterator();
+
+                    while (tickets.size() > maxKeys) {
+                        oldest.next();
+                        oldest.remove();
+                    }
+                }
+            }
+
+            return ticket;
+        }
+    }
+
+    /**
+     * Removes the keys stored earlier than the lifetime, they are at the head of the map.
+     */
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, StoredTicket>> oldest = tickets.entrySet().iterator();
+
+        while (oldest.hasNext() && oldest.next().getValue().storedAt < now - ttl) {
+            oldest.remove();
+        }
+    }
+
+    private static String id(Long userId, String key) {
+        return userId + ":" + key;
+    }
+
+    /**
+     * Ticket stored for a key.
+     */
+    private static final class StoredTicket {
+        private final OrderTicket ticket;
+        private final String fingerprint;
+        private final long storedAt;
+
+        private StoredTicket(OrderTicket ticket, String fingerprint, long storedAt) {
+            this.ticket = ticket;
+            this.fingerprint = fingerprint;
+            this.storedAt = storedAt;
+        }
+    }
+}
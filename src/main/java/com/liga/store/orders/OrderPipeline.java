@@ -0,0 +1,461 @@
+package com.liga.store.orders;
+
+import com.liga.store.cart.CartLine;
+import com.liga.store.domain.Good;
+import com.liga.store.domain.Order;
+import com.liga.store.events.OrderPlacedEvent;
+import com.liga.store.exeptions.ConflictException;
+import com.liga.store.exeptions.NotFoundException;
+import com.liga.store.exeptions.TooManyRequestsException;
+import com.liga.store.inventory.InventoryEngine;
+import com.liga.store.inventory.InventoryReservation;
+import com.liga.store.repos.OrderRepository;
+import com.liga.store.service.CartService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Date;
+import java.sql.Types;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous placement of {@link Order} objects.
+ * An accepted order reserves its goods, takes them out of the cart, gets its unique code at once
+ * and waits in a bounded queue, a request which finds the queue full is rejected.
+ * The reservation does not expire while the order waits, so a written order always takes its goods:
+ * it is committed when the order is written and released when the order fails. A single writer takes all waiting orders,
+ * up to the batch size, and inserts them and their goods with two JDBC batches in one transaction,
+ * so under load many orders share one commit. If a batch fails its orders are written one by one,
+ * only the orders which fail alone are marked as failed and their goods are returned to the cart.
+ * Unique codes are taken from the orders_id_seq sequence in blocks, the same sequence Hibernate uses
+ * for orders, so the pipeline and Hibernate never give out the same code.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see OrderTicket
+ * @see InventoryEngine
+ */
+@Slf4j
+@Component
+public class OrderPipeline {
+    private static final String ALLOCATE_IDS_SQL = "select nextval('orders_id_seq') from generate_series(1, ?)";
+
+    private static final String INSERT_ORDER_SQL = "insert into orders (id, total_price, date, first_name, "
+            + "last_name, city, address, email, phone_number, post_index, user_id) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_ORDER_TYPES = {Types.BIGINT, Types.DOUBLE, Types.DATE, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.BIGINT};
+
+    private static final String INSERT_GOOD_SQL =
+            "insert into orders_good_list (order_id, good_list_id, good_list_order) values (?, ?, ?)";
+
+    /**
+     * Template for batched JDBC statements.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Template committing every batch in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * In-memory stock of goods.
+     */
+    private final InventoryEngine inventoryEngine;
+
+    /**
+     * Service object for working with customer shopping cart.
+     */
+    private final CartService cartService;
+
+    /**
+     * Implementation of the {@link OrderRepository} interface
+     * for working with orders with a database.
+     */
+    private final OrderRepository orderRepository;
+
+    /**
+     * Publisher of the {@link OrderPlacedEvent}.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Tickets of the orders which are waiting or finished recently, by the unique code of the order.
+     */
+    private final Map<Long, OrderTicket> tickets = new ConcurrentHashMap<>();
+
+    /**
+     * Finished tickets in the order they finished.
+     */
+    private final Queue<OrderTicket> finished = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Allocated unique codes which are not given out yet, guarded by itself.
+     */
+    private final Deque<Long> ids = new ArrayDeque<>();
+
+    /**
+     * Single thread writing the orders.
+     */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Maximum number of waiting orders.
+     */
+    @Value("${catalog.order-pipeline.queue-size:10000}")
+    private int queueSize;
+
+    /**
+     * Maximum number of orders written in one transaction.
+     */
+    @Value("${catalog.order-pipeline.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Number of unique codes allocated by one query.
+     */
+    @Value("${catalog.order-pipeline.id-block-size:100}")
+    private int idBlockSize;
+
+    /**
+     * Time in milliseconds the status of a finished order is kept in memory.
+     */
+    @Value("${catalog.order-pipeline.status-ttl-ms:600000}")
+    private long statusTtl;
+
+    /**
+     * Orders waiting for the writer.
+     */
+    private BlockingQueue<PendingOrder> queue;
+
+    /**
+     * False when the application stops, new orders are rejected and the writer stops
+     * after the waiting orders are written.
+     */
+    private volatile boolean running;
+
+    /**
+     * Constructor for initializing the main variables of the pipeline.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param jdbcTemplate        template for batched JDBC statements.
+     * @param transactionTemplate template committing every batch in its own transaction.
+     * @param inventoryEngine     in-memory stock of goods.
+     * @param cartService         service object for working with customer shopping cart.
+     * @param orderRepository     implementation of the {@link OrderRepository} interface
+     *                            for working with orders with a database.
+     * @param eventPublisher      publisher of the {@link OrderPlacedEvent}.
+     */
+    @Autowired
+    public OrderPipeline(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                         InventoryEngine inventoryEngine, CartService cartService,
+                         OrderRepository orderRepository, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.inventoryEngine = inventoryEngine;
+        this.cartService = cartService;
+        this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Starts the writer.
+     */
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueSize);
+        running = true;
+        writer.execute(this::run);
+    }
+
+    /**
+     * Stops accepting orders and waits until the writer writes the waiting orders.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.shutdown();
+
+        if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.error("Order writer did not stop, {} orders are not written", queue.size());
+        }
+    }
+
+    /**
+     * Reserves the goods of the order until it is written or fails, removes the ordered quantities
+     * from the cart and puts the order into the queue. The order is written later, the quantities
+     * are returned to the cart if it fails. If the order cannot be queued, the ticket is forgotten,
+     * the removed quantities are returned to the cart and the goods are released.
+     *
+     * @param order order with the user, the goods and the delivery details, without the unique code.
+     * @param lines lines of the cart the order was made of.
+     * @return ticket with the unique code of the order.
+     * @throws ConflictException        if the stock of a good is insufficient.
+     * @throws TooManyRequestsException if the queue is full.
+     */
+    public OrderTicket submit(Order order, List<CartLine> lines) {
+        if (!running) {
+            throw new TooManyRequestsException("Прием заказов остановлен");
+        }
+
+        Map<Long, Integer> quantities = new HashMap<>();
+
+        for (CartLine line : lines) {
+            quantities.merge(line.getGoodId(), line.getQuantity(), Integer::sum);
+        }
+
+        InventoryReservation reservation = inventoryEngine.reserve(quantities, InventoryEngine.NO_EXPIRY);
+        Long userId = order.getUser().getId();
+        List<CartLine> removed = new ArrayList<>(lines.size());
+        OrderTicket ticket = null;
+
+        try {
+            order.setId(nextId());
+            ticket = new OrderTicket(order.getId(), userId, OrderTicket.Status.QUEUED);
+            tickets.put(ticket.getId(), ticket);
+            removeFromCart(userId, lines, removed);
+
+            if (!queue.offer(new PendingOrder(order, lines, reservation.getId(), ticket))) {
+                throw new TooManyRequestsException("Очередь заказов заполнена, попробуйте позже");
+            }
+        } catch (RuntimeException e) {
+            if (ticket != null) {
+                tickets.remove(ticket.getId());
+            }
+
+            returnToCart(userId, removed);
+            inventoryEngine.release(reservation.getId());
+            throw e;
+        }
+
+        return ticket;
+    }
+
+    /**
+     * Returns the status of the order of the user.
+     * Statuses of recent orders are kept in memory, an older order is looked up in the database.
+     *
+     * @param id     the unique code of the order.
+     * @param userId the unique code of the user.
+     * @return ticket of the order.
+     * @throws NotFoundException if the user has no such order.
+     */
+    public OrderTicket findById(Long id, Long userId) {
+        OrderTicket ticket = tickets.get(id);
+
+        if (ticket != null && ticket.userId().equals(userId)) {
+            return ticket;
+        }
+
+        if (ticket == null && orderRepository.existsByIdAndUserId(id, userId)) {
+            return new OrderTicket(id, userId, OrderTicket.Status.PLACED);
+        }
+
+        throw new NotFoundException("Заказ не найден");
+    }
+
+    /**
+     * Removes the statuses of orders finished earlier than the status lifetime.
+     * The @Scheduled annotation runs the method periodically.
+     */
+    @Scheduled(fixedDelayString = "${catalog.order-pipeline.cleanup-ms:60000}")
+    public void evictFinished() {
+        long finishedBefore = System.currentTimeMillis() - statusTtl;
+        OrderTicket ticket = finished.peek();
+
+        while (ticket != null && ticket.finishedAt() < finishedBefore) {
+            finished.poll();
+            tickets.remove(ticket.getId());
+            ticket = finished.peek();
+        }
+    }
+
+    /**
+     * Returns the next allocated unique code, allocates a new block when the codes run out.
+     */
+    private Long nextId() {
+        synchronized (ids) {
+            if (ids.isEmpty()) {
+                ids.addAll(jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, idBlockSize));
+            }
+
+            return ids.poll();
+        }
+    }
+
+    /**
+     * Writes the waiting orders in batches until the application stops and the queue is empty.
+     */
+    private void run() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order batch of {} failed", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Inserts the orders in one transaction, orders of a failed batch are written one by one.
+     */
+    private void write(List<PendingOrder> batch) {
+        try {
+            transactionTemplate.execute(status -> {
+                insert(batch);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+
+            log.warn("Order batch of {} failed, orders are written one by one", batch.size(), e);
+
+            for (PendingOrder pending : batch) {
+                write(Collections.singletonList(pending));
+            }
+            return;
+        }
+
+        for (PendingOrder pending : batch) {
+            place(pending);
+        }
+
+        log.debug("Orders written: {}", batch.size());
+    }
+
+    private void insert(List<PendingOrder> batch) {
+        List<Object[]> orders = new ArrayList<>(batch.size());
+        List<Object[]> goods = new ArrayList<>();
+
+        for (PendingOrder pending : batch) {
+            Order order = pending.order;
+            orders.add(new Object[]{order.getId(), order.getTotalPrice(), Date.valueOf(order.getDate()),
+                    order.getFirstName(), order.getLastName(), order.getCity(), order.getAddress(),
+                    order.getEmail(), order.getPhoneNumber(), order.getPostIndex(), order.getUser().getId()});
+
+            List<Good> goodList = order.getGoodList();
+
+            for (int i = 0; i < goodList.size(); i++) {
+                goods.add(new Object[]{order.getId(), goodList.get(i).getId(), i});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orders, INSERT_ORDER_TYPES);
+        jdbcTemplate.batchUpdate(INSERT_GOOD_SQL, goods);
+    }
+
+    /**
+     * Finishes the written order: takes the reserved goods and publishes the {@link OrderPlacedEvent}.
+     */
+    private void place(PendingOrder pending) {
+        Order order = pending.order;
+
+        try {
+            inventoryEngine.commit(pending.reservationId);
+        } catch (ConflictException e) {
+            log.error("Reservation of order {} was released before the order was written, "
+                    + "the stock is not taken", order.getId());
+        }
+
+        pending.ticket.place();
+        finished.add(pending.ticket);
+        eventPublisher.publishEvent(OrderPlacedEvent.of(order));
+    }
+
+    /**
+     * Releases the reserved goods of the order which was not written and returns them to the cart.
+     */
+    private void fail(PendingOrder pending, RuntimeException e) {
+        inventoryEngine.release(pending.reservationId);
+        returnToCart(pending.ticket.userId(), pending.lines);
+        pending.ticket.fail("Заказ не сохранен, попробуйте еще раз");
+        finished.add(pending.ticket);
+        log.error("Order {} failed", pending.order.getId(), e);
+    }
+
+    /**
+     * Removes the quantities from the cart and collects the removed lines, so they can be returned
+     * if a later line cannot be removed.
+     */
+    private void removeFromCart(Long userId, List<CartLine> lines, List<CartLine> removed) {
+        for (CartLine line : lines) {
+            cartService.remove(userId, line.getGoodId(), line.getQuantity());
+            removed.add(line);
+        }
+    }
+
+    /**
+     * Adds the quantities back to the cart, a line which cannot be added any more is skipped.
+     */
+    private void returnToCart(Long userId, List<CartLine> lines) {
+        for (CartLine line : lines) {
+            try {
+                cartService.add(userId, line.getGoodId(), line.getQuantity());
+            } catch (RuntimeException e) {
+                log.warn("Good {} was not returned to the cart of user {}: {}", line.getGoodId(), userId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Order waiting for the writer.
+     */
+    private static final class PendingOrder {
+        private final Order order;
+        private final List<CartLine> lines;
+        private final String reservationId;
+        private final OrderTicket ticket;
+
+        private PendingOrder(Order order, List<CartLine> lines, String reservationId, OrderTicket ticket) {
+            this.order = order;
+            this.lines = lines;
+            this.reservationId = reservationId;
+            this.ticket = ticket;
+        }
+    }
+}
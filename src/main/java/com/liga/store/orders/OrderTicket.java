@@ -0,0 +1,89 @@
+package com.liga.store.orders;
+
+import com.liga.store.domain.Order;
+
+/**
+ * Status of one accepted {@link Order}.
+ * The status is changed by the writer of the pipeline and read by the status requests.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see OrderPipeline
+ */
+public class OrderTicket {
+    /**
+     * Status of the order.
+     */
+    public enum Status {
+        QUEUED, PLACED, FAILED
+    }
+
+    /**
+     * The unique code of the order.
+     */
+    private final Long id;
+
+    /**
+     * The unique code of the user who placed the order.
+     */
+    private final Long userId;
+
+    /**
+     * Status of the order.
+     */
+    private volatile Status status;
+
+    /**
+     * Reason of the failure or {@code null}.
+     */
+    private volatile String failure;
+
+    /**
+     * Time in milliseconds the order was written or failed.
+     */
+    private volatile long finishedAt;
+
+    /**
+     * Constructor for initializing the ticket.
+     *
+     * @param id     the unique code of the order.
+     * @param userId the unique code of the user who placed the order.
+     * @param status status of the order.
+     */
+    OrderTicket(Long id, Long userId, Status status) {
+        this.id = id;
+        this.userId = userId;
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    Long userId() {
+        return userId;
+    }
+
+    long finishedAt() {
+        return finishedAt;
+    }
+
+    void place() {
+        finishedAt = System.currentTimeMillis();
+        status = Status.PLACED;
+    }
+
+    void fail(String reason) {
+        failure = reason;
+        finishedAt = System.currentTimeMillis();
+        status = Status.FAILED;
+    }
+}
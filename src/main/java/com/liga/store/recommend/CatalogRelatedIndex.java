@@ -0,0 +1,248 @@
+package com.liga.store.recommend;
+
+import com.liga.store.domain.projection.OrderItemView;
+import com.liga.store.events.OrderPlacedEvent;
+import com.liga.store.repos.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Index of goods frequently bought together.
+ * The index is a {@link CoPurchaseMatrix} built from all orders when the application starts,
+ * after that every placed order is added to it, so the related goods are read from memory.
+ * Weights are decayed periodically, an order loaded on start is weighted as if it had been decayed
+ * since the date of the order.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CoPurchaseMatrix
+ * @see OrderPlacedEvent
+ */
+@Slf4j
+@Component
+public class CatalogRelatedIndex {
+    /**
+     * Number of orders loaded from the database in one query.
+     */
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    /**
+     * Implementation of the {@link OrderRepository} interface
+     * for working with orders with a database.
+     */
+    private final OrderRepository orderRepository;
+
+    /**
+     * Orders placed while the index was loading.
+     */
+    private final Queue<OrderPlacedEvent> placedWhileLoading = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of kept related goods of one good.
+     */
+    @Value("${catalog.related.top-k:20}")
+    private int topSize;
+
+    /**
+     * Factor applied to all weights on every decay.
+     */
+    @Value("${catalog.related.decay-factor:0.9}")
+    private float decayFactor;
+
+    /**
+     * Weights below the minimum are dropped on decay.
+     */
+    @Value("${catalog.related.min-weight:0.05}")
+    private float minWeight;
+
+    /**
+     * Period of the decay in milliseconds.
+     */
+    @Value("${catalog.related.decay-ms:86400000}")
+    private long decayPeriod;
+
+    /**
+     * True while the index is loading, placed orders are collected and added after the load.
+     */
+    private volatile boolean loading = true;
+
+    /**
+     * The largest unique code of the loaded orders.
+     */
+    private volatile long loadedUpTo;
+
+    /**
+     * The matrix or {@code null} while the index is not loaded.
+     */
+    private volatile CoPurchaseMatrix matrix;
+
+    /**
+     * Constructor for initializing the main variables of the related goods index.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param orderRepository implementation of the {@link OrderRepository} interface
+     *                        for working with orders with a database.
+     */
+    @Autowired
+    public CatalogRelatedIndex(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * Loads all orders from the database in batches when the application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        loading = true;
+
+        CoPurchaseMatrix loaded = new CoPurchaseMatrix(topSize);
+        Long maxId = orderRepository.findMaxId();
+        long last = maxId == null ? 0 : maxId;
+        LocalDate today = LocalDate.now();
+        int orders = 0;
+
+        for (long after = 0; after < last; after += LOAD_BATCH_SIZE) {
+            List<OrderItemView> items = orderRepository.findItemsByOrderIdRange(after, Math.min(after + LOAD_BATCH_SIZE, last));
+            int start = 0;
+
+            for (int i = 1; i <= items.size(); i++) {
+                if (i == items.size() || !items.get(i).getOrderId().equals(items.get(start).getOrderId())) {
+                    add(loaded, items.subList(start, i), today);
+                    orders++;
+                    start = i;
+                }
+            }
+        }
+
+        matrix = loaded;
+        loadedUpTo = last;
+        log.info("Related goods index loaded: {} orders, {} goods", orders, loaded.size());
+
+        loading = false;
+        addPlacedWhileLoading();
+    }
+
+    /**
+     * Returns true if the index is loaded.
+     *
+     * @return true if the index is loaded.
+     */
+    public boolean isReady() {
+        return matrix != null;
+    }
+
+    /**
+     * Returns the goods most often bought together with the good.
+     *
+     * @param id    the unique code of the good.
+     * @param limit maximum number of goods.
+     * @return the unique codes of the goods, the most often bought first.
+     */
+    public List<Long> related(Long id, int limit) {
+        CoPurchaseMatrix current = matrix;
+        List<Long> related = new ArrayList<>();
+
+        if (current == null) {
+            return related;
+        }
+
+        for (long good : current.related(id, Math.min(limit, topSize))) {
+            related.add(good);
+        }
+
+        return related;
+    }
+
+    /**
+     * Adds the placed order to the index after the order is committed.
+     *
+     * @param event event with the unique codes of the ordered goods.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (loading) {
+            placedWhileLoading.add(event);
+
+            if (!loading) {
+                addPlacedWhileLoading();
+            }
+            return;
+        }
+
+        add(matrix, event);
+    }
+
+    /**
+     * Decays the weights of all pairs of goods.
+     * The @Scheduled annotation runs the method periodically.
+     */
+    @Scheduled(initialDelayString = "${catalog.related.decay-ms:86400000}",
+            fixedDelayString = "${catalog.related.decay-ms:86400000}")
+    public void decay() {
+        CoPurchaseMatrix current = matrix;
+
+        if (current != null) {
+            current.decay(decayFactor, minWeight);
+            log.debug("Related goods index decayed: {} goods", current.size());
+        }
+    }
+
+    /**
+     * Adds orders which were placed before the index was loaded and are not loaded from the database.
+     */
+    private void addPlacedWhileLoading() {
+        OrderPlacedEvent event = placedWhileLoading.poll();
+
+        while (event != null) {
+            if (event.getOrderId() == null || event.getOrderId() > loadedUpTo) {
+                add(matrix, event);
+            }
+
+            event = placedWhileLoading.poll();
+        }
+    }
+
+    private static void add(CoPurchaseMatrix target, OrderPlacedEvent event) {
+        long[] goods = new long[event.getGoodIds().size()];
+
+        for (int i = 0; i < goods.length; i++) {
+            goods[i] = event.getGoodIds().get(i);
+        }
+
+        target.add(goods, 1f);
+    }
+
+    /**
+     * Adds one loaded order with the weight decayed since the date of the order.
+     */
+    private void add(CoPurchaseMatrix target, List<OrderItemView> items, LocalDate today) {
+        long[] goods = new long[items.size()];
+
+        for (int i = 0; i < goods.length; i++) {
+            goods[i] = items.get(i).getGoodId();
+        }
+
+        LocalDate date = items.get(0).getDate();
+        long age = date == null ? 0 : Math.max(0, TimeUnit.DAYS.toMillis(ChronoUnit.DAYS.between(date, today)));
+        float weight = (float) Math.pow(decayFactor, (double) age / decayPeriod);
+
+        if (weight >= minWeight) {
+            target.add(goods, weight);
+        }
+    }
+}
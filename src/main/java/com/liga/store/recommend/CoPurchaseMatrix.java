@@ -0,0 +1,239 @@
+package com.liga.store.recommend;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sparse matrix of how often two goods were bought together.
+ * Every good has a row with the weights of the goods bought with it, the rows are hash maps
+ * with primitive keys. Every row keeps its top goods sorted by weight, the top is rebuilt when the row
+ * changes, so a read is a lookup and an array copy. Weights are decayed periodically, so old orders
+ * matter less than recent ones, and weights which fall below the minimum are dropped.
+ * Reads and updates are guarded by a read-write lock.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CatalogRelatedIndex
+ */
+public final class CoPurchaseMatrix {
+    /**
+     * Only the first goods of an order are counted, an order with n goods updates n * (n - 1) weights.
+     */
+    private static final int MAX_GOODS_PER_ORDER = 50;
+
+    private static final long[] NONE = new long[0];
+
+    /**
+     * Lock guarding the matrix.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Rows by the unique code of the good.
+     */
+    private final LongObjectHashMap<Row> rows = new LongObjectHashMap<>();
+
+    /**
+     * Number of kept goods in the top of a row.
+     */
+    private final int topSize;
+
+    /**
+     * Creates an empty matrix.
+     *
+     * @param topSize number of kept goods in the top of a row.
+     */
+    public CoPurchaseMatrix(int topSize) {
+        this.topSize = topSize;
+    }
+
+    /**
+     * Adds the weight to every pair of different goods of the order.
+     *
+     * @param goods  the unique codes of the ordered goods, repeated codes are counted once.
+     * @param weight weight of the order.
+     */
+    public void add(long[] goods, float weight) {
+        long[] distinct = Arrays.stream(goods).distinct().limit(MAX_GOODS_PER_ORDER).toArray();
+
+        if (distinct.length < 2) {
+            return;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            for (long good : distinct) {
+                Row row = rows.computeIfAbsent(good, key -> new Row());
+
+                for (long other : distinct) {
+                    if (other != good) {
+                        row.weights.addTo(other, weight);
+                    }
+                }
+
+                row.rebuildTop(topSize);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the goods most often bought with the good.
+     *
+     * @param good  the unique code of the good.
+     * @param limit maximum number of goods.
+     * @return the unique codes of the goods, the most often bought first.
+     */
+    public long[] related(long good, int limit) {
+        lock.readLock().lock();
+
+        try {
+            Row row = rows.get(good);
+
+            if (row == null) {
+                return NONE;
+            }
+
+            return Arrays.copyOf(row.top, Math.min(limit, row.top.length));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Multiplies all weights by the factor and drops the weights below the minimum.
+     *
+     * @param factor decay factor between 0 and 1.
+     * @param min    minimum kept weight.
+     */
+    public void decay(float factor, float min) {
+        lock.writeLock().lock();
+
+        try {
+            rows.forEachValue(row -> {
+                row.weights.scale(factor, min);
+                row.rebuildTop(topSize);
+            });
+            rows.retain(row -> row.weights.size() > 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of goods with at least one good bought with them.
+     *
+     * @return number of rows.
+     */
+    public int size() {
+        lock.readLock().lock();
+
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Weights of the goods bought with one good and its top.
+     */
+    private static final class Row {
+        private final LongFloatHashMap weights = new LongFloatHashMap();
+        private long[] top = NONE;
+
+        /**
+         * Selects the goods with the largest weights with a bounded min-heap,
+         * ties are broken by the smaller unique code.
+         */
+        private void rebuildTop(int size) {
+            long[] heapGoods = new long[Math.min(size, weights.size())];
+            float[] heapWeights = new float[heapGoods.length];
+            int[] count = {0};
+
+            weights.forEach((good, weight) -> {
+                if (heapGoods.length == 0) {
+                    return;
+                }
+
+                if (count[0] < heapGoods.length) {
+                    int i = count[0]++;
+                    heapGoods[i] = good;
+                    heapWeights[i] = weight;
+                    siftUp(heapGoods, heapWeights, i);
+                } else if (less(heapGoods[0], heapWeights[0], good, weight)) {
+                    heapGoods[0] = good;
+                    heapWeights[0] = weight;
+                    siftDown(heapGoods, heapWeights, count[0]);
+                }
+            });
+
+            long[] sorted = new long[count[0]];
+
+            for (int n = count[0]; n > 0; n--) {
+                sorted[n - 1] = heapGoods[0];
+                heapGoods[0] = heapGoods[n - 1];
+                heapWeights[0] = heapWeights[n - 1];
+                siftDown(heapGoods, heapWeights, n - 1);
+            }
+
+            top = sorted;
+        }
+
+        /**
+         * Returns true if the first good ranks lower than the second one.
+         */
+        private static boolean less(long good, float weight, long otherGood, float otherWeight) {
+            return weight < otherWeight || (weight == otherWeight && good > otherGood);
+        }
+
+        private static void siftUp(long[] goods, float[] weights, int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+
+                if (!less(goods[i], weights[i], goods[parent], weights[parent])) {
+                    return;
+                }
+
+                swap(goods, weights, i, parent);
+                i = parent;
+            }
+        }
+
+        private static void siftDown(long[] goods, float[] weights, int size) {
+            int i = 0;
+
+            while (true) {
+                int left = 2 * i + 1;
+                int smallest = i;
+
+                if (left < size && less(goods[left], weights[left], goods[smallest], weights[smallest])) {
+                    smallest = left;
+                }
+
+                if (left + 1 < size && less(goods[left + 1], weights[left + 1], goods[smallest], weights[smallest])) {
+                    smallest = left + 1;
+                }
+
+                if (smallest == i) {
+                    return;
+                }
+
+                swap(goods, weights, i, smallest);
+                i = smallest;
+            }
+        }
+
+        private static void swap(long[] goods, float[] weights, int i, int j) {
+            long good = goods[i];
+            goods[i] = goods[j];
+            goods[j] = good;
+            float weight = weights[i];
+            weights[i] = weights[j];
+            weights[j] = weight;
+        }
+    }
+}
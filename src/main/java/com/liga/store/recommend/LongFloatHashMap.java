@@ -0,0 +1,172 @@
+package com.liga.store.recommend;
+
+/**
+ * Hash map from {@code long} keys to {@code float} values without boxing.
+ * Open addressing with linear probing, the key 0 is kept outside of the table.
+ * The map is not thread safe.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CoPurchaseMatrix
+ */
+final class LongFloatHashMap {
+    /**
+     * Consumer of the entries of the map.
+     */
+    interface EntryConsumer {
+        void accept(long key, float value);
+    }
+
+    private static final int MIN_CAPACITY = 4;
+
+    private long[] keys;
+    private float[] values;
+    private int mask;
+    private int size;
+    private boolean hasZero;
+    private float zeroValue;
+
+    LongFloatHashMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size + (hasZero ? 1 : 0);
+    }
+
+    float get(long key) {
+        if (key == 0) {
+            return hasZero ? zeroValue : 0f;
+        }
+
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+
+            if (keys[slot] == 0) {
+                return 0f;
+            }
+        }
+    }
+
+    /**
+     * Adds the delta to the value of the key, a missing key has the value 0.
+     *
+     * @return the new value.
+     */
+    float addTo(long key, float delta) {
+        if (key == 0) {
+            hasZero = true;
+            zeroValue += delta;
+            return zeroValue;
+        }
+
+        int slot = slot(key);
+
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                return values[slot];
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = delta;
+
+        if (++size > (mask + 1) * 3 / 4) {
+            rehash((mask + 1) * 2);
+        }
+
+        return delta;
+    }
+
+    void forEach(EntryConsumer consumer) {
+        if (hasZero) {
+            consumer.accept(0, zeroValue);
+        }
+
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Multiplies all values by the factor and removes the entries whose values fall below the minimum.
+     */
+    void scale(float factor, float min) {
+        long[] oldKeys = keys;
+        float[] oldValues = values;
+        int kept = 0;
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0 && oldValues[slot] * factor >= min) {
+                kept++;
+            }
+        }
+
+        allocate(capacityFor(kept));
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            float value = oldValues[slot] * factor;
+
+            if (oldKeys[slot] != 0 && value >= min) {
+                insert(oldKeys[slot], value);
+            }
+        }
+
+        zeroValue *= factor;
+        hasZero = hasZero && zeroValue >= min;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        float[] oldValues = values;
+        allocate(capacity);
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0) {
+                insert(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    private void insert(long key, float value) {
+        int slot = slot(key);
+
+        while (keys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new float[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = MIN_CAPACITY;
+
+        while (capacity * 3 / 4 < entries + 1) {
+            capacity *= 2;
+        }
+
+        return capacity;
+    }
+}
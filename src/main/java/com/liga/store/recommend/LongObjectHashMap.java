@@ -0,0 +1,144 @@
+package com.liga.store.recommend;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+/**
+ * Hash map from {@code long} keys to objects without boxing the keys.
+ * Open addressing with linear probing, the key 0 is kept outside of the table.
+ * The map is not thread safe.
+ *
+ * @param <V> type of the values.
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CoPurchaseMatrix
+ */
+final class LongObjectHashMap<V> {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private V zeroValue;
+
+    LongObjectHashMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size + (zeroValue != null ? 1 : 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+
+            if (keys[slot] == 0) {
+                return null;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V computeIfAbsent(long key, LongFunction<V> factory) {
+        if (key == 0) {
+            if (zeroValue == null) {
+                zeroValue = factory.apply(key);
+            }
+            return zeroValue;
+        }
+
+        int slot = slot(key);
+
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        V value = factory.apply(key);
+        keys[slot] = key;
+        values[slot] = value;
+
+        if (++size > (mask + 1) * 3 / 4) {
+            rehash((mask + 1) * 2, any -> true);
+        }
+
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<V> consumer) {
+        if (zeroValue != null) {
+            consumer.accept(zeroValue);
+        }
+
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                consumer.accept((V) values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Removes the entries whose values do not match the predicate.
+     */
+    void retain(Predicate<V> predicate) {
+        if (zeroValue != null && !predicate.test(zeroValue)) {
+            zeroValue = null;
+        }
+
+        int capacity = MIN_CAPACITY;
+
+        while (capacity * 3 / 4 < size + 1) {
+            capacity *= 2;
+        }
+
+        rehash(capacity, predicate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rehash(int capacity, Predicate<V> predicate) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0 && predicate.test((V) oldValues[slot])) {
+                int target = slot(oldKeys[slot]);
+
+                while (keys[target] != 0) {
+                    target = (target + 1) & mask;
+                }
+
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -1,24 +1,27 @@
 package com.liga.store.repos;
 
 import com.liga.store.domain.Good;
+import com.liga.store.domain.projection.GoodDeltaView;
+import com.liga.store.domain.projection.GoodPriceView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * A repository for {@link Good} objects providing a set of JPA methods for working with the database.
- * Inherits interface {@link JpaRepository}.
+ * Inherits interface {@link JpaRepository} and the custom methods of {@link GoodRepositoryCustom}.
  *
  * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
  * @version 1.0
  * @see Good
  * @see JpaRepository
+ * @see GoodRepositoryCustom
  */
-public interface GoodRepository extends JpaRepository<Good, Long> {
+public interface GoodRepository extends JpaRepository<Good, Long>, GoodRepositoryCustom {
     /**
      * Returns list of goods from the database.
      * A {@link List} is a sublist of a list of objects.
@@ -27,6 +30,74 @@ public interface GoodRepository extends JpaRepository<Good, Long> {
      */
     List<Good> findAll();
 
+    /**
+     * Returns the page of goods from the database which unique code is greater than the value of the input parameter.
+     * Goods are sorted by the unique code in ascending order.
+     *
+     * @param id       the unique code of the last good of the previous page.
+     * @param pageable page size, the page number is always zero.
+     * @return list of {@link Good}.
+     */
+    List<Good> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Returns the page of goods from the database which unique code is less than the value of the input parameter.
+     * Goods are sorted by the unique code in descending order.
+     *
+     * @param id       the unique code of the last good of the previous page.
+     * @param pageable page size, the page number is always zero.
+     * @return list of {@link Good}.
+     */
+    List<Good> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+
+    /**
+     * Returns the page of goods from the database which are placed after the given price and unique code.
+     * Goods are sorted by price and unique code in ascending order.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @param price    price of the last good of the previous page.
+     * @param id       the unique code of the last good of the previous page.
+     * @param pageable page size, the page number is always zero.
+     * @return list of {@link Good}.
+     */
+    @Query("select g from Good g where g.price > ?1 or (g.price = ?1 and g.id > ?2) order by g.price asc, g.id asc")
+    List<Good> findPageByPriceAsc(Integer price, Long id, Pageable pageable);
+
+    /**
+     * Returns the page of goods from the database which are placed after the given price and unique code.
+     * Goods are sorted by price and unique code in descending order.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @param price    price of the last good of the previous page.
+     * @param id       the unique code of the last good of the previous page.
+     * @param pageable page size, the page number is always zero.
+     * @return list of {@link Good}.
+     */
+    @Query("select g from Good g where g.price < ?1 or (g.price = ?1 and g.id < ?2) order by g.price desc, g.id desc")
+    List<Good> findPageByPriceDesc(Integer price, Long id, Pageable pageable);
+
+    /**
+     * Returns the page of unique codes and prices of goods which unique code is greater than
+     * the value of the input parameter. Only two columns are selected from the database.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @param id       the unique code of the last good of the previous page.
+     * @param pageable page size, the page number is always zero.
+     * @return list of {@link GoodPriceView}.
+     */
+    @Query("select g.id as id, g.price as price from Good g where g.id > ?1 order by g.id asc")
+    List<GoodPriceView> findPricesAfter(Long id, Pageable pageable);
+
+    /**
+     * Returns the unique codes and prices of the goods.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @param ids the unique codes of the goods.
+     * @return list of {@link GoodPriceView}, goods which do not exist are missing.
+     */
+    @Query("select g.id as id, g.price as price from Good g where g.id in ?1")
+    List<GoodPriceView> findPricesByIdIn(Collection<Long> ids);
+
     /**
      * Returns list of goods from the database in which the price is in the range between of starting price and ending price.
      * A {@link List} is a sublist of a list of objects.
@@ -54,11 +125,11 @@ public interface GoodRepository extends JpaRepository<Good, Long> {
      * with the value of the input parameter.
      * A {@link List} is a sublist of a list of objects.
      *
-     * @param producer      good manufacturer to return.
-     * @param goodTitle  good title to return.
+     * @param producer good manufacturer to return.
+     * @param title    good title to return.
      * @return list of {@link Good}.
      */
-    List<Good> findByGoodOrGoodTitle(String producer, String goodTitle);
+    List<Good> findByProducerOrTitle(String producer, String title);
 
 
 
@@ -70,7 +141,7 @@ public interface GoodRepository extends JpaRepository<Good, Long> {
      * @param producer good manufacturers to return.
      * @return list of {@link Good}.
      */
-    List<Good> findByGoodIn (List<String> producer);
+    List<Good> findByProducerIn(List<String> producer);
 
     /**
      * Returns minimum price of good from the database.
@@ -91,25 +162,13 @@ public interface GoodRepository extends JpaRepository<Good, Long> {
     BigDecimal maxGoodPrice();
 
     /**
-     * Save updated good to the database.
-     * The @Modifying annotation declaring manipulating queries.
-     * The @Transactional annotation - before the execution of the method marked with this annotation,
-     * a transaction starts, after the method is executed, the transaction is committed,
-     * and when a RuntimeException is thrown, it is rolled back.
+     * Returns the prices, quantities and versions of the goods.
      * The @Query annotation to declare finder queries directly on repository methods.
      *
-     * @param goodTitle          good title to update.
-     * @param producer              good manufacturer to update.
-     * @param year                  the year the good was released to update.
-     * @param country               manufacturer country to update.
-     * @param price                 good price to update.
-     * @param type                  type of fragrance to update.
-     * @param id                    the unique code of the good to update.
+     * @param ids the unique codes of the goods.
+     * @return list of {@link GoodDeltaView}.
      */
-    @Modifying
-    @Transactional
-    @Query("update Good p set p.perfumeTitle = ?1, p.perfumer = ?2, p.year = ?3, p.country = ?4, " +
-            "p.perfumeGender = ?5, p.fragranceTopNotes = ?6, p.fragranceMiddleNotes = ?7, p.fragranceBaseNotes = ?8," +
-            "p.description = ?9, p.filename = ?10, p.price = ?11, p.volume = ?12, p.type = ?13  where p.id = ?14")
-    void saveProductInfoById(String goodTitle, String producer, Integer year, String country, Integer price, String type, Long id);
+    @Query("select g.id as id, g.price as price, g.quantity as quantity, g.version as version "
+            + "from Good g where g.id in ?1")
+    List<GoodDeltaView> findDeltaViewsByIdIn(Collection<Long> ids);
 }
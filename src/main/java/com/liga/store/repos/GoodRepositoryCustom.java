@@ -0,0 +1,40 @@
+package com.liga.store.repos;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.dto.GoodCursor;
+import com.liga.store.domain.dto.GoodUpdate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom methods of the {@link GoodRepository} which cannot be derived from the method names.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see GoodRepositoryCustomImpl
+ */
+public interface GoodRepositoryCustom {
+    /**
+     * Updates the changed fields of the goods with one UPDATE statement.
+     * Only the columns of the fields which are not {@code null} are set.
+     *
+     * @param ids    the unique codes of the goods to update.
+     * @param update changed fields.
+     * @return number of updated goods.
+     */
+    int updateFields(Collection<Long> ids, GoodUpdate update);
+
+    /**
+     * Returns goods placed after the cursor in the sort order of the cursor.
+     * Only the given columns are selected, the other fields of the returned goods are {@code null}.
+     * The returned goods are not managed by the persistence context.
+     *
+     * @param cursor  position of the last good of the previous page.
+     * @param columns names of the selected fields, must include the keys of the sort order.
+     * @param limit   maximum number of goods.
+     * @return list of {@link Good}.
+     */
+    List<Good> findPage(GoodCursor cursor, Collection<String> columns, int limit);
+}
@@ -0,0 +1,170 @@
+package com.liga.store.repos;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.dto.GoodCursor;
+import com.liga.store.domain.dto.GoodUpdate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Implementation of the {@link GoodRepositoryCustom} methods with the JPA Criteria API.
+ * Bulk updates bypass the persistence context, so they increase the version of the goods themselves.
+ * Spring Data finds the class by the name and adds its methods to the {@link GoodRepository}.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see GoodRepositoryCustom
+ */
+public class GoodRepositoryCustomImpl implements GoodRepositoryCustom {
+    /**
+     * Setters of the fields which can be selected by {@link #findPage}.
+     */
+    private static final Map<String, BiConsumer<Good, Object>> SETTERS = new HashMap<>();
+
+    static {
+        SETTERS.put("id", (good, value) -> good.setId((Long) value));
+        SETTERS.put("title", (good, value) -> good.setTitle((String) value));
+        SETTERS.put("producer", (good, value) -> good.setProducer((String) value));
+        SETTERS.put("year", (good, value) -> good.setYear((Integer) value));
+        SETTERS.put("country", (good, value) -> good.setCountry((String) value));
+        SETTERS.put("description", (good, value) -> good.setDescription((String) value));
+        SETTERS.put("price", (good, value) -> good.setPrice((Integer) value));
+        SETTERS.put("quantity", (good, value) -> good.setQuantity((Integer) value));
+        SETTERS.put("type", (good, value) -> good.setType((String) value));
+        SETTERS.put("version", (good, value) -> good.setVersion((Long) value));
+        SETTERS.put("lastModified", (good, value) -> good.setLastModified((LocalDateTime) value));
+    }
+
+    /**
+     * Entity manager of the current transaction.
+     * The @PersistenceContext annotation injects the shared entity manager.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Updates the changed fields of the goods with one UPDATE statement.
+     * The @Transactional annotation - before the execution of the method marked with this annotation,
+     * a transaction starts, after the method is executed, the transaction is committed,
+     * and when a RuntimeException is thrown, it is rolled back.
+     *
+     * @param ids    the unique codes of the goods to update.
+     * @param update changed fields.
+     * @return number of updated goods.
+     */
+    @Override
+    @Transactional
+    public int updateFields(Collection<Long> ids, GoodUpdate update) {
+        if (ids.isEmpty() || update.isEmpty()) {
+            return 0;
+        }
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Good> query = builder.createCriteriaUpdate(Good.class);
+        Root<Good> good = query.from(Good.class);
+
+        set(query, good, "title", update.getTitle());
+        set(query, good, "producer", update.getProducer());
+        set(query, good, "year", update.getYear());
+        set(query, good, "country", update.getCountry());
+        set(query, good, "description", update.getDescription());
+        set(query, good, "price", update.getPrice());
+        set(query, good, "quantity", update.getQuantity());
+        set(query, good, "type", update.getType());
+        query.set(good.<Long>get("version"), builder.sum(good.<Long>get("version"), 1L));
+        query.set(good.<LocalDateTime>get("lastModified"), LocalDateTime.now());
+        query.where(good.get("id").in(ids));
+
+        return entityManager.createQuery(query).executeUpdate();
+    }
+
+    private static <T> void set(CriteriaUpdate<Good> query, Root<Good> good, String field, T value) {
+        if (value != null) {
+            query.set(good.<T>get(field), value);
+        }
+    }
+
+    /**
+     * Returns goods placed after the cursor in the sort order of the cursor.
+     * Only the given columns are selected with one tuple query.
+     *
+     * @param cursor  position of the last good of the previous page.
+     * @param columns names of the selected fields, must include the keys of the sort order.
+     * @param limit   maximum number of goods.
+     * @return list of {@link Good}.
+     */
+    @Override
+    public List<Good> findPage(GoodCursor cursor, Collection<String> columns, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Good> good = query.from(Good.class);
+        List<Selection<?>> selections = new ArrayList<>(columns.size());
+
+        for (String column : columns) {
+            if (!SETTERS.containsKey(column)) {
+                throw new IllegalArgumentException("Unknown column " + column);
+            }
+
+            selections.add(good.get(column).alias(column));
+        }
+
+        Path<Long> id = good.get("id");
+        Path<Integer> price = good.get("price");
+        Predicate after;
+
+        switch (cursor.getSort()) {
+            case ID_DESC:
+                after = builder.lessThan(id, cursor.getId());
+                query.orderBy(builder.desc(id));
+                break;
+            case PRICE_ASC:
+                after = builder.or(builder.greaterThan(price, cursor.getPrice()),
+                        builder.and(builder.equal(price, cursor.getPrice()), builder.greaterThan(id, cursor.getId())));
+                query.orderBy(builder.asc(price), builder.asc(id));
+                break;
+            case PRICE_DESC:
+                after = builder.or(builder.lessThan(price, cursor.getPrice()),
+                        builder.and(builder.equal(price, cursor.getPrice()), builder.lessThan(id, cursor.getId())));
+                query.orderBy(builder.desc(price), builder.desc(id));
+                break;
+            default:
+                after = builder.greaterThan(id, cursor.getId());
+                query.orderBy(builder.asc(id));
+                break;
+        }
+
+        query.multiselect(selections).where(after);
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        List<Good> goods = new ArrayList<>(rows.size());
+
+        for (Tuple row : rows) {
+            Good value = new Good();
+
+            for (String column : columns) {
+                SETTERS.get(column).accept(value, row.get(column));
+            }
+
+            goods.add(value);
+        }
+
+        return goods;
+    }
+}
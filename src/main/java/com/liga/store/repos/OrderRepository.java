@@ -2,19 +2,35 @@ package com.liga.store.repos;
 
 import com.liga.store.domain.Order;
 import com.liga.store.domain.User;
+import com.liga.store.domain.projection.GoodPopularityView;
+import com.liga.store.domain.projection.GoodSalesView;
+import com.liga.store.domain.projection.OrderItemView;
+import com.liga.store.domain.projection.OrderLineView;
+import com.liga.store.domain.projection.OrderView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * A repository for {@link Order} objects providing a set of JPA methods for working with the database.
- * Inherits interface {@link JpaRepository}.
+ * Inherits interface {@link JpaRepository} and the custom methods of {@link OrderRepositoryCustom}.
  *
  * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
  * @version 1.0
  * @see Order
  */
-public interface OrderRepository extends JpaRepository<Order, Long>  {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+    /**
+     * Selected columns of the {@link OrderView} projection.
+     */
+    String ORDER_VIEW_COLUMNS = "o.id as id, o.totalPrice as totalPrice, o.date as date, "
+            + "o.firstName as firstName, o.lastName as lastName, o.city as city, o.address as address, "
+            + "o.email as email, o.phoneNumber as phoneNumber, o.postIndex as postIndex";
+
     /**
      * Returns list of orders authenticated user.
      *
@@ -22,4 +38,104 @@ public interface OrderRepository extends JpaRepository<Order, Long>  {
      * @return An object of type {@link List} is a list of orders of authenticated user.
      */
     List<Order> findOrderByUser(User user);
-}
\ No newline at end of file
+
+    /**
+     * Returns true if the order with the unique code belongs to the user.
+     *
+     * @param id     the unique code of the order.
+     * @param userId the unique code of the user.
+     * @return true if the order exists and belongs to the user.
+     */
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Returns for every ordered good the number of times it was ordered.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @return list of {@link GoodPopularityView}.
+     */
+    @Query("select g.id as id, count(g) as orders from Order o join o.goodList g group by g.id")
+    List<GoodPopularityView> countOrdersByGood();
+
+    /**
+     * Returns for every good and day since the date the number of times the good was ordered that day.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @param since the first date, inclusive.
+     * @return list of {@link GoodSalesView}.
+     */
+    @Query("select g.id as goodId, o.date as date, count(g) as orders "
+            + "from Order o join o.goodList g where o.date >= ?1 group by g.id, o.date")
+    List<GoodSalesView> countSalesByGoodAndDateSince(LocalDate since);
+
+    /**
+     * Returns projections of the orders of the user.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @param userId the unique code of the user.
+     * @return list of {@link OrderView}.
+     */
+    @Query("select " + ORDER_VIEW_COLUMNS + " from Order o where o.user.id = ?1 order by o.id")
+    List<OrderView> findViewsByUserId(Long userId);
+
+    /**
+     * Returns projections of all orders.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @return list of {@link OrderView}.
+     */
+    @Query("select " + ORDER_VIEW_COLUMNS + " from Order o order by o.id")
+    List<OrderView> findAllViews();
+
+    /**
+     * Returns projections of the latest orders.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @param pageable number of orders.
+     * @return list of {@link OrderView}, the latest first.
+     */
+    @Query("select " + ORDER_VIEW_COLUMNS + " from Order o order by o.id desc")
+    List<OrderView> findLatestViews(Pageable pageable);
+
+    /**
+     * Returns the goods of the orders.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @param orderIds the unique codes of the orders.
+     * @return list of {@link OrderLineView} in the order of the goods in the orders.
+     */
+    @Query("select o.id as orderId, g.id as goodId, g.title as title, g.producer as producer, g.price as price "
+            + "from Order o join o.goodList g where o.id in ?1 order by o.id, index(g)")
+    List<OrderLineView> findLinesByOrderIds(Collection<Long> orderIds);
+
+    /**
+     * Returns the goods of all orders.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @return list of {@link OrderLineView} in the order of the goods in the orders.
+     */
+    @Query("select o.id as orderId, g.id as goodId, g.title as title, g.producer as producer, g.price as price "
+            + "from Order o join o.goodList g order by o.id, index(g)")
+    List<OrderLineView> findAllLines();
+
+    /**
+     * Returns the largest unique code of the orders.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @return the largest unique code or {@code null} if there are no orders.
+     */
+    @Query("select max(o.id) from Order o")
+    Long findMaxId();
+
+    /**
+     * Returns the ordered goods of the orders with the unique codes in the range.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @param after the unique code before the range, exclusive.
+     * @param last  the last unique code of the range, inclusive.
+     * @return list of {@link OrderItemView} ordered by the unique code of the order.
+     */
+    @Query("select o.id as orderId, o.date as date, g.id as goodId "
+            + "from Order o join o.goodList g where o.id > ?1 and o.id <= ?2 order by o.id")
+    List<OrderItemView> findItemsByOrderIdRange(Long after, Long last);
+}
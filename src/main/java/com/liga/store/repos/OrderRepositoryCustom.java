@@ -0,0 +1,27 @@
+package com.liga.store.repos;
+
+import com.liga.store.domain.Order;
+import com.liga.store.domain.projection.OrderView;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom methods of the {@link OrderRepository} which cannot be derived from the method names.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Order
+ * @see OrderRepositoryCustomImpl
+ */
+public interface OrderRepositoryCustom {
+    /**
+     * Returns projections of the orders with only the given columns selected.
+     * Methods of the columns which are not selected return {@code null}.
+     *
+     * @param userId  the unique code of the user or {@code null} for the orders of all users.
+     * @param columns names of the selected fields of {@link OrderView}.
+     * @return list of {@link OrderView} ordered by the unique code.
+     */
+    List<OrderView> findViews(Long userId, Collection<String> columns);
+}
@@ -0,0 +1,135 @@
+package com.liga.store.repos;
+
+import com.liga.store.domain.Order;
+import com.liga.store.domain.projection.OrderView;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the {@link OrderRepositoryCustom} methods with the JPA Criteria API.
+ * Spring Data finds the class by the name and adds its methods to the {@link OrderRepository}.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Order
+ * @see OrderRepositoryCustom
+ */
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+    /**
+     * Entity manager of the current transaction.
+     * The @PersistenceContext annotation injects the shared entity manager.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Returns projections of the orders with only the given columns selected.
+     *
+     * @param userId  the unique code of the user or {@code null} for the orders of all users.
+     * @param columns names of the selected fields of {@link OrderView}.
+     * @return list of {@link OrderView} ordered by the unique code.
+     */
+    @Override
+    public List<OrderView> findViews(Long userId, Collection<String> columns) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Order> order = query.from(Order.class);
+        List<Selection<?>> selections = new ArrayList<>(columns.size());
+
+        for (String column : columns) {
+            selections.add(order.get(column).alias(column));
+        }
+
+        query.multiselect(selections).orderBy(builder.asc(order.get("id")));
+
+        if (userId != null) {
+            query.where(builder.equal(order.get("user").get("id"), userId));
+        }
+
+        Set<String> selected = new HashSet<>(columns);
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> new TupleOrderView(row, selected))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Order projection backed by a row of a tuple query.
+     */
+    private static final class TupleOrderView implements OrderView {
+        private final Tuple row;
+        private final Set<String> selected;
+
+        private TupleOrderView(Tuple row, Set<String> selected) {
+            this.row = row;
+            this.selected = selected;
+        }
+
+        private <T> T get(String column, Class<T> type) {
+            return selected.contains(column) ? row.get(column, type) : null;
+        }
+
+        @Override
+        public Long getId() {
+            return get("id", Long.class);
+        }
+
+        @Override
+        public Double getTotalPrice() {
+            return get("totalPrice", Double.class);
+        }
+
+        @Override
+        public LocalDate getDate() {
+            return get("date", LocalDate.class);
+        }
+
+        @Override
+        public String getFirstName() {
+            return get("firstName", String.class);
+        }
+
+        @Override
+        public String getLastName() {
+            return get("lastName", String.class);
+        }
+
+        @Override
+        public String getCity() {
+            return get("city", String.class);
+        }
+
+        @Override
+        public String getAddress() {
+            return get("address", String.class);
+        }
+
+        @Override
+        public String getEmail() {
+            return get("email", String.class);
+        }
+
+        @Override
+        public String getPhoneNumber() {
+            return get("phoneNumber", String.class);
+        }
+
+        @Override
+        public Integer getPostIndex() {
+            return get("postIndex", Integer.class);
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.liga.store.repos;
 
 import com.liga.store.domain.User;
+import com.liga.store.domain.projection.UserRoleView;
+import com.liga.store.domain.projection.UserView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 /**
  * A repository for {@link User} objects providing a set of JPA methods for working with the database.
@@ -28,4 +33,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return The {@link User} class object.
      */
     User findByActivationCode(String code);
+
+    /**
+     * Returns projections of all users without the passwords and the carts.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @return list of {@link UserView}.
+     */
+    @Query("select u.id as id, u.username as username, u.email as email, u.active as active from User u order by u.id")
+    List<UserView> findAllViews();
+
+    /**
+     * Returns the roles of all users.
+     * The @Query annotation to declare finder queries directly on repository methods.
+     *
+     * @return list of {@link UserRoleView}.
+     */
+    @Query("select u.id as userId, r as role from User u join u.roles r")
+    List<UserRoleView> findAllRoles();
 }
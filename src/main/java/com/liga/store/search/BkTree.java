@@ -0,0 +1,228 @@
+package com.liga.store.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Burkhard-Keller tree of words by the Levenshtein distance.
+ * Children of a node are indexed by their distance to the node, so the triangle inequality
+ * lets a search visit only the children within the searched distance of the query.
+ * Removed words stay in the tree as dead nodes until the tree is rebuilt.
+ * The tree is not thread-safe.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see FuzzyIndex
+ */
+final class BkTree {
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    /**
+     * Root of the tree or {@code null} if the tree is empty.
+     */
+    private Node root;
+
+    /**
+     * Number of live words.
+     */
+    private int live;
+
+    /**
+     * Number of removed words still kept in the tree.
+     */
+    private int dead;
+
+    /**
+     * Adds the word or revives the removed word.
+     *
+     * @param word word to add.
+     */
+    void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            live++;
+            return;
+        }
+
+        Node node = root;
+
+        while (true) {
+            int distance = distance(word, node.word);
+
+            if (distance == 0) {
+                if (!node.live) {
+                    node.live = true;
+                    live++;
+                    dead--;
+                }
+                return;
+            }
+
+            if (distance >= node.children.length) {
+                node.children = Arrays.copyOf(node.children, distance + 1);
+            }
+
+            if (node.children[distance] == null) {
+                node.children[distance] = new Node(word);
+                live++;
+                return;
+            }
+
+            node = node.children[distance];
+        }
+    }
+
+    /**
+     * Marks the word as removed.
+     *
+     * @param word word to remove.
+     */
+    void remove(String word) {
+        Node node = root;
+
+        while (node != null) {
+            int distance = distance(word, node.word);
+
+            if (distance == 0) {
+                if (node.live) {
+                    node.live = false;
+                    live--;
+                    dead++;
+                }
+                return;
+            }
+
+            node = distance < node.children.length ? node.children[distance] : null;
+        }
+    }
+
+    /**
+     * Returns live words within the distance of the query.
+     *
+     * @param query       searched word.
+     * @param maxDistance the maximum Levenshtein distance.
+     * @return found words with their distances.
+     */
+    List<Match> search(String query, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+
+        if (root == null) {
+            return matches;
+        }
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int distance = distance(query, node.word);
+
+            if (distance <= maxDistance && node.live) {
+                matches.add(new Match(node.word, distance));
+            }
+
+            int to = Math.min(distance + maxDistance, node.children.length - 1);
+
+            for (int i = Math.max(1, distance - maxDistance); i <= to; i++) {
+                if (node.children[i] != null) {
+                    stack.push(node.children[i]);
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Returns number of live words.
+     *
+     * @return number of live words.
+     */
+    int size() {
+        return live;
+    }
+
+    /**
+     * Returns number of removed words kept in the tree.
+     *
+     * @return number of removed words.
+     */
+    int deadSize() {
+        return dead;
+    }
+
+    /**
+     * Returns the Levenshtein distance between the words.
+     *
+     * @param first  first word.
+     * @param second second word.
+     * @return minimum number of inserted, deleted and replaced characters.
+     */
+    static int distance(String first, String second) {
+        if (first.length() < second.length()) {
+            String swap = first;
+            first = second;
+            second = swap;
+        }
+
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            char c = first.charAt(i - 1);
+
+            for (int j = 1; j <= second.length(); j++) {
+                int replace = previous[j - 1] + (c == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(replace, Math.min(previous[j], current[j - 1]) + 1);
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[second.length()];
+    }
+
+    /**
+     * Word found by the search.
+     */
+    static final class Match {
+        private final String word;
+        private final int distance;
+
+        private Match(String word, int distance) {
+            this.word = word;
+            this.distance = distance;
+        }
+
+        String getWord() {
+            return word;
+        }
+
+        int getDistance() {
+            return distance;
+        }
+    }
+
+    /**
+     * Node of the tree.
+     */
+    private static final class Node {
+        private final String word;
+        private Node[] children = NO_CHILDREN;
+        private boolean live = true;
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+}
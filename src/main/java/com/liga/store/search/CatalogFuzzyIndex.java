@@ -0,0 +1,132 @@
+package com.liga.store.search;
+
+import com.liga.store.catalog.CatalogLoader;
+import com.liga.store.domain.Good;
+import com.liga.store.events.GoodChangedEvent;
+import com.liga.store.repos.GoodRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Typo-tolerant search index over the words of the titles and manufacturers of all goods.
+ * The index is built when the application starts and after that changed goods are reindexed in batches.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see FuzzyIndex
+ * @see CatalogLoader
+ * @see GoodChangedEvent
+ */
+@Slf4j
+@Component
+public class CatalogFuzzyIndex extends CatalogLoader<Good, FuzzyIndex> {
+    /**
+     * Implementation of the {@link GoodRepository} interface
+     * for working with goods with a database.
+     */
+    private final GoodRepository goodRepository;
+
+    /**
+     * The maximum Levenshtein distance between a word of the query and a word of a good.
+     */
+    @Value("${search.fuzzy.max-distance:2}")
+    private int maxDistance;
+
+    /**
+     * The index or {@code null} while the index is not loaded.
+     */
+    private volatile FuzzyIndex index;
+
+    /**
+     * Constructor for initializing the main variables of the fuzzy search index.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodRepository implementation of the {@link GoodRepository} interface
+     *                       for working with goods with a database.
+     */
+    @Autowired
+    public CatalogFuzzyIndex(GoodRepository goodRepository) {
+        this.goodRepository = goodRepository;
+    }
+
+    /**
+     * Returns true if the index is loaded.
+     *
+     * @return true if the index is loaded.
+     */
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * Returns goods whose title or manufacturer words are close to the words of the query.
+     *
+     * @param query text entered by the user.
+     * @param limit maximum number of goods.
+     * @return the unique codes of the goods, the best first.
+     */
+    public List<Long> search(String query, int limit) {
+        return index.search(Tokenizer.words(query), maxDistance, limit);
+    }
+
+    @Override
+    protected FuzzyIndex startLoad() {
+        return new FuzzyIndex();
+    }
+
+    @Override
+    protected List<Good> findAfter(Long lastId, Pageable pageable) {
+        return goodRepository.findByIdGreaterThanOrderByIdAsc(lastId, pageable);
+    }
+
+    @Override
+    protected List<Good> findAll(List<Long> ids) {
+        return goodRepository.findAllById(ids);
+    }
+
+    @Override
+    protected Long idOf(Good good) {
+        return good.getId();
+    }
+
+    @Override
+    protected void add(FuzzyIndex loaded, Good good) {
+        loaded.put(good.getId(), words(good));
+    }
+
+    @Override
+    protected void publish(FuzzyIndex loaded) {
+        index = loaded;
+        log.info("Fuzzy search index loaded: {} goods, {} words", loaded.size(), loaded.vocabularySize());
+    }
+
+    @Override
+    protected void put(Good good) {
+        index.put(good.getId(), words(good));
+    }
+
+    @Override
+    protected void remove(Long id) {
+        index.remove(id);
+    }
+
+    /**
+     * Returns words of the title and the manufacturer of the good.
+     *
+     * @param good good to index.
+     * @return words.
+     */
+    private static List<String> words(Good good) {
+        List<String> words = new ArrayList<>(Tokenizer.words(good.getTitle()));
+        words.addAll(Tokenizer.words(good.getProducer()));
+
+        return words;
+    }
+}
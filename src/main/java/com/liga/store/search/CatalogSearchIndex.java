@@ -0,0 +1,158 @@
+package com.liga.store.search;
+
+import com.liga.store.catalog.CatalogLoader;
+import com.liga.store.domain.Good;
+import com.liga.store.events.GoodChangedEvent;
+import com.liga.store.repos.GoodRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-text search index over the text fields of all goods.
+ * Title, manufacturer, description, country and type are tokenized by the {@link Tokenizer},
+ * terms of the title and the manufacturer weigh more than terms of the other fields.
+ * The index is built when the application starts and after that changed goods are reindexed in batches.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see InvertedIndex
+ * @see CatalogLoader
+ * @see GoodChangedEvent
+ */
+@Slf4j
+@Component
+public class CatalogSearchIndex extends CatalogLoader<Good, InvertedIndex.Builder> {
+    /**
+     * Weight of the title terms.
+     */
+    private static final int TITLE_WEIGHT = 3;
+
+    /**
+     * Weight of the manufacturer terms.
+     */
+    private static final int PRODUCER_WEIGHT = 2;
+
+    /**
+     * Weight of the type terms.
+     */
+    private static final int TYPE_WEIGHT = 2;
+
+    /**
+     * Weight of the country and description terms.
+     */
+    private static final int DEFAULT_WEIGHT = 1;
+
+    /**
+     * Implementation of the {@link GoodRepository} interface
+     * for working with goods with a database.
+     */
+    private final GoodRepository goodRepository;
+
+    /**
+     * The index or {@code null} while the index is not loaded.
+     */
+    private volatile InvertedIndex index;
+
+    /**
+     * Constructor for initializing the main variables of the search index.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodRepository implementation of the {@link GoodRepository} interface
+     *                       for working with goods with a database.
+     */
+    @Autowired
+    public CatalogSearchIndex(GoodRepository goodRepository) {
+        this.goodRepository = goodRepository;
+    }
+
+    /**
+     * Returns true if the index is loaded.
+     *
+     * @return true if the index is loaded.
+     */
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * Returns the most relevant goods for the query.
+     *
+     * @param query text entered by the user.
+     * @param limit maximum number of goods.
+     * @return list of {@link SearchHit} ordered by relevance.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        return index.search(Tokenizer.terms(query), limit);
+    }
+
+    @Override
+    protected InvertedIndex.Builder startLoad() {
+        return new InvertedIndex.Builder();
+    }
+
+    @Override
+    protected List<Good> findAfter(Long lastId, Pageable pageable) {
+        return goodRepository.findByIdGreaterThanOrderByIdAsc(lastId, pageable);
+    }
+
+    @Override
+    protected List<Good> findAll(List<Long> ids) {
+        return goodRepository.findAllById(ids);
+    }
+
+    @Override
+    protected Long idOf(Good good) {
+        return good.getId();
+    }
+
+    @Override
+    protected void add(InvertedIndex.Builder builder, Good good) {
+        builder.add(good.getId(), terms(good));
+    }
+
+    @Override
+    protected void publish(InvertedIndex.Builder builder) {
+        index = builder.build();
+        log.info("Search index loaded: {} goods", index.size());
+    }
+
+    @Override
+    protected void put(Good good) {
+        index.put(good.getId(), terms(good));
+    }
+
+    @Override
+    protected void remove(Long id) {
+        index.remove(id);
+    }
+
+    /**
+     * Returns weighted term frequencies of the good.
+     *
+     * @param good good to index.
+     * @return term frequencies.
+     */
+    private static Map<String, Integer> terms(Good good) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, good.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, good.getProducer(), PRODUCER_WEIGHT);
+        addTerms(terms, good.getType(), TYPE_WEIGHT);
+        addTerms(terms, good.getCountry(), DEFAULT_WEIGHT);
+        addTerms(terms, good.getDescription(), DEFAULT_WEIGHT);
+
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String term : Tokenizer.terms(text)) {
+            terms.merge(term, weight, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.liga.store.search;
+
+import com.liga.store.catalog.CatalogLoader;
+import com.liga.store.domain.Good;
+import com.liga.store.domain.projection.GoodPopularityView;
+import com.liga.store.events.GoodChangedEvent;
+import com.liga.store.events.OrderPlacedEvent;
+import com.liga.store.repos.GoodRepository;
+import com.liga.store.repos.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix autocomplete over the titles and manufacturers of all goods.
+ * Suggestions are kept in a {@link SuggestionTrie} and ranked by popularity: the number of times
+ * goods with this title or manufacturer were ordered.
+ * The index is built when the application starts, after that changed goods are reindexed in batches
+ * and every placed order raises the popularity of its goods.
+ * The @Component annotation says that the class is a bean and must be loaded when the application starts.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see SuggestionTrie
+ * @see CatalogLoader
+ * @see GoodChangedEvent
+ * @see OrderPlacedEvent
+ */
+@Slf4j
+@Component
+public class CatalogSuggestIndex extends CatalogLoader<Good, SuggestionTrie> {
+    /**
+     * Implementation of the {@link GoodRepository} interface
+     * for working with goods with a database.
+     */
+    private final GoodRepository goodRepository;
+
+    /**
+     * Implementation of the {@link OrderRepository} interface
+     * for working with orders with a database.
+     */
+    private final OrderRepository orderRepository;
+
+    /**
+     * Indexed suggestions of goods by the unique code of the good.
+     */
+    private final Map<Long, GoodSuggestions> indexed = new HashMap<>();
+
+    /**
+     * Number of times goods were ordered by the unique code of the good.
+     */
+    private final Map<Long, Long> popularity = new HashMap<>();
+
+    /**
+     * Maximum number of suggestions returned for one prefix.
+     */
+    @Value("${search.suggest.max-results:10}")
+    private int maxResults;
+
+    /**
+     * The tree or {@code null} while the index is not loaded.
+     */
+    private volatile SuggestionTrie trie;
+
+    /**
+     * Constructor for initializing the main variables of the autocomplete index.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodRepository  implementation of the {@link GoodRepository} interface
+     *                        for working with goods with a database.
+     * @param orderRepository implementation of the {@link OrderRepository} interface
+     *                        for working with orders with a database.
+     */
+    @Autowired
+    public CatalogSuggestIndex(GoodRepository goodRepository, OrderRepository orderRepository) {
+        this.goodRepository = goodRepository;
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * Returns true if the index is loaded.
+     *
+     * @return true if the index is loaded.
+     */
+    public boolean isReady() {
+        return trie != null;
+    }
+
+    /**
+     * Returns the most popular titles and manufacturers which start with the prefix.
+     *
+     * @param prefix text entered by the user.
+     * @param limit  maximum number of suggestions.
+     * @return texts of the suggestions, the most popular first.
+     */
+    public List<String> complete(String prefix, int limit) {
+        return trie.complete(normalize(prefix), Math.min(limit, maxResults));
+    }
+
+    /**
+     * Raises the popularity of the ordered goods after the order is committed.
+     * Orders placed while the index is loading may be lost, the ranking is approximate anyway.
+     *
+     * @param event event with the unique codes of the ordered goods.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOrderPlaced(OrderPlacedEvent event) {
+        if (trie == null) {
+            return;
+        }
+
+        for (Long id : event.getGoodIds()) {
+            popularity.merge(id, 1L, Long::sum);
+            GoodSuggestions suggestions = indexed.get(id);
+
+            if (suggestions != null) {
+                suggestions.weight++;
+                suggestions.update(trie, 0, 1);
+            }
+        }
+    }
+
+    /**
+     * Loads popularity of goods before the goods are indexed.
+     *
+     * @return an empty tree.
+     */
+    @Override
+    protected SuggestionTrie startLoad() {
+        indexed.clear();
+        popularity.clear();
+
+        for (GoodPopularityView view : orderRepository.countOrdersByGood()) {
+            popularity.put(view.getId(), view.getOrders());
+        }
+
+        return new SuggestionTrie(maxResults);
+    }
+
+    @Override
+    protected List<Good> findAfter(Long lastId, Pageable pageable) {
+        return goodRepository.findByIdGreaterThanOrderByIdAsc(lastId, pageable);
+    }
+
+    @Override
+    protected List<Good> findAll(List<Long> ids) {
+        return goodRepository.findAllById(ids);
+    }
+
+    @Override
+    protected Long idOf(Good good) {
+        return good.getId();
+    }
+
+    @Override
+    protected void publish(SuggestionTrie loaded) {
+        trie = loaded;
+        log.info("Autocomplete index loaded: {} suggestions", loaded.size());
+    }
+
+    @Override
+    protected void put(Good good) {
+        remove(good.getId());
+        add(trie, good);
+    }
+
+    @Override
+    protected void remove(Long id) {
+        GoodSuggestions previous = indexed.remove(id);
+
+        if (previous != null) {
+            previous.update(trie, -1, -previous.weight);
+        }
+    }
+
+    /**
+     * Adds suggestions of the good to the tree.
+     */
+    @Override
+    protected void add(SuggestionTrie target, Good good) {
+        GoodSuggestions suggestions = new GoodSuggestions(good, popularity.getOrDefault(good.getId(), 0L));
+        indexed.put(good.getId(), suggestions);
+        suggestions.update(target, 1, suggestions.weight);
+    }
+
+    /**
+     * Returns the text in lower case with words separated by one space.
+     */
+    private static String normalize(String text) {
+        return String.join(" ", Tokenizer.words(text));
+    }
+
+    /**
+     * Suggestions of one good: its title and its manufacturer.
+     */
+    private static final class GoodSuggestions {
+        private final String title;
+        private final String titleKey;
+        private final String producer;
+        private final String producerKey;
+        private long weight;
+
+        private GoodSuggestions(Good good, long weight) {
+            this.title = good.getTitle();
+            this.titleKey = normalize(good.getTitle());
+            this.producer = good.getProducer();
+            this.producerKey = normalize(good.getProducer());
+            this.weight = weight;
+        }
+
+        private void update(SuggestionTrie target, int refsDelta, long weightDelta) {
+            if (!titleKey.isEmpty()) {
+                target.update(titleKey, title.trim(), refsDelta, weightDelta);
+            }
+
+            if (!producerKey.isEmpty()) {
+                target.update(producerKey, producer.trim(), refsDelta, weightDelta);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.liga.store.search;
+
+/**
+ * Light stemmer of English words.
+ * Implementation of the first step of the Porter algorithm: plurals, "-ed" and "-ing" forms and
+ * the final "y" are normalized. Product titles rarely need the derivational steps of the full algorithm.
+ * The word must be in lower case.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Tokenizer
+ */
+final class EnglishStemmer {
+
+    private EnglishStemmer() {
+    }
+
+    /**
+     * Returns the stem of the word.
+     *
+     * @param word word in lower case.
+     * @return stem of the word.
+     */
+    static String stem(String word) {
+        if (word.length() <= 2) {
+            return word;
+        }
+
+        StringBuilder stem = new StringBuilder(word);
+
+        // Step 1a
+        if (endsWith(stem, "sses") || endsWith(stem, "ies")) {
+            stem.setLength(stem.length() - 2);
+        } else if (endsWith(stem, "s") && !endsWith(stem, "ss") && !endsWith(stem, "us")) {
+            stem.setLength(stem.length() - 1);
+        }
+
+        // Step 1b
+        if (endsWith(stem, "eed")) {
+            if (measure(stem, stem.length() - 3) > 0) {
+                stem.setLength(stem.length() - 1);
+            }
+        } else if (removeIfStemHasVowel(stem, "ed") || removeIfStemHasVowel(stem, "ing")) {
+            if (endsWith(stem, "at") || endsWith(stem, "bl") || endsWith(stem, "iz")) {
+                stem.append('e');
+            } else if (endsWithDoubleConsonant(stem)) {
+                char last = stem.charAt(stem.length() - 1);
+
+                if (last != 'l' && last != 's' && last != 'z') {
+                    stem.setLength(stem.length() - 1);
+                }
+            } else if (measure(stem, stem.length()) == 1 && endsWithConsonantVowelConsonant(stem)) {
+                stem.append('e');
+            }
+        }
+
+        // Step 1c
+        if (endsWith(stem, "y") && hasVowel(stem, stem.length() - 1)) {
+            stem.setCharAt(stem.length() - 1, 'i');
+        }
+
+        return stem.toString();
+    }
+
+    private static boolean removeIfStemHasVowel(StringBuilder stem, String suffix) {
+        if (!endsWith(stem, suffix) || !hasVowel(stem, stem.length() - suffix.length())) {
+            return false;
+        }
+
+        stem.setLength(stem.length() - suffix.length());
+        return true;
+    }
+
+    private static boolean endsWith(StringBuilder stem, String suffix) {
+        int start = stem.length() - suffix.length();
+
+        return start >= 0 && stem.indexOf(suffix, start) == start;
+    }
+
+    private static boolean isConsonant(StringBuilder stem, int i) {
+        switch (stem.charAt(i)) {
+            case 'a':
+            case 'e':
+            case 'i':
+            case 'o':
+            case 'u':
+                return false;
+            case 'y':
+                return i == 0 || !isConsonant(stem, i - 1);
+            default:
+                return true;
+        }
+    }
+
+    private static boolean hasVowel(StringBuilder stem, int end) {
+        for (int i = 0; i < end; i++) {
+            if (!isConsonant(stem, i)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the number of vowel-consonant sequences in the first characters of the stem.
+     *
+     * @param stem word.
+     * @param end  number of characters to check.
+     * @return measure of the stem.
+     */
+    private static int measure(StringBuilder stem, int end) {
+        int measure = 0;
+        boolean vowelSeen = false;
+
+        for (int i = 0; i < end; i++) {
+            if (!isConsonant(stem, i)) {
+                vowelSeen = true;
+            } else if (vowelSeen) {
+                measure++;
+                vowelSeen = false;
+            }
+        }
+
+        return measure;
+    }
+
+    private static boolean endsWithDoubleConsonant(StringBuilder stem) {
+        int length = stem.length();
+
+        return length >= 2 && stem.charAt(length - 1) == stem.charAt(length - 2) && isConsonant(stem, length - 1);
+    }
+
+    private static boolean endsWithConsonantVowelConsonant(StringBuilder stem) {
+        int length = stem.length();
+
+        if (length < 3 || !isConsonant(stem, length - 1) || isConsonant(stem, length - 2)
+                || !isConsonant(stem, length - 3)) {
+            return false;
+        }
+
+        char last = stem.charAt(length - 1);
+
+        return last != 'w' && last != 'x' && last != 'y';
+    }
+}
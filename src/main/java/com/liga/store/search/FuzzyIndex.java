@@ -0,0 +1,223 @@
+package com.liga.store.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant index of the words of documents.
+ * The vocabulary is kept in a {@link BkTree}, every word of the query is matched against
+ * the vocabulary words within the allowed Levenshtein distance, documents are ranked
+ * by the number of matched query words and then by the total distance.
+ * Short words allow fewer typos: no typos up to 2 characters, one typo up to 5 characters.
+ * Queries and updates are guarded by a read-write lock.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see BkTree
+ * @see CatalogFuzzyIndex
+ */
+public class FuzzyIndex {
+    /**
+     * The tree is rebuilt when it keeps more removed words than this and than live words.
+     */
+    private static final int MIN_DEAD_TO_REBUILD = 1024;
+
+    /**
+     * Lock guarding the index.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Documents by word.
+     */
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    /**
+     * Words by document.
+     */
+    private final Map<Long, Set<String>> documents = new HashMap<>();
+
+    /**
+     * Vocabulary of the index.
+     */
+    private BkTree vocabulary = new BkTree();
+
+    /**
+     * Adds the document to the index or replaces its words.
+     *
+     * @param id    the unique code of the document.
+     * @param words words of the document.
+     */
+    public void put(long id, Collection<String> words) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            compact();
+            Set<String> unique = new HashSet<>(words);
+
+            for (String word : unique) {
+                Set<Long> ids = postings.get(word);
+
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    postings.put(word, ids);
+                    vocabulary.add(word);
+                }
+                ids.add(id);
+            }
+
+            documents.put(id, unique);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the document from the index.
+     *
+     * @param id the unique code of the document.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns number of documents in the index.
+     *
+     * @return number of documents.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns number of distinct words in the index.
+     *
+     * @return number of words.
+     */
+    public int vocabularySize() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best matching documents for the query words.
+     *
+     * @param words       words of the query.
+     * @param maxDistance the maximum Levenshtein distance of a word.
+     * @param limit       maximum number of documents.
+     * @return the unique codes of the documents, the best first.
+     */
+    public List<Long> search(Collection<String> words, int maxDistance, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<Long, int[]> scores = new HashMap<>();
+            Set<String> unique = new LinkedHashSet<>(words);
+
+            for (String word : unique) {
+                Map<Long, Integer> best = new HashMap<>();
+
+                for (BkTree.Match match : vocabulary.search(word, allowedDistance(word, maxDistance))) {
+                    for (Long id : postings.get(match.getWord())) {
+                        best.merge(id, match.getDistance(), Math::min);
+                    }
+                }
+
+                for (Map.Entry<Long, Integer> entry : best.entrySet()) {
+                    int[] score = scores.computeIfAbsent(entry.getKey(), key -> new int[2]);
+                    score[0]++;
+                    score[1] += entry.getValue();
+                }
+            }
+
+            List<Map.Entry<Long, int[]>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort((first, second) -> {
+                int[] a = first.getValue();
+                int[] b = second.getValue();
+
+                if (a[0] != b[0]) {
+                    return Integer.compare(b[0], a[0]);
+                }
+
+                if (a[1] != b[1]) {
+                    return Integer.compare(a[1], b[1]);
+                }
+
+                return Long.compare(first.getKey(), second.getKey());
+            });
+
+            List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                ids.add(ranked.get(i).getKey());
+            }
+
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the allowed distance for the word of the given length.
+     */
+    private static int allowedDistance(String word, int maxDistance) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+
+        return word.length() <= 5 ? Math.min(1, maxDistance) : maxDistance;
+    }
+
+    /**
+     * Rebuilds the vocabulary tree when it keeps too many removed words.
+     */
+    private void compact() {
+        if (vocabulary.deadSize() > MIN_DEAD_TO_REBUILD && vocabulary.deadSize() > vocabulary.size()) {
+            BkTree rebuilt = new BkTree();
+            postings.keySet().forEach(rebuilt::add);
+            vocabulary = rebuilt;
+        }
+    }
+
+    private void removeDocument(long id) {
+        Set<String> words = documents.remove(id);
+
+        if (words == null) {
+            return;
+        }
+
+        for (String word : words) {
+            Set<Long> ids = postings.get(word);
+            ids.remove(id);
+
+            if (ids.isEmpty()) {
+                postings.remove(word);
+                vocabulary.remove(word);
+            }
+        }
+    }
+}
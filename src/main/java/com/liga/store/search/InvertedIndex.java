@@ -0,0 +1,289 @@
+package com.liga.store.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index of documents with BM25 ranking.
+ * Every term points to a compressed {@link PostingList}, every document keeps the list of its terms,
+ * so a changed document can be replaced without rebuilding the index.
+ * Searches run in parallel under the read lock, changes take the write lock.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see PostingList
+ * @see Tokenizer
+ */
+public class InvertedIndex {
+    /**
+     * BM25 term frequency saturation parameter.
+     */
+    private static final double K1 = 1.2;
+
+    /**
+     * BM25 document length normalization parameter.
+     */
+    private static final double B = 0.75;
+
+    /**
+     * Posting lists by term.
+     */
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    /**
+     * Indexed documents by the unique code.
+     */
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    /**
+     * Lock which protects the index.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Sum of lengths of all documents.
+     */
+    private long totalLength;
+
+    /**
+     * Creates the empty index.
+     */
+    public InvertedIndex() {
+    }
+
+    private InvertedIndex(Builder builder) {
+        builder.postings.forEach((term, list) -> postings.put(term, list.build()));
+        documents.putAll(builder.documents);
+        totalLength = builder.totalLength;
+    }
+
+    /**
+     * Adds the document or replaces its previous version.
+     *
+     * @param id    the unique code of the document.
+     * @param terms term frequencies of the document.
+     */
+    public void put(long id, Map<String, Integer> terms) {
+        lock.writeLock().lock();
+
+        try {
+            removeDocument(id);
+
+            if (terms.isEmpty()) {
+                return;
+            }
+
+            int length = 0;
+
+            for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                postings.put(term.getKey(), postings.getOrDefault(term.getKey(), PostingList.EMPTY)
+                        .with(id, term.getValue()));
+                length += term.getValue();
+            }
+
+            documents.put(id, new Document(length, terms.keySet().toArray(new String[0])));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the document from the index.
+     *
+     * @param id the unique code of the document.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns number of indexed documents.
+     *
+     * @return number of documents.
+     */
+    public int size() {
+        lock.readLock().lock();
+
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns true if the term is present in the index.
+     *
+     * @param term search term.
+     * @return true if at least one document contains the term.
+     */
+    public boolean contains(String term) {
+        lock.readLock().lock();
+
+        try {
+            return postings.containsKey(term);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the most relevant documents which contain at least one of the terms.
+     * Documents are ranked by the BM25 score.
+     *
+     * @param terms search terms.
+     * @param limit maximum number of documents.
+     * @return list of {@link SearchHit} ordered by score.
+     */
+    public List<SearchHit> search(Collection<String> terms, int limit) {
+        lock.readLock().lock();
+
+        try {
+            if (documents.isEmpty() || limit < 1) {
+                return new ArrayList<>();
+            }
+
+            double averageLength = (double) totalLength / documents.size();
+            Map<Long, Double> scores = new HashMap<>();
+
+            for (String term : new LinkedHashSet<>(terms)) {
+                PostingList list = postings.get(term);
+
+                if (list == null) {
+                    continue;
+                }
+
+                double idf = Math.log(1 + (documents.size() - list.size() + 0.5) / (list.size() + 0.5));
+                PostingList.Cursor cursor = list.cursor();
+
+                while (cursor.next()) {
+                    double length = documents.get(cursor.docId()).length;
+                    double frequency = cursor.frequency();
+                    double score = idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * length / averageLength));
+
+                    scores.merge(cursor.docId(), score, Double::sum);
+                }
+            }
+
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<SearchHit> top(Map<Long, Double> scores, int limit) {
+        Comparator<SearchHit> byScore = Comparator.comparingDouble(SearchHit::getScore)
+                .thenComparing(Comparator.comparingLong(SearchHit::getId).reversed());
+        PriorityQueue<SearchHit> heap = new PriorityQueue<>(limit + 1, byScore);
+
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            heap.add(new SearchHit(entry.getKey(), entry.getValue()));
+
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        List<SearchHit> hits = new ArrayList<>(heap);
+        hits.sort(byScore.reversed());
+
+        return hits;
+    }
+
+    private void removeDocument(long id) {
+        Document document = documents.remove(id);
+
+        if (document == null) {
+            return;
+        }
+
+        for (String term : document.terms) {
+            PostingList list = postings.get(term).without(id);
+
+            if (list.size() == 0) {
+                postings.remove(term);
+            } else {
+                postings.put(term, list);
+            }
+        }
+
+        totalLength -= document.length;
+    }
+
+    /**
+     * Builder of the index from documents added in ascending order of the unique codes.
+     * Postings are appended to the end of the lists, so the index is built in linear time.
+     */
+    public static final class Builder {
+        private final Map<String, PostingList.Builder> postings = new HashMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private long totalLength;
+
+        /**
+         * Adds the document to the index.
+         *
+         * @param id    the unique code of the document, greater than the previous one.
+         * @param terms term frequencies of the document.
+         */
+        public void add(long id, Map<String, Integer> terms) {
+            if (terms.isEmpty()) {
+                return;
+            }
+
+            int length = 0;
+
+            for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new PostingList.Builder(16)).add(id, term.getValue());
+                length += term.getValue();
+            }
+
+            documents.put(id, new Document(length, terms.keySet().toArray(new String[0])));
+            totalLength += length;
+        }
+
+        /**
+         * Returns the built index.
+         *
+         * @return The {@link InvertedIndex} class object.
+         */
+        public InvertedIndex build() {
+            return new InvertedIndex(this);
+        }
+    }
+
+    /**
+     * Indexed document.
+     */
+    private static final class Document {
+        /**
+         * Weighted number of terms of the document.
+         */
+        private final int length;
+
+        /**
+         * Distinct terms of the document.
+         */
+        private final String[] terms;
+
+        private Document(int length, String[] terms) {
+            this.length = length;
+            this.terms = terms;
+        }
+    }
+}
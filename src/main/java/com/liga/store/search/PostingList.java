@@ -0,0 +1,232 @@
+package com.liga.store.search;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compressed posting list of one search term.
+ * Postings are ordered by the unique code of the document. Every posting is stored as the difference
+ * with the previous unique code followed by the term frequency, both numbers are encoded
+ * as variable-length integers with 7 bits per byte.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see InvertedIndex
+ */
+public final class PostingList {
+    /**
+     * Posting list without documents.
+     */
+    static final PostingList EMPTY = new PostingList(new byte[0], 0, 0);
+
+    /**
+     * Encoded postings.
+     */
+    private final byte[] data;
+
+    /**
+     * Number of used bytes of the data.
+     */
+    private final int length;
+
+    /**
+     * Number of documents in the list.
+     */
+    private final int size;
+
+    private PostingList(byte[] data, int length, int size) {
+        this.data = data;
+        this.length = length;
+        this.size = size;
+    }
+
+    /**
+     * Returns number of documents which contain the term.
+     *
+     * @return number of documents.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns number of bytes used by the encoded postings.
+     *
+     * @return number of bytes.
+     */
+    public int bytes() {
+        return length;
+    }
+
+    /**
+     * Returns the cursor over postings of the list.
+     *
+     * @return The {@link Cursor} class object.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Returns the next version of the list in which the document has the given term frequency.
+     *
+     * @param docId     the unique code of the document.
+     * @param frequency term frequency in the document.
+     * @return The {@link PostingList} class object.
+     */
+    public PostingList with(long docId, int frequency) {
+        Builder builder = new Builder(length + 12);
+        Cursor cursor = cursor();
+        boolean added = false;
+
+        while (cursor.next()) {
+            if (!added && cursor.docId() >= docId) {
+                builder.add(docId, frequency);
+                added = true;
+
+                if (cursor.docId() == docId) {
+                    continue;
+                }
+            }
+            builder.add(cursor.docId(), cursor.frequency());
+        }
+
+        if (!added) {
+            builder.add(docId, frequency);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the next version of the list without the document.
+     *
+     * @param docId the unique code of the document.
+     * @return The {@link PostingList} class object.
+     */
+    public PostingList without(long docId) {
+        Builder builder = new Builder(length);
+        Cursor cursor = cursor();
+
+        while (cursor.next()) {
+            if (cursor.docId() != docId) {
+                builder.add(cursor.docId(), cursor.frequency());
+            }
+        }
+
+        return builder.size == size ? this : builder.build();
+    }
+
+    /**
+     * Sequential decoder of the postings.
+     */
+    public final class Cursor {
+        private int position;
+        private long docId;
+        private int frequency;
+
+        /**
+         * Moves the cursor to the next posting.
+         *
+         * @return true if the cursor points to a posting.
+         */
+        public boolean next() {
+            if (position >= length) {
+                return false;
+            }
+
+            docId += readVarLong();
+            frequency = (int) readVarLong();
+            return true;
+        }
+
+        /**
+         * Returns the unique code of the document of the current posting.
+         *
+         * @return the unique code of the document.
+         */
+        public long docId() {
+            return docId;
+        }
+
+        /**
+         * Returns the term frequency of the current posting.
+         *
+         * @return term frequency.
+         */
+        public int frequency() {
+            return frequency;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+
+            do {
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            return value;
+        }
+    }
+
+    /**
+     * Builder of the posting list, documents must be added in ascending order of the unique codes.
+     */
+    public static final class Builder {
+        private byte[] data;
+        private int length;
+        private int size;
+        private long lastDocId;
+
+        /**
+         * Creates the builder with the given initial capacity.
+         *
+         * @param capacity initial capacity in bytes.
+         */
+        public Builder(int capacity) {
+            this.data = new byte[Math.max(capacity, 8)];
+        }
+
+        /**
+         * Appends the posting to the list.
+         *
+         * @param docId     the unique code of the document, greater than the previous one.
+         * @param frequency term frequency in the document.
+         */
+        public void add(long docId, int frequency) {
+            if (size > 0 && docId <= lastDocId) {
+                throw new IllegalArgumentException("Documents must be added in ascending order");
+            }
+
+            writeVarLong(docId - lastDocId);
+            writeVarLong(frequency);
+            lastDocId = docId;
+            size++;
+        }
+
+        /**
+         * Returns the built posting list.
+         *
+         * @return The {@link PostingList} class object.
+         */
+        public PostingList build() {
+            return size == 0 ? EMPTY : new PostingList(Arrays.copyOf(data, length), length, size);
+        }
+
+        private void writeVarLong(long value) {
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+
+            while ((value & ~0x7FL) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            data[length++] = (byte) value;
+        }
+    }
+}
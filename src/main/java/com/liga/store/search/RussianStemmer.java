@@ -0,0 +1,153 @@
+package com.liga.store.search;
+
+/**
+ * Stemmer of Russian words.
+ * Implementation of the Snowball algorithm for the Russian language: perfective gerund, reflexive, adjectival,
+ * verb and noun endings are removed in the RV region of the word, then derivational and superlative suffixes.
+ * The word must be in lower case with "ё" replaced by "е".
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Tokenizer
+ */
+final class RussianStemmer {
+    private static final String VOWELS = "аеиоуыэюя";
+
+    private static final String[] PERFECTIVE_GERUND_1 = {"вшись", "вши", "в"};
+    private static final String[] PERFECTIVE_GERUND_2 = {"ившись", "ывшись", "ивши", "ывши", "ив", "ыв"};
+    private static final String[] ADJECTIVE = {"ими", "ыми", "его", "ого", "ему", "ому", "ее", "ие", "ые", "ое",
+            "ей", "ий", "ый", "ой", "ем", "им", "ым", "ом", "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею"};
+    private static final String[] PARTICIPLE_1 = {"ем", "нн", "вш", "ющ", "щ"};
+    private static final String[] PARTICIPLE_2 = {"ивш", "ывш", "ующ"};
+    private static final String[] REFLEXIVE = {"ся", "сь"};
+    private static final String[] VERB_1 = {"ете", "йте", "ешь", "нно", "ла", "на", "ли", "ем", "ло", "но", "ет",
+            "ют", "ны", "ть", "й", "л", "н"};
+    private static final String[] VERB_2 = {"ейте", "уйте", "ила", "ыла", "ена", "ите", "или", "ыли", "ило", "ыло",
+            "ено", "ует", "уют", "ены", "ить", "ыть", "ишь", "ей", "уй", "ил", "ыл", "им", "ым", "ен", "ят", "ит",
+            "ыт", "ую", "ю"};
+    private static final String[] NOUN = {"иями", "ями", "ами", "ией", "иям", "ием", "иях", "ев", "ов", "ие", "ье",
+            "еи", "ии", "ей", "ой", "ий", "ям", "ем", "ам", "ом", "ах", "ях", "ию", "ью", "ия", "ья", "а", "е", "и",
+            "й", "о", "у", "ы", "ь", "ю", "я"};
+    private static final String[] SUPERLATIVE = {"ейше", "ейш"};
+    private static final String[] DERIVATIONAL = {"ость", "ост"};
+
+    private RussianStemmer() {
+    }
+
+    /**
+     * Returns the stem of the word.
+     *
+     * @param word word in lower case.
+     * @return stem of the word.
+     */
+    static String stem(String word) {
+        int rv = regionAfterFirstVowel(word, 0);
+
+        if (rv >= word.length()) {
+            return word;
+        }
+
+        int r1 = regionAfterVowelConsonant(word, 0);
+        int r2 = regionAfterVowelConsonant(word, r1);
+        StringBuilder stem = new StringBuilder(word);
+
+        // Step 1
+        if (!removeEnding(stem, rv, PERFECTIVE_GERUND_1, true) && !removeEnding(stem, rv, PERFECTIVE_GERUND_2, false)) {
+            removeEnding(stem, rv, REFLEXIVE, false);
+
+            if (removeEnding(stem, rv, ADJECTIVE, false)) {
+                if (!removeEnding(stem, rv, PARTICIPLE_1, true)) {
+                    removeEnding(stem, rv, PARTICIPLE_2, false);
+                }
+            } else if (!removeEnding(stem, rv, VERB_1, true) && !removeEnding(stem, rv, VERB_2, false)) {
+                removeEnding(stem, rv, NOUN, false);
+            }
+        }
+
+        // Step 2
+        removeEnding(stem, rv, new String[]{"и"}, false);
+
+        // Step 3
+        removeEnding(stem, r2, DERIVATIONAL, false);
+
+        // Step 4
+        if (endsWith(stem, rv, "нн")) {
+            stem.setLength(stem.length() - 1);
+        } else if (removeEnding(stem, rv, SUPERLATIVE, false)) {
+            if (endsWith(stem, rv, "нн")) {
+                stem.setLength(stem.length() - 1);
+            }
+        } else {
+            removeEnding(stem, rv, new String[]{"ь"}, false);
+        }
+
+        return stem.toString();
+    }
+
+    /**
+     * Removes the longest of the endings placed in the region.
+     * Endings of the first group are removed only after "а" or "я", which stays in the stem.
+     *
+     * @param stem       word to change.
+     * @param region     start of the region.
+     * @param endings    endings ordered from the longest to the shortest.
+     * @param afterAOrYa true for endings of the first group.
+     * @return true if an ending was removed.
+     */
+    private static boolean removeEnding(StringBuilder stem, int region, String[] endings, boolean afterAOrYa) {
+        for (String ending : endings) {
+            if (!endsWith(stem, region, ending)) {
+                continue;
+            }
+
+            int start = stem.length() - ending.length();
+
+            if (afterAOrYa) {
+                if (start - 1 < region) {
+                    continue;
+                }
+
+                char previous = stem.charAt(start - 1);
+
+                if (previous != 'а' && previous != 'я') {
+                    continue;
+                }
+            }
+
+            stem.setLength(start);
+            return true;
+        }
+
+        return false;
+    }
+
+    private static boolean endsWith(StringBuilder stem, int region, String ending) {
+        int start = stem.length() - ending.length();
+
+        return start >= region && stem.indexOf(ending, start) == start;
+    }
+
+    private static int regionAfterFirstVowel(String word, int from) {
+        for (int i = from; i < word.length(); i++) {
+            if (isVowel(word.charAt(i))) {
+                return i + 1;
+            }
+        }
+
+        return word.length();
+    }
+
+    private static int regionAfterVowelConsonant(String word, int from) {
+        for (int i = from + 1; i < word.length(); i++) {
+            if (!isVowel(word.charAt(i)) && isVowel(word.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+
+        return word.length();
+    }
+
+    private static boolean isVowel(char c) {
+        return VOWELS.indexOf(c) >= 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.liga.store.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Document found by the search with its relevance score.
+ * The @Getter annotation generates getters for all fields.
+ * The @AllArgsConstructor annotation generates all args constructor.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see InvertedIndex
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+    /**
+     * The unique code of the document.
+     */
+    private final long id;
+
+    /**
+     * Relevance score of the document, greater is better.
+     */
+    private final double score;
+}
@@ -0,0 +1,338 @@
+package com.liga.store.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix tree of suggestions for the prefix autocomplete.
+ * Chains of nodes with one child are compressed into one edge, children of a node are kept
+ * in a sorted array. Every node caches the best suggestions of its subtree, so a completion
+ * costs one walk down the prefix and does not depend on the number of matching suggestions.
+ * Every suggestion has a number of references (goods with this text) and a weight (popularity),
+ * both are changed by deltas, a suggestion without references is removed.
+ * Queries and updates are guarded by a read-write lock.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CatalogSuggestIndex
+ */
+public final class SuggestionTrie {
+    /**
+     * Order of the suggestions: heavier first, then with more references, then alphabetical.
+     */
+    private static final Comparator<Entry> RANK = Comparator.comparingLong((Entry entry) -> entry.weight).reversed()
+            .thenComparing(Comparator.comparingInt((Entry entry) -> entry.refs).reversed())
+            .thenComparing(entry -> entry.key);
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    /**
+     * Number of the best suggestions cached in every node.
+     */
+    private final int topSize;
+
+    /**
+     * Lock guarding the tree.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Root of the tree, matches the empty prefix.
+     */
+    private final Node root = new Node(new char[0]);
+
+    /**
+     * Number of suggestions.
+     */
+    private int size;
+
+    /**
+     * Creates the empty tree.
+     *
+     * @param topSize maximum number of suggestions returned for one prefix.
+     */
+    public SuggestionTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    /**
+     * Changes the references and the weight of the suggestion, creates the suggestion if it is absent
+     * and removes it when no references are left.
+     *
+     * @param key         normalized text of the suggestion.
+     * @param text        text of the suggestion shown to the user.
+     * @param refsDelta   change of the number of references.
+     * @param weightDelta change of the weight.
+     */
+    public void update(String key, String text, int refsDelta, long weightDelta) {
+        lock.writeLock().lock();
+        try {
+            List<Node> path = refsDelta > 0 ? insertPath(key) : findPath(key);
+
+            if (path == null) {
+                return;
+            }
+
+            Node node = path.get(path.size() - 1);
+
+            if (node.entry == null) {
+                if (refsDelta <= 0) {
+                    return;
+                }
+                node.entry = new Entry(key, text);
+                size++;
+            }
+
+            node.entry.refs += refsDelta;
+            node.entry.weight += weightDelta;
+
+            if (node.entry.refs <= 0) {
+                node.entry = null;
+                size--;
+            }
+
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node current = path.get(i);
+
+                if (i > 0 && current.entry == null && current.children.length == 0) {
+                    removeChild(path.get(i - 1), current);
+                } else {
+                    current.top = top(current);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best suggestions which start with the prefix.
+     *
+     * @param prefix normalized prefix.
+     * @param limit  maximum number of suggestions, not greater than the cached number.
+     * @return texts of the suggestions, the best first.
+     */
+    public List<String> complete(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int position = 0;
+
+            while (position < prefix.length()) {
+                int index = childIndex(node, prefix.charAt(position));
+
+                if (index < 0) {
+                    return Collections.emptyList();
+                }
+
+                node = node.children[index];
+                int common = commonPrefix(node.label, prefix, position);
+
+                if (common < node.label.length && position + common < prefix.length()) {
+                    return Collections.emptyList();
+                }
+
+                position += common;
+            }
+
+            int count = Math.min(limit, node.top.length);
+            List<String> texts = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                texts.add(node.top[i].text);
+            }
+
+            return texts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns number of suggestions.
+     *
+     * @return number of suggestions.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns nodes from the root to the node of the key, creating and splitting nodes on the way.
+     */
+    private List<Node> insertPath(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int position = 0;
+        path.add(root);
+
+        while (position < key.length()) {
+            int index = childIndex(node, key.charAt(position));
+
+            if (index < 0) {
+                Node leaf = new Node(key.substring(position).toCharArray());
+                insertChild(node, -index - 1, leaf);
+                path.add(leaf);
+                return path;
+            }
+
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, position);
+
+            if (common < child.label.length) {
+                Node middle = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                middle.children = new Node[]{child};
+                middle.top = child.top;
+                node.children[index] = middle;
+                child = middle;
+            }
+
+            node = child;
+            path.add(node);
+            position += common;
+        }
+
+        return path;
+    }
+
+    /**
+     * Returns nodes from the root to the node of the key or {@code null} if there is no such node.
+     */
+    private List<Node> findPath(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int position = 0;
+        path.add(root);
+
+        while (position < key.length()) {
+            int index = childIndex(node, key.charAt(position));
+
+            if (index < 0) {
+                return null;
+            }
+
+            node = node.children[index];
+
+            if (commonPrefix(node.label, key, position) < node.label.length) {
+                return null;
+            }
+
+            path.add(node);
+            position += node.label.length;
+        }
+
+        return path;
+    }
+
+    /**
+     * Returns the best suggestions of the node and of the cached suggestions of its children.
+     */
+    private Entry[] top(Node node) {
+        List<Entry> candidates = new ArrayList<>();
+
+        if (node.entry != null) {
+            candidates.add(node.entry);
+        }
+
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+
+        if (candidates.isEmpty()) {
+            return NO_ENTRIES;
+        }
+
+        candidates.sort(RANK);
+
+        return candidates.subList(0, Math.min(topSize, candidates.size())).toArray(NO_ENTRIES);
+    }
+
+    private static int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char label = node.children[middle].label[0];
+
+            if (label < first) {
+                low = middle + 1;
+            } else if (label > first) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    private static int commonPrefix(char[] label, String key, int position) {
+        int length = Math.min(label.length, key.length() - position);
+        int common = 0;
+
+        while (common < length && label[common] == key.charAt(position + common)) {
+            common++;
+        }
+
+        return common;
+    }
+
+    private static void insertChild(Node parent, int index, Node child) {
+        Node[] children = new Node[parent.children.length + 1];
+        System.arraycopy(parent.children, 0, children, 0, index);
+        children[index] = child;
+        System.arraycopy(parent.children, index, children, index + 1, parent.children.length - index);
+        parent.children = children;
+    }
+
+    private static void removeChild(Node parent, Node child) {
+        int index = childIndex(parent, child.label[0]);
+        Node[] children = new Node[parent.children.length - 1];
+        System.arraycopy(parent.children, 0, children, 0, index);
+        System.arraycopy(parent.children, index + 1, children, index, children.length - index);
+        parent.children = children.length == 0 ? NO_CHILDREN : children;
+    }
+
+    /**
+     * Node of the tree.
+     */
+    private static final class Node {
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private Entry entry;
+        private Entry[] top = NO_ENTRIES;
+
+        private Node(char[] label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Suggestion.
+     */
+    private static final class Entry {
+        private final String key;
+        private final String text;
+        private int refs;
+        private long weight;
+
+        private Entry(String key, String text) {
+            this.key = key;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.liga.store.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into search terms.
+ * Text is split by characters which are not letters or digits, lower-cased, stop words are dropped
+ * and every word is reduced to its stem: Cyrillic words with the {@link RussianStemmer},
+ * other words with the {@link EnglishStemmer}.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see RussianStemmer
+ * @see EnglishStemmer
+ */
+public final class Tokenizer {
+    /**
+     * Words which are too common to be searched.
+     */
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "и", "в", "во", "на", "с", "со", "по", "для", "из", "от", "до", "за", "к", "о", "об", "не", "или", "а",
+            "the", "a", "an", "and", "or", "of", "for", "in", "on", "to", "with", "by", "at"));
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Returns words of the text in lower case without stemming.
+     *
+     * @param text text to split.
+     * @return list of words.
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+
+        if (text == null) {
+            return words;
+        }
+
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+
+        return words;
+    }
+
+    /**
+     * Returns stemmed search terms of the text without stop words.
+     *
+     * @param text text to split.
+     * @return list of terms in the order of the text.
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+
+        for (String word : words(text)) {
+            if (!STOP_WORDS.contains(word)) {
+                terms.add(stem(word));
+            }
+        }
+
+        return terms;
+    }
+
+    /**
+     * Returns the stem of the word in lower case.
+     *
+     * @param word word in lower case.
+     * @return stem of the word.
+     */
+    public static String stem(String word) {
+        return isCyrillic(word) ? RussianStemmer.stem(word) : EnglishStemmer.stem(word);
+    }
+
+    private static boolean isCyrillic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.UnicodeBlock.of(word.charAt(i)) == Character.UnicodeBlock.CYRILLIC) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
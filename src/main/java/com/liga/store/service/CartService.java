@@ -0,0 +1,75 @@
+package com.liga.store.service;
+
+import com.liga.store.cart.CartLine;
+import com.liga.store.domain.User;
+import com.liga.store.domain.dto.CartDto;
+import com.liga.store.domain.dto.CartOperation;
+import com.liga.store.service.Impl.CartServiceImpl;
+
+import java.util.List;
+
+/**
+ * The service layer interface describes a set of methods for working with shopping carts of {@link User} objects.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CartLine
+ * @see CartServiceImpl
+ */
+public interface CartService {
+    /**
+     * Returns the lines of the cart of the user.
+     *
+     * @param userId the unique code of the user.
+     * @return lines in the order the goods were added.
+     */
+    List<CartLine> getCart(Long userId);
+
+    /**
+     * Returns the cart of the user with the goods and the totals.
+     *
+     * @param userId the unique code of the user.
+     * @return cart in the order the goods were added.
+     */
+    CartDto getSummary(Long userId);
+
+    /**
+     * Applies the changes to the cart in the given order.
+     * Either all changes are applied or, if one of them is invalid, none of them.
+     *
+     * @param userId     the unique code of the user.
+     * @param operations changes of the cart.
+     * @return cart after the changes with the goods and the totals.
+     */
+    CartDto apply(Long userId, List<CartOperation> operations);
+
+    /**
+     * Adds the quantity of the good to the cart.
+     *
+     * @param userId   the unique code of the user.
+     * @param goodId   the unique code of the good.
+     * @param quantity added quantity.
+     * @return lines after the change.
+     */
+    List<CartLine> add(Long userId, Long goodId, int quantity);
+
+    /**
+     * Removes the quantity of the good from the cart, the line is removed when its quantity reaches zero.
+     *
+     * @param userId   the unique code of the user.
+     * @param goodId   the unique code of the good.
+     * @param quantity removed quantity.
+     * @return lines after the change.
+     */
+    List<CartLine> remove(Long userId, Long goodId, int quantity);
+
+    /**
+     * Sets the quantity of the good in the cart, zero removes the line.
+     *
+     * @param userId   the unique code of the user.
+     * @param goodId   the unique code of the good.
+     * @param quantity new quantity.
+     * @return lines after the change.
+     */
+    List<CartLine> setQuantity(Long userId, Long goodId, int quantity);
+}
@@ -0,0 +1,34 @@
+package com.liga.store.service;
+
+import com.liga.store.domain.Good;
+import com.liga.store.domain.dto.FacetPage;
+import com.liga.store.service.Impl.FilterServiceImpl;
+
+import java.util.List;
+
+/**
+ * The service layer interface describes a set of methods for the faceted filtering of {@link Good} objects.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see FilterServiceImpl
+ */
+public interface FilterService {
+    /**
+     * Returns one page of goods matching the filter together with the facet counts.
+     * Values of one attribute are combined with OR, different attributes are combined with AND,
+     * an attribute without values is not filtered.
+     *
+     * @param producers good manufacturers.
+     * @param countries manufacturer countries.
+     * @param types     types of goods.
+     * @param yearFrom  the minimum year of release or {@code null}.
+     * @param yearTo    the maximum year of release or {@code null}.
+     * @param after     the unique code of the last good of the previous page or {@code null} for the first page.
+     * @param size      requested page size or {@code null} for the default size.
+     * @return {@link FacetPage}.
+     */
+    FacetPage filter(List<String> producers, List<String> countries, List<String> types,
+                     Integer yearFrom, Integer yearTo, Long after, Integer size);
+}
@@ -0,0 +1,44 @@
+package com.liga.store.service;
+
+import com.liga.store.domain.Good;
+import com.liga.store.imports.GoodImportJob;
+import com.liga.store.service.Impl.GoodImportServiceImpl;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The service layer interface describes a set of methods for the bulk import of {@link Good} objects.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see GoodImportServiceImpl
+ */
+public interface GoodImportService {
+    /**
+     * Saves the uploaded catalog file and starts its import in the background.
+     *
+     * @param file   uploaded CSV or JSON file.
+     * @param format format of the file or {@code null} to take it from the file name.
+     * @return the started {@link GoodImportJob}.
+     * @throws IOException if the file cannot be saved.
+     */
+    GoodImportJob start(MultipartFile file, String format) throws IOException;
+
+    /**
+     * Returns the import job.
+     *
+     * @param id the unique code of the job.
+     * @return The {@link GoodImportJob} class object.
+     */
+    GoodImportJob findById(String id);
+
+    /**
+     * Returns the recent import jobs, the newest first.
+     *
+     * @return list of {@link GoodImportJob}.
+     */
+    List<GoodImportJob> findAll();
+}
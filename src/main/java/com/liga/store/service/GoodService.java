@@ -1,9 +1,11 @@
 package com.liga.store.service;
 
 import com.liga.store.domain.Good;
+import com.liga.store.domain.GoodSort;
+import com.liga.store.domain.dto.GoodPage;
+import com.liga.store.domain.dto.GoodUpdate;
+import com.liga.store.fields.FieldPlan;
 import com.liga.store.service.Impl.GoodServiceImpl;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -24,6 +26,38 @@ public interface GoodService {
      */
     List<Good> findAll();
 
+    /**
+     * Returns one page of the catalog listing using keyset pagination.
+     * The page size is limited by the configured maximum.
+     *
+     * @param cursor encoded cursor of the page or {@code null} for the first page.
+     * @param size   requested page size or {@code null} for the default size.
+     * @param sort   sort order of the listing.
+     * @return The {@link GoodPage} class object.
+     */
+    GoodPage findPage(String cursor, Integer size, GoodSort sort);
+
+    /**
+     * Returns one page of the catalog listing with only the columns of the sparse fieldset.
+     * Fields which are not selected are {@code null}.
+     *
+     * @param cursor encoded cursor of the page or {@code null} for the first page.
+     * @param size   requested page size or {@code null} for the default size.
+     * @param sort   sort order of the listing.
+     * @param plan   compiled sparse fieldset.
+     * @return The {@link GoodPage} class object.
+     */
+    GoodPage findPage(String cursor, Integer size, GoodSort sort, FieldPlan plan);
+
+    /**
+     * Returns goods with the given unique codes in the same order.
+     * Unique codes of goods which do not exist are skipped.
+     *
+     * @param ids the unique codes of goods.
+     * @return list of {@link Good}.
+     */
+    List<Good> findAllById(List<Long> ids);
+
     /**
      * Returns list of goods in which the price is in the range between of starting price and ending price.
      * A {@link List} is a sublist of a list of objects.
@@ -87,6 +121,16 @@ public interface GoodService {
     void saveProductInfoById(String goodTitle, String producer, Integer year, String country,
                              String description, Integer price, String type, Long id);
 
+    /**
+     * Updates the changed fields of the goods.
+     * Only the fields which are not {@code null} are written to the database.
+     *
+     * @param ids    the unique codes of the goods to update.
+     * @param update changed fields.
+     * @return number of updated goods.
+     */
+    int update(List<Long> ids, GoodUpdate update);
+
     /**
      * Save good info.
      *
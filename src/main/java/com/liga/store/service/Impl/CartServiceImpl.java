@@ -0,0 +1,286 @@
+package com.liga.store.service.Impl;
+
+import com.liga.store.cart.CartLine;
+import com.liga.store.cart.CartStore;
+import com.liga.store.domain.Good;
+import com.liga.store.domain.dto.CartDto;
+import com.liga.store.domain.dto.CartLineDto;
+import com.liga.store.domain.dto.CartOperation;
+import com.liga.store.exeptions.BadRequestException;
+import com.liga.store.exeptions.NotFoundException;
+import com.liga.store.service.CartService;
+import com.liga.store.service.GoodService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The service layer class implements the methods of the {@link CartService} interface.
+ * Carts are kept by the {@link CartStore}, every method changes one cart with one change of the store,
+ * so a list of changes is applied under the lock of the cart and written in one batch.
+ * The class is marked with the @Service annotation - an annotation announcing that this class
+ * is a service - a component of the service layer. Service is a subtype of @Component class.
+ * Using this annotation will automatically search for service beans.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see CartService
+ * @see CartStore
+ */
+@Service
+public class CartServiceImpl implements CartService {
+    /**
+     * Maximum quantity of one good in a cart.
+     */
+    private static final int MAX_QUANTITY = 999;
+
+    /**
+     * Maximum number of changes applied by one request.
+     */
+    private static final int MAX_OPERATIONS = 100;
+
+    /**
+     * Store of shopping carts.
+     */
+    private final CartStore cartStore;
+
+    /**
+     * Service object for working with products.
+     */
+    private final GoodService goodService;
+
+    /**
+     * Constructor for initializing the main variables of the cart service.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param cartStore   store of shopping carts.
+     * @param goodService service object for working with products.
+     */
+    @Autowired
+    public CartServiceImpl(CartStore cartStore, GoodService goodService) {
+        this.cartStore = cartStore;
+        this.goodService = goodService;
+    }
+
+    /**
+     * Returns the lines of the cart of the user.
+     *
+     * @param userId the unique code of the user.
+     * @return lines in the order the goods were added.
+     */
+    @Override
+    public List<CartLine> getCart(Long userId) {
+        return cartStore.lines(userId);
+    }
+
+    /**
+     * Returns the cart of the user with the goods and the totals.
+     *
+     * @param userId the unique code of the user.
+     * @return cart in the order the goods were added.
+     */
+    @Override
+    public CartDto getSummary(Long userId) {
+        return summary(cartStore.lines(userId));
+    }
+
+    /**
+     * Applies the changes to the cart in the given order.
+     * All changes are checked and all added goods are looked up before the cart is locked,
+     * then the changes are applied by one change of the store, which is discarded as a whole
+     * if a quantity exceeds the maximum.
+     *
+     * @param userId     the unique code of the user.
+     * @param operations changes of the cart.
+     * @return cart after the changes with the goods and the totals.
+     */
+    @Override
+    public CartDto apply(Long userId, List<CartOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new BadRequestException("Список изменений корзины пуст");
+        }
+
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new BadRequestException("Количество изменений корзины не может быть больше " + MAX_OPERATIONS);
+        }
+
+        Set<Long> added = new LinkedHashSet<>();
+
+        for (CartOperation operation : operations) {
+            if (operation == null || operation.getType() == null || operation.getGoodId() == null) {
+                throw new BadRequestException("Не указан тип изменения или товар");
+            }
+
+            int quantity = quantity(operation);
+
+            if (operation.getType() == CartOperation.Type.SET) {
+                if (quantity < 0) {
+                    throw new BadRequestException("Количество товара не может быть отрицательным");
+                }
+            } else {
+                checkPositive(quantity);
+            }
+
+            checkMax(quantity);
+
+            if (operation.getType() != CartOperation.Type.REMOVE && quantity > 0) {
+                added.add(operation.getGoodId());
+            }
+        }
+
+        if (!added.isEmpty() && goodService.findAllById(new ArrayList<>(added)).size() < added.size()) {
+            throw new NotFoundException("Товар не найден");
+        }
+
+        List<CartLine> lines = cartStore.update(userId, quantities -> {
+            for (CartOperation operation : operations) {
+                Long goodId = operation.getGoodId();
+                int quantity = quantity(operation);
+
+                switch (operation.getType()) {
+                    case ADD:
+                        int total = quantities.get(goodId) + quantity;
+                        checkMax(total);
+                        quantities.set(goodId, total);
+                        break;
+                    case REMOVE:
+                        quantities.set(goodId, Math.max(0, quantities.get(goodId) - quantity));
+                        break;
+                    default:
+                        quantities.set(goodId, quantity);
+                }
+            }
+        });
+
+        return summary(lines);
+    }
+
+    /**
+     * Adds the quantity of the good to the cart.
+     *
+     * @param userId   the unique code of the user.
+     * @param goodId   the unique code of the good.
+     * @param quantity added quantity.
+     * @return lines after the change.
+     */
+    @Override
+    public List<CartLine> add(Long userId, Long goodId, int quantity) {
+        checkPositive(quantity);
+        checkMax(quantity);
+        checkExists(goodId);
+
+        return cartStore.update(userId, quantities -> {
+            int total = quantities.get(goodId) + quantity;
+            checkMax(total);
+            quantities.set(goodId, total);
+        });
+    }
+
+    /**
+     * Removes the quantity of the good from the cart, the line is removed when its quantity reaches zero.
+     *
+     * @param userId   the unique code of the user.
+     * @param goodId   the unique code of the good.
+     * @param quantity removed quantity.
+     * @return lines after the change.
+     */
+    @Override
+    public List<CartLine> remove(Long userId, Long goodId, int quantity) {
+        checkPositive(quantity);
+
+        return cartStore.update(userId, quantities -> quantities.set(goodId, Math.max(0, quantities.get(goodId) - quantity)));
+    }
+
+    /**
+     * Sets the quantity of the good in the cart, zero removes the line.
+     *
+     * @param userId   the unique code of the user.
+     * @param goodId   the unique code of the good.
+     * @param quantity new quantity.
+     * @return lines after the change.
+     */
+    @Override
+    public List<CartLine> setQuantity(Long userId, Long goodId, int quantity) {
+        if (quantity < 0) {
+            throw new BadRequestException("Количество товара не может быть отрицательным");
+        }
+
+        checkMax(quantity);
+
+        if (quantity > 0) {
+            checkExists(goodId);
+        }
+
+        return cartStore.update(userId, quantities -> quantities.set(goodId, quantity));
+    }
+
+    /**
+     * Returns the cart with the goods of the lines, lines of removed goods are skipped.
+     */
+    private CartDto summary(List<CartLine> lines) {
+        if (lines.isEmpty()) {
+            return CartDto.of(Collections.emptyList());
+        }
+
+        List<Long> goodIds = new ArrayList<>(lines.size());
+
+        for (CartLine line : lines) {
+            goodIds.add(line.getGoodId());
+        }
+
+        Map<Long, Good> goods = new HashMap<>();
+
+        for (Good good : goodService.findAllById(goodIds)) {
+            goods.put(good.getId(), good);
+        }
+
+        List<CartLineDto> result = new ArrayList<>(lines.size());
+
+        for (CartLine line : lines) {
+            Good good = goods.get(line.getGoodId());
+
+            if (good != null) {
+                result.add(CartLineDto.of(line, good));
+            }
+        }
+
+        return CartDto.of(result);
+    }
+
+    private static int quantity(CartOperation operation) {
+        if (operation.getQuantity() != null) {
+            return operation.getQuantity();
+        }
+
+        if (operation.getType() == CartOperation.Type.SET) {
+            throw new BadRequestException("Не указано количество товара");
+        }
+
+        return 1;
+    }
+
+    private static void checkPositive(int quantity) {
+        if (quantity <= 0) {
+            throw new BadRequestException("Количество товара должно быть больше нуля");
+        }
+    }
+
+    private static void checkMax(int quantity) {
+        if (quantity > MAX_QUANTITY) {
+            throw new BadRequestException("Количество товара не может быть больше " + MAX_QUANTITY);
+        }
+    }
+
+    private void checkExists(Long goodId) {
+        if (goodService.findAllById(Collections.singletonList(goodId)).isEmpty()) {
+            throw new NotFoundException("Товар не найден");
+        }
+    }
+}
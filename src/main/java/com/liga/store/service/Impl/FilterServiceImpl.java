@@ -0,0 +1,128 @@
+package com.liga.store.service.Impl;
+
+import com.liga.store.catalog.CatalogFacetIndex;
+import com.liga.store.catalog.FacetDimension;
+import com.liga.store.catalog.FacetResult;
+import com.liga.store.domain.Good;
+import com.liga.store.domain.dto.FacetPage;
+import com.liga.store.exeptions.BadRequestException;
+import com.liga.store.service.FilterService;
+import com.liga.store.service.GoodService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The service layer class implements the faceted filtering of {@link Good} objects
+ * in the {@link FilterService} interface.
+ * Filters and facet counts are evaluated on the bitmaps of the in-memory {@link CatalogFacetIndex},
+ * the database is queried only to load the goods of the page.
+ * The class is marked with the @Service annotation - an annotation announcing that this class
+ * is a service - a component of the service layer. Service is a subtype of @Component class.
+ * Using this annotation will automatically search for service beans.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see FilterService
+ * @see CatalogFacetIndex
+ */
+@Slf4j
+@Service
+public class FilterServiceImpl implements FilterService {
+    /**
+     * Bitmap index of goods.
+     */
+    private final CatalogFacetIndex facetIndex;
+
+    /**
+     * Service object for working with products.
+     */
+    private final GoodService goodService;
+
+    /**
+     * Page size used if the client did not request it.
+     */
+    @Value("${catalog.page.default-size:20}")
+    private int defaultPageSize;
+
+    /**
+     * Maximum page size.
+     */
+    @Value("${catalog.page.max-size:100}")
+    private int maxPageSize;
+
+    /**
+     * Maximum number of values returned for every attribute.
+     */
+    @Value("${catalog.facet.max-values:50}")
+    private int maxFacetValues;
+
+    /**
+     * Constructor for initializing the main variables of the filter service.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param facetIndex  bitmap index of goods.
+     * @param goodService service object for working with products.
+     */
+    @Autowired
+    public FilterServiceImpl(CatalogFacetIndex facetIndex, GoodService goodService) {
+        this.facetIndex = facetIndex;
+        this.goodService = goodService;
+    }
+
+    /**
+     * Returns one page of goods matching the filter together with the facet counts.
+     *
+     * @param producers good manufacturers.
+     * @param countries manufacturer countries.
+     * @param types     types of goods.
+     * @param yearFrom  the minimum year of release or {@code null}.
+     * @param yearTo    the maximum year of release or {@code null}.
+     * @param after     the unique code of the last good of the previous page or {@code null} for the first page.
+     * @param size      requested page size or {@code null} for the default size.
+     * @return {@link FacetPage}.
+     */
+    @Override
+    public FacetPage filter(List<String> producers, List<String> countries, List<String> types,
+                            Integer yearFrom, Integer yearTo, Long after, Integer size) {
+        if (yearFrom != null && yearTo != null && yearFrom > yearTo) {
+            throw new BadRequestException("Некорректный диапазон годов");
+        }
+
+        if (!facetIndex.isReady()) {
+            log.warn("Facet index is not loaded yet, filter skipped");
+            return new FacetPage(new ArrayList<>(), 0, null, new LinkedHashMap<>());
+        }
+
+        Map<FacetDimension, Set<String>> selected = new EnumMap<>(FacetDimension.class);
+        select(selected, FacetDimension.PRODUCER, producers);
+        select(selected, FacetDimension.COUNTRY, countries);
+        select(selected, FacetDimension.TYPE, types);
+
+        int pageSize = Math.min(size == null || size < 1 ? defaultPageSize : size, maxPageSize);
+        FacetResult result = facetIndex.query(selected, yearFrom, yearTo, after, pageSize, maxFacetValues);
+
+        List<Good> content = goodService.findAllById(result.getIds());
+        Long nextCursor = result.isHasNext() ? result.getIds().get(result.getIds().size() - 1) : null;
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        result.getFacets().forEach((dimension, counts) -> facets.put(dimension.getKey(), counts));
+
+        return new FacetPage(content, result.getTotal(), nextCursor, facets);
+    }
+
+    private static void select(Map<FacetDimension, Set<String>> selected, FacetDimension dimension, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            selected.put(dimension, new HashSet<>(values));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.liga.store.service.Impl;
+
+import com.liga.store.domain.Good;
+import com.liga.store.events.CatalogImportedEvent;
+import com.liga.store.exeptions.NotFoundException;
+import com.liga.store.imports.GoodImportFormat;
+import com.liga.store.imports.GoodImportJob;
+import com.liga.store.imports.GoodImporter;
+import com.liga.store.service.GoodImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The service layer class implements the bulk import of {@link Good} objects
+ * in the {@link GoodImportService} interface.
+ * Uploaded files are saved to temporary files and imported one at a time by a background thread,
+ * after the import the in-memory catalog is reloaded by the {@link CatalogImportedEvent}.
+ * The class is marked with the @Service annotation - an annotation announcing that this class
+ * is a service - a component of the service layer. Service is a subtype of @Component class.
+ * Using this annotation will automatically search for service beans.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see GoodImportService
+ * @see GoodImporter
+ */
+@Slf4j
+@Service
+public class GoodImportServiceImpl implements GoodImportService {
+    /**
+     * Number of finished jobs kept for the progress requests.
+     */
+    private static final int MAX_KEPT_JOBS = 20;
+
+    /**
+     * Streaming importer of goods.
+     */
+    private final GoodImporter goodImporter;
+
+    /**
+     * Publisher of the {@link CatalogImportedEvent}.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Thread running the imports one at a time.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "good-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Recent jobs by the unique code, the oldest first.
+     */
+    private final Map<String, GoodImportJob> jobs = Collections.synchronizedMap(
+            new LinkedHashMap<String, GoodImportJob>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, GoodImportJob> eldest) {
+                    return size() > MAX_KEPT_JOBS && eldest.getValue().getFinishedAt() != null;
+                }
+            });
+
+    /**
+     * Maximum number of row errors kept in a job.
+     */
+    @Value("${catalog.import.max-errors:100}")
+    private int maxErrors;
+
+    /**
+     * Constructor for initializing the main variables of the import service.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param goodImporter   streaming importer of goods.
+     * @param eventPublisher publisher of the {@link CatalogImportedEvent}.
+     */
+    @Autowired
+    public GoodImportServiceImpl(GoodImporter goodImporter, ApplicationEventPublisher eventPublisher) {
+        this.goodImporter = goodImporter;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Saves the uploaded catalog file and starts its import in the background.
+     *
+     * @param file   uploaded CSV or JSON file.
+     * @param format format of the file or {@code null} to take it from the file name.
+     * @return the started {@link GoodImportJob}.
+     * @throws IOException if the file cannot be saved.
+     */
+    @Override
+    public GoodImportJob start(MultipartFile file, String format) throws IOException {
+        GoodImportFormat importFormat = GoodImportFormat.of(format, file.getOriginalFilename());
+        Path path = Files.createTempFile("goods-import-", "." + importFormat.name().toLowerCase(Locale.ROOT));
+        file.transferTo(path.toFile());
+
+        GoodImportJob job = new GoodImportJob(file.getOriginalFilename(), maxErrors);
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(path, importFormat, job));
+
+        return job;
+    }
+
+    /**
+     * Returns the import job.
+     *
+     * @param id the unique code of the job.
+     * @return The {@link GoodImportJob} class object.
+     */
+    @Override
+    public GoodImportJob findById(String id) {
+        GoodImportJob job = jobs.get(id);
+
+        if (job == null) {
+            throw new NotFoundException("Импорт не найден");
+        }
+
+        return job;
+    }
+
+    /**
+     * Returns the recent import jobs, the newest first.
+     *
+     * @return list of {@link GoodImportJob}.
+     */
+    @Override
+    public List<GoodImportJob> findAll() {
+        List<GoodImportJob> recent;
+
+        synchronized (jobs) {
+            recent = new ArrayList<>(jobs.values());
+        }
+
+        Collections.reverse(recent);
+
+        return recent;
+    }
+
+    /**
+     * Stops the import thread when the application is stopped.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Imports the saved file, deletes it and reloads the catalog if goods were written.
+     */
+    private void run(Path path, GoodImportFormat format, GoodImportJob job) {
+        try (InputStream input = Files.newInputStream(path)) {
+            goodImporter.run(input, format, job);
+        } catch (IOException e) {
+            job.fail(e.getMessage());
+            log.error("Import {} failed", job.getId(), e);
+        } finally {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Cannot delete import file {}", path, e);
+            }
+        }
+
+        if (job.getImported() > 0) {
+            eventPublisher.publishEvent(new CatalogImportedEvent(job.getId(), job.getImported()));
+        }
+    }
+}
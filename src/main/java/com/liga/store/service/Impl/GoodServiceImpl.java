@@ -1,13 +1,38 @@
 package com.liga.store.service.Impl;
 
+import com.liga.store.catalog.CatalogEngine;
+import com.liga.store.catalog.CatalogPriceIndex;
+import com.liga.store.catalog.CatalogSnapshot;
+import com.liga.store.catalog.PriceIndex;
 import com.liga.store.domain.Good;
+import com.liga.store.domain.GoodSort;
+import com.liga.store.domain.dto.GoodCursor;
+import com.liga.store.domain.dto.GoodPage;
+import com.liga.store.domain.dto.GoodUpdate;
+import com.liga.store.events.GoodChangedEvent;
+import com.liga.store.exeptions.BadRequestException;
+import com.liga.store.exeptions.ConflictException;
+import com.liga.store.fields.FieldPlan;
+import com.liga.store.fields.FieldPlanners;
 import com.liga.store.repos.GoodRepository;
 import com.liga.store.service.GoodService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * The service layer class implements the accessor methods of {@link Good} objects
@@ -15,31 +40,78 @@ import java.util.List;
  * The class is marked with the @Service annotation - an annotation announcing that this class
  * is a service - a component of the service layer. Service is a subtype of @Component class.
  * Using this annotation will automatically search for service beans.
+ * Finder methods run in read-only transactions, which are served by the replica database when one is configured.
  *
  * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
  * @version 1.0
  * @see Good
  * @see GoodService
  * @see GoodRepository
+ * @see CatalogEngine
+ * @see CatalogPriceIndex
  */
 @Service
 public class GoodServiceImpl implements GoodService {
+    /**
+     * Maximum number of goods updated with one statement.
+     */
+    private static final int UPDATE_BATCH_SIZE = 1000;
+
+    /**
+     * Maximum number of goods loaded with one query, keeps the IN list far below the bind parameter limit.
+     */
+    private static final int LOAD_BATCH_SIZE = 1000;
+
     /**
      * Implementation of the {@link GoodRepository} interface
      * for working with perfumes with a database.
      */
     private final GoodRepository goodRepository;
 
+    /**
+     * In-memory catalog which serves reads when it is enabled.
+     */
+    private final CatalogEngine catalogEngine;
+
+    /**
+     * In-memory index of good prices.
+     */
+    private final CatalogPriceIndex priceIndex;
+
+    /**
+     * Publisher of the {@link GoodChangedEvent} events.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Page size of the catalog listing if the client did not request it.
+     */
+    @Value("${catalog.page.default-size:20}")
+    private int defaultPageSize;
+
+    /**
+     * Maximum page size of the catalog listing.
+     */
+    @Value("${catalog.page.max-size:100}")
+    private int maxPageSize;
+
     /**
      * Constructor for initializing the main variables of the order service.
      * The @Autowired annotation will allow Spring to automatically initialize objects.
      *
      * @param goodRepository implementation of the {@link GoodRepository} interface
      *                        for working with perfumes with a database.
+     * @param catalogEngine  in-memory catalog which serves reads when it is enabled.
+     * @param priceIndex     in-memory index of good prices.
+     * @param eventPublisher publisher of the {@link GoodChangedEvent} events.
      */
     @Autowired
-    public GoodServiceImpl(GoodRepository goodRepository) {
+    public GoodServiceImpl(GoodRepository goodRepository, CatalogEngine catalogEngine,
+                           CatalogPriceIndex priceIndex, ApplicationEventPublisher eventPublisher) {
         this.goodRepository = goodRepository;
+        this.catalogEngine = catalogEngine;
+        this.priceIndex = priceIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -48,14 +120,133 @@ public class GoodServiceImpl implements GoodService {
      * @return list of {@link Good}.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Good> findAll() {
-        return goodRepository.findAll();
+        CatalogSnapshot snapshot = catalogEngine.current();
+
+        return snapshot != null ? snapshot.all() : goodRepository.findAll();
+    }
+
+    /**
+     * Returns one page of the catalog listing using keyset pagination.
+     * One extra good is requested from the database to find out whether there is a next page.
+     *
+     * @param cursor encoded cursor of the page or {@code null} for the first page.
+     * @param size   requested page size or {@code null} for the default size.
+     * @param sort   sort order of the listing.
+     * @return The {@link GoodPage} class object.
+     */
+    @Override
+    public GoodPage findPage(String cursor, Integer size, GoodSort sort) {
+        return findPage(cursor, size, sort, FieldPlanners.GOOD.plan(null));
+    }
+
+    /**
+     * Returns one page of the catalog listing with only the columns of the sparse fieldset.
+     * A narrowed fieldset is read with one tuple query selecting only its columns.
+     *
+     * @param cursor encoded cursor of the page or {@code null} for the first page.
+     * @param size   requested page size or {@code null} for the default size.
+     * @param sort   sort order of the listing.
+     * @param plan   compiled sparse fieldset.
+     * @return The {@link GoodPage} class object.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public GoodPage findPage(String cursor, Integer size, GoodSort sort, FieldPlan plan) {
+        int pageSize = size == null ? defaultPageSize : size;
+
+        if (pageSize < 1) {
+            throw new BadRequestException("Размер страницы должен быть больше нуля");
+        }
+
+        pageSize = Math.min(pageSize, maxPageSize);
+        GoodCursor position = cursor == null ? GoodCursor.first(sort) : GoodCursor.decode(cursor, sort);
+        List<Good> goods = plan.isAll()
+                ? findAfter(position, PageRequest.of(0, pageSize + 1))
+                : goodRepository.findPage(position, plan.getColumns(), pageSize + 1);
+
+        if (goods.size() <= pageSize) {
+            return new GoodPage(goods, sort, null);
+        }
+
+        List<Good> content = goods.subList(0, pageSize);
+        String nextCursor = GoodCursor.after(sort, content.get(pageSize - 1)).encode();
+
+        return new GoodPage(content, sort, nextCursor);
+    }
+
+    /**
+     * Returns goods placed after the cursor in the sort order of the cursor.
+     *
+     * @param cursor   position of the last good of the previous page.
+     * @param pageable page size.
+     * @return list of {@link Good}.
+     */
+    private List<Good> findAfter(GoodCursor cursor, Pageable pageable) {
+        switch (cursor.getSort()) {
+            case ID_DESC:
+                return goodRepository.findByIdLessThanOrderByIdDesc(cursor.getId(), pageable);
+            case PRICE_ASC:
+                return goodRepository.findPageByPriceAsc(cursor.getPrice(), cursor.getId(), pageable);
+            case PRICE_DESC:
+                return goodRepository.findPageByPriceDesc(cursor.getPrice(), cursor.getId(), pageable);
+            default:
+                return goodRepository.findByIdGreaterThanOrderByIdAsc(cursor.getId(), pageable);
+        }
     }
 
 
 
+    /**
+     * Returns goods with the given unique codes in the same order.
+     * Goods are taken from the in-memory catalog when it is enabled, otherwise they are loaded
+     * with one query per {@value #LOAD_BATCH_SIZE} unique codes.
+     *
+     * @param ids the unique codes of goods.
+     * @return list of {@link Good}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Good> findAllById(List<Long> ids) {
+        CatalogSnapshot snapshot = catalogEngine.current();
+        List<Good> goods = new ArrayList<>(ids.size());
+
+        if (snapshot != null) {
+            for (Long id : ids) {
+                Good good = snapshot.get(id);
+
+                if (good != null) {
+                    goods.add(good);
+                }
+            }
+            return goods;
+        }
+
+        Map<Long, Good> byId = new HashMap<>(ids.size());
+
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size()));
+
+            for (Good good : goodRepository.findAllById(chunk)) {
+                byId.put(good.getId(), good);
+            }
+        }
+
+        for (Long id : ids) {
+            Good good = byId.get(id);
+
+            if (good != null) {
+                goods.add(good);
+            }
+        }
+
+        return goods;
+    }
+
     /**
      * Returns list of goods in which the price is in the range between of starting price and ending price.
+     * The unique codes of the goods are found in the price index, goods are ordered by price.
      * A {@link List} is a sublist of a list of objects.
      *
      * @param startingPrice The starting price of the product that the user enters.
@@ -63,8 +254,24 @@ public class GoodServiceImpl implements GoodService {
      * @return list of {@link Good}.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Good> findByPriceBetween(Integer startingPrice, Integer endingPrice) {
-        return null;
+        int from = startingPrice == null ? Integer.MIN_VALUE : startingPrice;
+        int to = endingPrice == null ? Integer.MAX_VALUE : endingPrice;
+        PriceIndex index = priceIndex.current();
+
+        if (index == null) {
+            return goodRepository.findByPriceBetween(from, to);
+        }
+
+        long[] ids = index.findIdsBetween(from, to);
+        List<Long> keys = new ArrayList<>(ids.length);
+
+        for (long id : ids) {
+            keys.add(id);
+        }
+
+        return findAllById(keys);
     }
 
     /**
@@ -75,8 +282,11 @@ public class GoodServiceImpl implements GoodService {
      * @return list of {@link Good}.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Good> findByProducer(String producer) {
-        return null;
+        CatalogSnapshot snapshot = catalogEngine.current();
+
+        return snapshot != null ? snapshot.findByProducer(producer) : goodRepository.findByProducer(producer);
     }
 
     /**
@@ -89,8 +299,9 @@ public class GoodServiceImpl implements GoodService {
      * @return list of {@link Good}.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Good> findByGoodOrGoodTitle(String producer, String goodTitle) {
-        return goodRepository.findByGoodOrGoodTitle(producer, goodTitle);
+        return goodRepository.findByProducerOrTitle(producer, goodTitle);
     }
 
     /**
@@ -99,8 +310,15 @@ public class GoodServiceImpl implements GoodService {
      * @return minimum price {@link Good}.
      */
     @Override
+    @Transactional(readOnly = true)
     public BigDecimal minGoodPrice() {
-        return goodRepository.minGoodPrice();
+        PriceIndex index = priceIndex.current();
+
+        if (index == null) {
+            return goodRepository.minGoodPrice();
+        }
+
+        return index.getMinPrice() == null ? null : BigDecimal.valueOf(index.getMinPrice());
     }
 
 
@@ -110,34 +328,117 @@ public class GoodServiceImpl implements GoodService {
      * @return maximum price {@link Good}.
      */
     @Override
+    @Transactional(readOnly = true)
     public BigDecimal maxGoodPrice() {
-        return goodRepository.maxGoodPrice();
+        PriceIndex index = priceIndex.current();
+
+        if (index == null) {
+            return goodRepository.maxGoodPrice();
+        }
+
+        return index.getMaxPrice() == null ? null : BigDecimal.valueOf(index.getMaxPrice());
     }
 
     /**
      * Save updated good.
+     * Fields with the {@code null} value are not changed.
      *
-     * @param producer              good manufacturer to update.
-     * @param year                  the year the good was released to update.
-     * @param country               manufacturer country to update.
-     * @param price                 good price to update.
-     * @param type                  type of fragrance to update.
-     * @param id                    the unique code of the good to update.
+     * @param goodTitle   good title to update.
+     * @param producer    good manufacturer to update.
+     * @param year        the year the good was released to update.
+     * @param country     manufacturer country to update.
+     * @param description good description to update.
+     * @param price       good price to update.
+     * @param type        type of good to update.
+     * @param id          the unique code of the good to update.
      */
     @Override
-    public void saveProductInfoById(String goodTitle, String producer, Integer year, String country, String description, Integer price, String type, Long id) {
+    public void saveProductInfoById(String goodTitle, String producer, Integer year, String country,
+                                    String description, Integer price, String type, Long id) {
+        update(Collections.singletonList(id),
+                new GoodUpdate(goodTitle, producer, year, country, description, price, null, type));
+    }
+
+    /**
+     * Updates the changed fields of the goods.
+     * Every chunk of unique codes is updated with one UPDATE statement which sets only the changed columns,
+     * so concurrent changes of the other fields are not overwritten.
+     * The @Transactional annotation - before the execution of the method marked with this annotation,
+     * a transaction starts, after the method is executed, the transaction is committed,
+     * and when a RuntimeException is thrown, it is rolled back.
+     *
+     * @param ids    the unique codes of the goods to update.
+     * @param update changed fields.
+     * @return number of updated goods.
+     */
+    @Override
+    @Transactional
+    public int update(List<Long> ids, GoodUpdate update) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("Не указаны товары");
+        }
+
+        if (update == null || update.isEmpty()) {
+            throw new BadRequestException("Не указаны изменяемые поля");
+        }
+
+        if (isBlank(update.getTitle()) || isBlank(update.getProducer())) {
+            throw new BadRequestException("Название и производитель не могут быть пустыми");
+        }
 
+        if (ids.size() > 1 && update.getTitle() != null && update.getProducer() != null) {
+            throw new BadRequestException("Нельзя задать одинаковые название и производителя нескольким товарам");
+        }
+
+        List<Long> unique = ids.stream().distinct().collect(Collectors.toList());
+        int updated = 0;
+
+        try {
+            for (int from = 0; from < unique.size(); from += UPDATE_BATCH_SIZE) {
+                List<Long> chunk = unique.subList(from, Math.min(from + UPDATE_BATCH_SIZE, unique.size()));
+                updated += goodRepository.updateFields(chunk, update);
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Товар с таким названием и производителем уже существует");
+        }
+
+        eventPublisher.publishEvent(new GoodChangedEvent(unique));
+
+        return updated;
     }
 
+    /**
+     * Returns true if the value is set to a blank string.
+     */
+    private static boolean isBlank(String value) {
+        return value != null && value.trim().isEmpty();
+    }
 
     /**
      * Save good info.
+     * A good is saved only if nobody changed it since its version was read,
+     * an existing good can not be saved without the version.
      *
      * @param good good object to return.
      * @return The {@link Good} class object which will be saved in the database.
+     * @throws ConflictException if the good is changed by somebody else or the version of an existing good is missing.
      */
     @Override
     public Good save(Good good) {
-        return goodRepository.save(good);
+        if (good.getId() != null && good.getVersion() == null && goodRepository.existsById(good.getId())) {
+            throw new ConflictException("Не указана версия товара, обновите страницу");
+        }
+
+        Good saved;
+
+        try {
+            saved = goodRepository.save(good);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConflictException("Товар был изменен, обновите страницу");
+        }
+
+        eventPublisher.publishEvent(GoodChangedEvent.of(saved.getId()));
+
+        return saved;
     }
 }
@@ -1,13 +1,30 @@
 package com.liga.store.service.Impl;
 
+import com.liga.store.domain.Good;
 import com.liga.store.domain.Order;
 import com.liga.store.domain.User;
+import com.liga.store.domain.dto.OrderDto;
+import com.liga.store.domain.dto.OrderLineDto;
+import com.liga.store.domain.projection.OrderLineView;
+import com.liga.store.domain.projection.OrderView;
+import com.liga.store.events.OrderPlacedEvent;
+import com.liga.store.fields.FieldPlan;
+import com.liga.store.inventory.InventoryEngine;
+import com.liga.store.inventory.InventoryReservation;
 import com.liga.store.repos.OrderRepository;
 import com.liga.store.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * The service layer class implements the accessor methods of {@link Order} objects
@@ -15,6 +32,7 @@ import java.util.List;
  * The class is marked with the @Service annotation - an annotation announcing that this class
  * is a service - a component of the service layer. Service is a subtype of @Component class.
  * Using this annotation will automatically search for service beans.
+ * Order history is read in read-only transactions, so it is served by the replica database when one is configured.
  *
  * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
  * @version 1.0
@@ -30,16 +48,31 @@ public class OrderServiceImpl implements OrderService {
      */
     private final OrderRepository orderRepository;
 
+    /**
+     * Publisher of the {@link OrderPlacedEvent}.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * In-memory stock of goods.
+     */
+    private final InventoryEngine inventoryEngine;
+
     /**
      * Constructor for initializing the main variables of the order service.
      * The @Autowired annotation will allow Spring to automatically initialize objects.
      *
      * @param orderRepository implementation of the {@link OrderRepository} interface
      *                        for working with orders with a database.
+     * @param eventPublisher  publisher of the {@link OrderPlacedEvent}.
+     * @param inventoryEngine in-memory stock of goods.
      */
     @Autowired
-    public OrderServiceImpl(OrderRepository orderRepository) {
+    public OrderServiceImpl(OrderRepository orderRepository, ApplicationEventPublisher eventPublisher,
+                            InventoryEngine inventoryEngine) {
         this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+        this.inventoryEngine = inventoryEngine;
     }
 
     /**
@@ -48,19 +81,35 @@ public class OrderServiceImpl implements OrderService {
      * @return list of user {@link Order}.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Order> findAll() {
         return orderRepository.findAll();
     }
 
     /**
-     * Save order info.
+     * Reserves the ordered goods, saves order info and publishes the {@link OrderPlacedEvent}.
+     * The order fails before it is saved if the stock of a good is insufficient,
+     * the reservation is released if the order is not saved.
      *
      * @param order order object to return.
      * @return The {@link Order} class object which will be saved in the database.
      */
     @Override
     public Order save(Order order) {
-        return orderRepository.save(order);
+        InventoryReservation reservation = inventoryEngine.reserve(quantities(order));
+        Order savedOrder;
+
+        try {
+            savedOrder = orderRepository.save(order);
+        } catch (RuntimeException e) {
+            inventoryEngine.release(reservation.getId());
+            throw e;
+        }
+
+        inventoryEngine.commit(reservation.getId());
+        eventPublisher.publishEvent(OrderPlacedEvent.of(savedOrder));
+
+        return savedOrder;
     }
 
     /**
@@ -70,7 +119,104 @@ public class OrderServiceImpl implements OrderService {
      * @return An object of type {@link List} is a list of orders of authenticated user.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Order> findOrderByUser(User user) {
         return orderRepository.findOrderByUser(user);
     }
+
+    /**
+     * Returns orders of the user with their goods.
+     * Orders and their goods are read with two queries of projections,
+     * the goods are not read if they are not requested.
+     *
+     * @param userId the unique code of the user.
+     * @param plan   compiled sparse fieldset.
+     * @return list of {@link OrderDto}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDto> findDtosByUserId(Long userId, FieldPlan plan) {
+        List<OrderView> orders = plan.isAll()
+                ? orderRepository.findViewsByUserId(userId)
+                : orderRepository.findViews(userId, plan.getColumns());
+
+        if (orders.isEmpty() || !plan.includes("goodList")) {
+            return toDtos(orders, Collections.emptyList());
+        }
+
+        List<Long> ids = orders.stream().map(OrderView::getId).collect(Collectors.toList());
+
+        return toDtos(orders, orderRepository.findLinesByOrderIds(ids));
+    }
+
+    /**
+     * Returns all orders with their goods.
+     * Orders and their goods are read with two queries of projections,
+     * the goods are not read if they are not requested.
+     *
+     * @param plan compiled sparse fieldset.
+     * @return list of {@link OrderDto}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDto> findAllDtos(FieldPlan plan) {
+        if (plan.isAll()) {
+            return toDtos(orderRepository.findAllViews(), orderRepository.findAllLines());
+        }
+
+        List<OrderView> orders = orderRepository.findViews(null, plan.getColumns());
+
+        return toDtos(orders, plan.includes("goodList") ? orderRepository.findAllLines() : Collections.emptyList());
+    }
+
+    /**
+     * Returns the latest order with its goods.
+     *
+     * @return The {@link OrderDto} class object or {@code null} if there are no orders.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OrderDto findLatestDto() {
+        List<OrderView> latest = orderRepository.findLatestViews(PageRequest.of(0, 1));
+
+        if (latest.isEmpty()) {
+            return null;
+        }
+
+        OrderView order = latest.get(0);
+
+        return toDtos(latest, orderRepository.findLinesByOrderIds(Collections.singletonList(order.getId()))).get(0);
+    }
+
+    /**
+     * Joins the orders with their goods.
+     */
+    private static List<OrderDto> toDtos(List<OrderView> orders, List<OrderLineView> lines) {
+        Map<Long, List<OrderLineDto>> goodsByOrder = new HashMap<>();
+
+        for (OrderLineView line : lines) {
+            goodsByOrder.computeIfAbsent(line.getOrderId(), id -> new ArrayList<>()).add(OrderLineDto.of(line));
+        }
+
+        List<OrderDto> dtos = new ArrayList<>(orders.size());
+
+        for (OrderView order : orders) {
+            dtos.add(OrderDto.of(order, goodsByOrder.getOrDefault(order.getId(), Collections.emptyList())));
+        }
+
+        return dtos;
+    }
+
+    /**
+     * Returns the ordered quantities by the unique code of the good, a good is ordered once per line.
+     */
+    private static Map<Long, Integer> quantities(Order order) {
+        Map<Long, Integer> quantities = new HashMap<>();
+
+        for (Good good : order.getGoodList()) {
+            quantities.merge(good.getId(), 1, Integer::sum);
+        }
+
+        return quantities;
+    }
 }
@@ -0,0 +1,153 @@
+package com.liga.store.service.Impl;
+
+import com.liga.store.domain.Good;
+import com.liga.store.exeptions.BadRequestException;
+import com.liga.store.search.CatalogFuzzyIndex;
+import com.liga.store.search.CatalogSearchIndex;
+import com.liga.store.search.CatalogSuggestIndex;
+import com.liga.store.search.SearchHit;
+import com.liga.store.service.GoodService;
+import com.liga.store.service.SearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The service layer class implements the full-text search of {@link Good} objects
+ * in the {@link SearchService} interface.
+ * Goods are found in the in-memory {@link CatalogSearchIndex}, the database is queried only
+ * to load the found goods.
+ * The class is marked with the @Service annotation - an annotation announcing that this class
+ * is a service - a component of the service layer. Service is a subtype of @Component class.
+ * Using this annotation will automatically search for service beans.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see SearchService
+ * @see CatalogSearchIndex
+ */
+@Slf4j
+@Service
+public class SearchServiceImpl implements SearchService {
+    /**
+     * Full-text index of goods.
+     */
+    private final CatalogSearchIndex searchIndex;
+
+    /**
+     * Autocomplete index of titles and manufacturers.
+     */
+    private final CatalogSuggestIndex suggestIndex;
+
+    /**
+     * Typo-tolerant index of titles and manufacturers.
+     */
+    private final CatalogFuzzyIndex fuzzyIndex;
+
+    /**
+     * Service object for working with products.
+     */
+    private final GoodService goodService;
+
+    /**
+     * Number of goods returned if the client did not request it.
+     */
+    @Value("${search.default-results:20}")
+    private int defaultResults;
+
+    /**
+     * Maximum number of goods returned by one search.
+     */
+    @Value("${search.max-results:100}")
+    private int maxResults;
+
+    /**
+     * Constructor for initializing the main variables of the search service.
+     * The @Autowired annotation will allow Spring to automatically initialize objects.
+     *
+     * @param searchIndex  full-text index of goods.
+     * @param suggestIndex autocomplete index of titles and manufacturers.
+     * @param fuzzyIndex   typo-tolerant index of titles and manufacturers.
+     * @param goodService  service object for working with products.
+     */
+    @Autowired
+    public SearchServiceImpl(CatalogSearchIndex searchIndex, CatalogSuggestIndex suggestIndex,
+                             CatalogFuzzyIndex fuzzyIndex, GoodService goodService) {
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.fuzzyIndex = fuzzyIndex;
+        this.goodService = goodService;
+    }
+
+    /**
+     * Returns the most relevant goods for the query.
+     *
+     * @param query text entered by the user.
+     * @param limit maximum number of goods or {@code null} for the default number.
+     * @return list of {@link Good} ordered by relevance.
+     */
+    @Override
+    public List<Good> search(String query, Integer limit) {
+        if (StringUtils.isEmpty(query) || query.trim().isEmpty()) {
+            throw new BadRequestException("Поисковый запрос не может быть пустым");
+        }
+
+        if (!searchIndex.isReady()) {
+            log.warn("Search index is not loaded yet, query '{}' skipped", query);
+            return new ArrayList<>();
+        }
+
+        int size = Math.min(limit == null || limit < 1 ? defaultResults : limit, maxResults);
+        List<Long> ids = searchIndex.search(query, size).stream()
+                .map(SearchHit::getId)
+                .collect(Collectors.toList());
+
+        return goodService.findAllById(ids);
+    }
+
+    /**
+     * Returns goods whose title or manufacturer matches the query with typos.
+     *
+     * @param query text entered by the user.
+     * @param limit maximum number of goods or {@code null} for the default number.
+     * @return list of {@link Good} ordered by relevance.
+     */
+    @Override
+    public List<Good> fuzzySearch(String query, Integer limit) {
+        if (StringUtils.isEmpty(query) || query.trim().isEmpty()) {
+            throw new BadRequestException("Поисковый запрос не может быть пустым");
+        }
+
+        if (!fuzzyIndex.isReady()) {
+            log.warn("Fuzzy search index is not loaded yet, query '{}' skipped", query);
+            return new ArrayList<>();
+        }
+
+        int size = Math.min(limit == null || limit < 1 ? defaultResults : limit, maxResults);
+
+        return goodService.findAllById(fuzzyIndex.search(query, size));
+    }
+
+    /**
+     * Returns the most popular titles and manufacturers of goods which start with the prefix.
+     *
+     * @param prefix text entered by the user.
+     * @param limit  maximum number of suggestions or {@code null} for the maximum number.
+     * @return texts of the suggestions, the most popular first.
+     */
+    @Override
+    public List<String> suggest(String prefix, Integer limit) {
+        if (StringUtils.isEmpty(prefix) || prefix.trim().isEmpty() || !suggestIndex.isReady()) {
+            return new ArrayList<>();
+        }
+
+        return suggestIndex.complete(prefix, limit == null || limit < 1 ? Integer.MAX_VALUE : limit);
+    }
+}
@@ -2,6 +2,8 @@ package com.liga.store.service.Impl;
 
 import com.liga.store.domain.Role;
 import com.liga.store.domain.User;
+import com.liga.store.domain.dto.UserDto;
+import com.liga.store.domain.projection.UserRoleView;
 import com.liga.store.repos.UserRepository;
 import com.liga.store.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +14,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
@@ -166,10 +169,31 @@ public class UserServiceImpl implements UserDetailsService, UserService {
      * @return list of {@link User}.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<User> findAll() {
         return userRepository.findAll();
     }
 
+    /**
+     * Return list of all registered users without passwords and carts.
+     * Users and their roles are read with two queries of projections.
+     *
+     * @return list of {@link UserDto}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> findAllDtos() {
+        Map<Long, Set<Role>> rolesByUser = new HashMap<>();
+
+        for (UserRoleView role : userRepository.findAllRoles()) {
+            rolesByUser.computeIfAbsent(role.getUserId(), id -> EnumSet.noneOf(Role.class)).add(role.getRole());
+        }
+
+        return userRepository.findAllViews().stream()
+                .map(user -> UserDto.of(user, rolesByUser.getOrDefault(user.getId(), Collections.emptySet())))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Save updated user with set of roles.
      *
@@ -2,6 +2,8 @@ package com.liga.store.service;
 
 import com.liga.store.domain.Order;
 import com.liga.store.domain.User;
+import com.liga.store.domain.dto.OrderDto;
+import com.liga.store.fields.FieldPlan;
 import com.liga.store.service.Impl.OrderServiceImpl;
 
 import java.util.List;
@@ -23,10 +25,11 @@ public interface OrderService {
     List<Order> findAll();
 
     /**
-     * Save order info.
+     * Save order info and takes the ordered goods from the stock.
      *
      * @param order order object to return.
      * @return The {@link Order} class object which will be saved in the database.
+     * @throws com.liga.store.exeptions.ConflictException if the stock of a good is insufficient.
      */
     Order save(Order order);
 
@@ -37,4 +40,30 @@ public interface OrderService {
      * @return An object of type {@link List} is a list of orders of authenticated user.
      */
     List<Order> findOrderByUser(User user);
+
+    /**
+     * Returns orders of the user with their goods.
+     * Only the columns of the sparse fieldset are selected from the database.
+     *
+     * @param userId the unique code of the user.
+     * @param plan   compiled sparse fieldset.
+     * @return list of {@link OrderDto}.
+     */
+    List<OrderDto> findDtosByUserId(Long userId, FieldPlan plan);
+
+    /**
+     * Returns all orders with their goods.
+     * Only the columns of the sparse fieldset are selected from the database.
+     *
+     * @param plan compiled sparse fieldset.
+     * @return list of {@link OrderDto}.
+     */
+    List<OrderDto> findAllDtos(FieldPlan plan);
+
+    /**
+     * Returns the latest order with its goods.
+     *
+     * @return The {@link OrderDto} class object or {@code null} if there are no orders.
+     */
+    OrderDto findLatestDto();
 }
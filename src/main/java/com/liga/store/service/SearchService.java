@@ -0,0 +1,45 @@
+package com.liga.store.service;
+
+import com.liga.store.domain.Good;
+import com.liga.store.service.Impl.SearchServiceImpl;
+
+import java.util.List;
+
+/**
+ * The service layer interface describes a set of methods for the full-text search of {@link Good} objects.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see Good
+ * @see SearchServiceImpl
+ */
+public interface SearchService {
+    /**
+     * Returns the most relevant goods for the query.
+     * Title, manufacturer, description, country and type of goods are searched.
+     *
+     * @param query text entered by the user.
+     * @param limit maximum number of goods or {@code null} for the default number.
+     * @return list of {@link Good} ordered by relevance.
+     */
+    List<Good> search(String query, Integer limit);
+
+    /**
+     * Returns goods whose title or manufacturer matches the query with typos.
+     * Goods matching more words of the query go first, then goods with fewer typos.
+     *
+     * @param query text entered by the user.
+     * @param limit maximum number of goods or {@code null} for the default number.
+     * @return list of {@link Good} ordered by relevance.
+     */
+    List<Good> fuzzySearch(String query, Integer limit);
+
+    /**
+     * Returns the most popular titles and manufacturers of goods which start with the prefix.
+     *
+     * @param prefix text entered by the user.
+     * @param limit  maximum number of suggestions or {@code null} for the maximum number.
+     * @return texts of the suggestions, the most popular first.
+     */
+    List<String> suggest(String prefix, Integer limit);
+}
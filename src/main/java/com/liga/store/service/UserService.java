@@ -1,6 +1,7 @@
 package com.liga.store.service;
 
 import com.liga.store.domain.User;
+import com.liga.store.domain.dto.UserDto;
 import com.liga.store.service.Impl.UserServiceImpl;
 
 import java.util.List;
@@ -31,6 +32,14 @@ public interface UserService {
      */
     List<User> findAll();
 
+    /**
+     * Return list of all registered users without passwords and carts.
+     * Only the returned columns are selected from the database.
+     *
+     * @return list of {@link UserDto}.
+     */
+    List<UserDto> findAllDtos();
+
     /**
      * Save updated user with set of roles.
      *
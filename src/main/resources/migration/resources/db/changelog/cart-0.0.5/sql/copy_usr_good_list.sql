@@ -0,0 +1,5 @@
+insert into cart_item (user_id, good_id, quantity)
+select user_id, good_list_id, count(*)
+from usr_good_list
+group by user_id, good_list_id
+on conflict (user_id, good_id) do nothing;
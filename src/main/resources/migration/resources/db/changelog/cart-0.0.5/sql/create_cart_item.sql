@@ -0,0 +1,7 @@
+create table if not exists cart_item
+(
+    user_id  bigint  not null references usr (id) on delete cascade,
+    good_id  bigint  not null references good (id) on delete cascade,
+    quantity integer not null check (quantity > 0),
+    primary key (user_id, good_id)
+);
@@ -0,0 +1 @@
+delete from cart_item;
@@ -0,0 +1,12 @@
+create table if not exists cart
+(
+    user_id    bigint    not null primary key references usr (id) on delete cascade,
+    touched_at timestamp not null
+);
+
+create index if not exists cart_touched_at_idx on cart (touched_at);
+
+insert into cart (user_id, touched_at)
+select distinct user_id, now()
+from cart_item
+on conflict (user_id) do nothing;
@@ -0,0 +1,2 @@
+drop index if exists cart_touched_at_idx;
+drop table if exists cart;
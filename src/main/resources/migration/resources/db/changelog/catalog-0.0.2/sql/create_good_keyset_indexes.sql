@@ -0,0 +1 @@
+create index if not exists good_price_id_idx on good (price, id);
@@ -0,0 +1 @@
+drop index if exists good_price_id_idx;
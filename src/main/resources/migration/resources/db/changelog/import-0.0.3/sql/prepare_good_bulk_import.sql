@@ -0,0 +1,5 @@
+alter sequence good_id_seq increment by 50;
+
+select setval('good_id_seq', coalesce(max(id), 0) + 50) from good;
+
+create unique index if not exists good_producer_title_uidx on good (producer, title);
@@ -0,0 +1,3 @@
+drop index if exists good_producer_title_uidx;
+
+alter sequence good_id_seq increment by 1;
@@ -0,0 +1,3 @@
+alter table good add column version bigint not null default 0;
+
+alter table good add column last_modified timestamp not null default now();
@@ -0,0 +1,3 @@
+alter table good drop column last_modified;
+
+alter table good drop column version;
@@ -0,0 +1,195 @@
+package com.liga.store.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing of the {@link ReadWriteRoutingDataSource} between two in-memory databases.
+ * Every database has a row with its name, so a query tells which database served it.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see ReadWriteRoutingDataSource
+ * @see ReplicaLagMonitor
+ */
+class ReadWriteRoutingDataSourceTest {
+    private static final long MAX_LAG = 1000;
+    private static final long STICKY_MILLIS = 300;
+    private static final String WHO_AM_I = "select name from who_am_i";
+
+    /**
+     * Lag returned to the monitor by the next probe, -1 makes the probe fail.
+     */
+    private final AtomicLong lag = new AtomicLong();
+
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+
+        monitor = new ReplicaLagMonitor(replica, MAX_LAG) {
+            @Override
+            protected long readLag() {
+                if (lag.get() < 0) {
+                    throw new IllegalStateException("Replica is down");
+                }
+                return lag.get();
+            }
+        };
+        monitor.probe();
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, monitor, STICKY_MILLIS);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        assertThat(readOnlyQuery()).isEqualTo("replica");
+        assertThat(readWriteQuery()).isEqualTo("primary");
+        assertThat(whoAmI()).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingOrFailedReplicaFallsBackToPrimary() {
+        lag.set(MAX_LAG + 1);
+        monitor.probe();
+        assertThat(monitor.isUsable()).isFalse();
+        assertThat(readOnlyQuery()).isEqualTo("primary");
+
+        lag.set(-1);
+        monitor.probe();
+        assertThat(monitor.isUsable()).isFalse();
+        assertThat(readOnlyQuery()).isEqualTo("primary");
+
+        lag.set(MAX_LAG);
+        monitor.probe();
+        assertThat(readOnlyQuery()).isEqualTo("replica");
+    }
+
+    @Test
+    void sessionReadsItsCommittedWritesFromPrimary() {
+        startRequest();
+        readWrite.execute(status -> jdbcTemplate.update("insert into item (id) values (1)"));
+
+        assertThat(readOnlyQuery()).isEqualTo("primary");
+
+        startRequest();
+        assertThat(readOnlyQuery()).as("another session").isEqualTo("replica");
+    }
+
+    @Test
+    void stickinessEndsAfterTheStickyTime() throws InterruptedException {
+        startRequest();
+        readWrite.execute(status -> jdbcTemplate.update("insert into item (id) values (1)"));
+        assertThat(readOnlyQuery()).isEqualTo("primary");
+
+        Thread.sleep(STICKY_MILLIS + 50);
+        assertThat(readOnlyQuery()).isEqualTo("replica");
+    }
+
+    @Test
+    void writeOutsideOfTransactionMakesSessionSticky() {
+        startRequest();
+        jdbcTemplate.update("insert into item (id) values (1)");
+
+        assertThat(readOnlyQuery()).isEqualTo("primary");
+    }
+
+    @Test
+    void readWriteTransactionWhichOnlyReadsDoesNotMakeSessionSticky() {
+        startRequest();
+        assertThat(readWriteQuery()).isEqualTo("primary");
+        String prepared = readWrite.execute(status -> jdbcTemplate.queryForObject(WHO_AM_I + " where name <> ?",
+                String.class, ""));
+        assertThat(prepared).isEqualTo("primary");
+
+        assertThat(readOnlyQuery()).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotMakeSessionSticky() {
+        startRequest();
+        readWrite.execute(status -> {
+            jdbcTemplate.update("insert into item (id) values (1)");
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(readOnlyQuery()).isEqualTo("replica");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from item", Integer.class)).isZero();
+    }
+
+    @Test
+    void primaryReadsGoToPrimary() {
+        assertThat(PrimaryReads.call(this::readOnlyQuery)).isEqualTo("primary");
+        assertThat(PrimaryReads.isActive()).isFalse();
+        assertThat(readOnlyQuery()).isEqualTo("replica");
+    }
+
+    private String readOnlyQuery() {
+        return readOnly.execute(status -> whoAmI());
+    }
+
+    private String readWriteQuery() {
+        return readWrite.execute(status -> whoAmI());
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject(WHO_AM_I, String.class);
+    }
+
+    /**
+     * Binds a new request with a new HTTP session to the current thread.
+     */
+    private static void startRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.getSession(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    /**
+     * Creates an empty in-memory database with its name in the who_am_i table.
+     */
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("create table who_am_i (name varchar(16))");
+        template.execute("create table item (id int)");
+        template.update("insert into who_am_i (name) values (?)", name);
+
+        return dataSource;
+    }
+}
@@ -0,0 +1,250 @@
+package com.liga.store.inventory;
+
+import com.liga.store.domain.projection.GoodDeltaView;
+import com.liga.store.exeptions.ConflictException;
+import com.liga.store.repos.GoodRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrency stress test of the {@link InventoryEngine} and the {@link StockLevel}.
+ * Many threads reserve, commit and release stock while other threads expire reservations and flush
+ * the sold quantities. The available stock must never go below zero and at the end every unit
+ * must be either available or sold exactly once.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see InventoryEngine
+ * @see StockLevel
+ */
+class InventoryEngineStressTest {
+    private static final int GOODS = 5;
+    private static final int STOCK = 20_000;
+    private static final int WORKERS = 16;
+    private static final int OPERATIONS = 20_000;
+
+    private final AtomicLongArray flushed = new AtomicLongArray(GOODS + 1);
+
+    private InventoryEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        GoodRepository goodRepository = mock(GoodRepository.class);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+        when(goodRepository.findDeltaViewsByIdIn(any())).thenAnswer(invocation -> {
+            List<GoodDeltaView> views = new ArrayList<>();
+
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                views.add(view(id));
+            }
+
+            return views;
+        });
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+
+            for (Object[] arg : args) {
+                flushed.addAndGet(((Long) arg[1]).intValue(), (Long) arg[0]);
+            }
+
+            return new int[args.size()];
+        });
+
+        engine = new InventoryEngine(goodRepository, jdbcTemplate, transactionTemplate,
+                mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void stockLevelNeverGoesNegative() throws InterruptedException {
+        StockLevel level = new StockLevel(STOCK);
+        AtomicBoolean negative = new AtomicBoolean();
+
+        run(WORKERS, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            for (int i = 0; i < OPERATIONS; i++) {
+                long quantity = 1 + random.nextInt(STOCK / 10);
+
+                if (level.tryReserve(quantity)) {
+                    if (level.getAvailable() < 0) {
+                        negative.set(true);
+                    }
+                    level.release(quantity);
+                }
+            }
+        }, () -> {
+            if (level.getAvailable() < 0) {
+                negative.set(true);
+            }
+        });
+
+        assertThat(negative).isFalse();
+        assertThat(level.getAvailable()).isEqualTo(STOCK);
+    }
+
+    @Test
+    void reserveCommitReleaseAndExpireKeepStockConsistent() throws InterruptedException {
+        AtomicLongArray committed = new AtomicLongArray(GOODS + 1);
+        AtomicLong conflicts = new AtomicLong();
+        AtomicBoolean negative = new AtomicBoolean();
+
+        run(WORKERS, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            for (int i = 0; i < OPERATIONS; i++) {
+                Map<Long, Integer> quantities = new HashMap<>();
+
+                for (int j = random.nextInt(1, 3); j > 0; j--) {
+                    quantities.put(1L + random.nextInt(GOODS), 1 + random.nextInt(3));
+                }
+
+                InventoryReservation reservation;
+
+                try {
+                    reservation = engine.reserve(quantities, random.nextInt(3));
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                    continue;
+                }
+
+                switch (random.nextInt(4)) {
+                    case 0:
+                        try {
+                            engine.commit(reservation.getId());
+                            reservation.getQuantities().forEach((id, quantity) -> committed.addAndGet(id.intValue(), quantity));
+                        } catch (ConflictException e) {
+                            conflicts.incrementAndGet();
+                        }
+                        break;
+                    case 1:
+                        engine.release(reservation.getId());
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }, () -> {
+            engine.expire();
+
+            if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                engine.flush();
+            }
+
+            for (long id = 1; id <= GOODS; id++) {
+                if (engine.available(id) < 0) {
+                    negative.set(true);
+                }
+            }
+        });
+
+        Thread.sleep(5);
+        engine.expire();
+        engine.flush();
+
+        assertThat(negative).isFalse();
+        assertThat(conflicts.get()).as("stock ran out at least once").isPositive();
+
+        for (int id = 1; id <= GOODS; id++) {
+            assertThat(engine.available((long) id)).as("available stock of %d", id)
+                    .isEqualTo(STOCK - committed.get(id));
+            assertThat(flushed.get(id)).as("flushed quantity of %d", id).isEqualTo(committed.get(id));
+        }
+    }
+
+    private static GoodDeltaView view(Long id) {
+        return new GoodDeltaView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getPrice() {
+                return 100;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return STOCK;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 0L;
+            }
+        };
+    }
+
+    /**
+     * Runs the workers and repeats the background task in its own thread until the workers finish.
+     */
+    private static void run(int workers, Runnable worker, Runnable background) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(workers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(workers);
+        List<Throwable> failures = new ArrayList<>();
+
+        executor.execute(() -> {
+            try {
+                start.await();
+
+                while (done.getCount() > 0) {
+                    background.run();
+                }
+            } catch (Throwable e) {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            }
+        });
+
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    worker.run();
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        assertThat(failures).isEmpty();
+    }
+}
@@ -0,0 +1,43 @@
+package com.liga.store.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.liga.store.search.SearchTestData.queries;
+import static com.liga.store.search.SearchTestData.scan;
+import static com.liga.store.search.SearchTestData.tree;
+import static com.liga.store.search.SearchTestData.words;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Results of the {@link BkTree} compared with a linear scan of the vocabulary.
+ * Query latency by the size of the vocabulary is measured by the {@link FuzzyIndexBenchmark}.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see BkTree
+ * @see FuzzyIndexBenchmark
+ */
+class BkTreeTest {
+    @Test
+    void bkTreeFindsTheSameWordsAsLinearScan() {
+        Random random = new Random(7);
+        List<String> vocabulary = words(random, 5_000);
+        BkTree tree = tree(vocabulary);
+
+        for (String query : queries(random, vocabulary, 200)) {
+            for (int distance = 0; distance <= 2; distance++) {
+                Set<String> expected = scan(vocabulary, query, distance);
+                Set<String> found = tree.search(query, distance).stream()
+                        .map(BkTree.Match::getWord)
+                        .collect(Collectors.toSet());
+
+                assertThat(found).as("query %s, distance %d", query, distance).isEqualTo(expected);
+            }
+        }
+    }
+}
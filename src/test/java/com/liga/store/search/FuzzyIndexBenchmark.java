@@ -0,0 +1,96 @@
+package com.liga.store.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+import static com.liga.store.search.SearchTestData.queries;
+import static com.liga.store.search.SearchTestData.scan;
+import static com.liga.store.search.SearchTestData.tree;
+import static com.liga.store.search.SearchTestData.words;
+
+/**
+ * Query latency of the {@link BkTree}, a linear scan and the {@link FuzzyIndex} by the size of the vocabulary.
+ * Timings depend on the machine, so the benchmark only logs them and asserts nothing about them.
+ * It is skipped by the default test run and runs with {@code mvn test -Pbenchmark}.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see BkTree
+ * @see FuzzyIndex
+ */
+@Slf4j
+@Tag("benchmark")
+class FuzzyIndexBenchmark {
+    private static final int[] VOCABULARY_SIZES = {1_000, 10_000, 50_000};
+    private static final int QUERIES = 500;
+    private static final int ROUNDS = 3;
+
+    /**
+     * Number of found words, kept so the JIT cannot drop the searches.
+     */
+    private static volatile long found;
+
+    @Test
+    void queryLatencyByVocabularySize() {
+        Random random = new Random(42);
+
+        for (int size : VOCABULARY_SIZES) {
+            List<String> vocabulary = words(random, size);
+            BkTree tree = tree(vocabulary);
+            FuzzyIndex index = index(vocabulary);
+            List<String> queries = queries(random, vocabulary, QUERIES);
+
+            for (int distance = 1; distance <= 2; distance++) {
+                int maxDistance = distance;
+                long treeTime = time(queries, query -> tree.search(query, maxDistance).size());
+                long scanTime = time(queries, query -> scan(vocabulary, query, maxDistance).size());
+                long indexTime = time(queries, query -> index.search(Collections.singletonList(query), maxDistance, 10).size());
+
+                log.info("vocabulary={} distance={} bk-tree={} us/query scan={} us/query index={} us/query",
+                        size, distance, micros(treeTime), micros(scanTime), micros(indexTime));
+            }
+        }
+    }
+
+    /**
+     * Returns the best time in nanoseconds of all queries over several rounds, the first rounds warm up the JIT.
+     */
+    private static long time(List<String> queries, ToIntFunction<String> search) {
+        long best = Long.MAX_VALUE;
+        long total = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+
+            for (String query : queries) {
+                total += search.applyAsInt(query);
+            }
+
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        found += total;
+
+        return best;
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0 / QUERIES);
+    }
+
+    private static FuzzyIndex index(List<String> vocabulary) {
+        FuzzyIndex index = new FuzzyIndex();
+
+        for (int i = 0; i < vocabulary.size(); i++) {
+            index.put(i, Collections.singletonList(vocabulary.get(i)));
+        }
+
+        return index;
+    }
+}
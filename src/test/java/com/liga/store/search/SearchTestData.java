@@ -0,0 +1,75 @@
+package com.liga.store.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Random vocabularies and typo queries shared by the tests and the benchmarks of the typo-tolerant search.
+ *
+ * @author Nazirov Ilhomnjon (naziroffjr@gmail.com)
+ * @version 1.0
+ * @see BkTree
+ */
+final class SearchTestData {
+    private SearchTestData() {
+    }
+
+    static BkTree tree(List<String> vocabulary) {
+        BkTree tree = new BkTree();
+        vocabulary.forEach(tree::add);
+
+        return tree;
+    }
+
+    /**
+     * Returns the words of the vocabulary within the distance of the query found by a linear scan.
+     */
+    static Set<String> scan(List<String> vocabulary, String query, int distance) {
+        Set<String> found = new HashSet<>();
+
+        for (String word : vocabulary) {
+            if (BkTree.distance(word, query) <= distance) {
+                found.add(word);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Returns distinct random words of 4 to 10 letters.
+     */
+    static List<String> words(Random random, int size) {
+        Set<String> words = new HashSet<>();
+
+        while (words.size() < size) {
+            char[] word = new char[4 + random.nextInt(7)];
+
+            for (int i = 0; i < word.length; i++) {
+                word[i] = (char) ('a' + random.nextInt(26));
+            }
+
+            words.add(new String(word));
+        }
+
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * Returns words of the vocabulary with one letter replaced, a typical typo.
+     */
+    static List<String> queries(Random random, List<String> vocabulary, int size) {
+        List<String> queries = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            char[] word = vocabulary.get(random.nextInt(vocabulary.size())).toCharArray();
+            word[random.nextInt(word.length)] = (char) ('a' + random.nextInt(26));
+            queries.add(new String(word));
+        }
+
+        return queries;
+    }
+}